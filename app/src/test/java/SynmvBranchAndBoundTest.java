@@ -0,0 +1,56 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the branch and bound finds the makespan of a complete enumeration.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvBranchAndBoundTest {
+
+	private static float makespan(float[][] times, int[] order, SynmvJob.Variant variant) {
+		SynmvEvaluator evaluator = new SynmvEvaluator(times, order);
+		evaluator.evaluate(variant);
+		return evaluator.getEndTime(order.length-1);
+	}
+
+	/**
+	 * Finds the minimal makespan of all permutations of order from position k onward.
+	 */
+	private static float enumerate(float[][] times, int[] order, int k, SynmvJob.Variant variant) {
+		if(k == order.length) {
+			return makespan(times, order, variant);
+		}
+		float best = Float.POSITIVE_INFINITY;
+		for(int p = k; p < order.length; p++) {
+			int tmp = order[k];
+			order[k] = order[p];
+			order[p] = tmp;
+			best = Math.min(best, enumerate(times, order, k+1, variant));
+			order[p] = order[k];
+			order[k] = tmp;
+		}
+		return best;
+	}
+
+	@Test
+	public void findsOptimalMakespan() {
+		Random random = new Random(4);
+		for(int run = 0; run < 5; run++) {
+			float[][] times = SynmvInsertionTest.randomTimes(random, 6, 1 + random.nextInt(4));
+			for(SynmvJob.Variant variant : SynmvJob.Variant.values()) {
+				int[] initial = {0, 1, 2, 3, 4, 5};
+				SynmvBranchAndBound bb = new SynmvBranchAndBound(times, variant);
+				int[] best = bb.solve(initial);
+				assertTrue(bb.isOptimal());
+				float optimum = enumerate(times, initial.clone(), 0, variant);
+				assertEquals(optimum, makespan(times, best, variant), 1e-3, variant + " run " + run);
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that incremental evaluations give the results of evaluations from scratch,
+ * also after the length or the variant has changed.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvEvaluatorTest {
+
+	/**
+	 * Asserts that an evaluator has the results of a new evaluator of its first getLength() jobs.
+	 */
+	private static void assertEvaluatedFromScratch(SynmvEvaluator evaluator, float[][] times, SynmvJob.Variant variant, String message) {
+		int length = evaluator.getLength();
+		int[] permutation = evaluator.getPermutation();
+		float[][] used = new float[length][];
+		int[] order = new int[length];
+		for(int p = 0; p < length; p++) {
+			used[p] = times[permutation[p]];
+			order[p] = p;
+		}
+		SynmvEvaluator scratch = new SynmvEvaluator(used, order);
+		scratch.evaluate(variant);
+		for(int p = 0; p < length; p++) {
+			for(int i = 0; i < evaluator.getMachineCount(); i++) {
+				assertEquals(scratch.getOffset(p, i), evaluator.getOffset(p, i), 0, message + " offset " + p + "," + i);
+			}
+			assertEquals(scratch.getEndTime(p), evaluator.getEndTime(p), 0, message + " end time " + p);
+		}
+	}
+
+	@Test
+	public void shrinkingTheLength() {
+		//the second job's first operation makes the cycle of the first job's second one longer
+		float[][] times = {{1, 1, 1}, {3, 1, 1}};
+		SynmvEvaluator evaluator = new SynmvEvaluator(times, new int[]{0, 1});
+		evaluator.evaluate(SynmvJob.Variant.synchronous);
+		evaluator.setLength(1);
+		evaluator.evaluate(SynmvJob.Variant.synchronous, Integer.MAX_VALUE);
+		assertEvaluatedFromScratch(evaluator, times, SynmvJob.Variant.synchronous, "shrunk");
+	}
+
+	@Test
+	public void randomChangesOfLengthOrderAndVariant() {
+		Random random = new Random(7);
+		SynmvJob.Variant[] variants = SynmvJob.Variant.values();
+		for(int run = 0; run < 200; run++) {
+			int n = 1 + random.nextInt(12);
+			int m = 1 + random.nextInt(5);
+			float[][] times = SynmvInsertionTest.randomTimes(random, n, m);
+			int[] permutation = new int[n];
+			for(int p = 0; p < n; p++) {
+				permutation[p] = p;
+			}
+			SynmvEvaluator evaluator = new SynmvEvaluator(times, permutation);
+			SynmvJob.Variant variant = variants[random.nextInt(variants.length)];
+			evaluator.evaluate(variant);
+			for(int step = 0; step < 30; step++) {
+				int from = Integer.MAX_VALUE;
+				switch(random.nextInt(3)) {
+				case 0: //shrink or regrow
+					evaluator.setLength(random.nextInt(n+1));
+					break;
+				case 1: //swap
+					int a = random.nextInt(n);
+					int b = random.nextInt(n);
+					int tmp = permutation[a];
+					permutation[a] = permutation[b];
+					permutation[b] = tmp;
+					from = Math.min(a, b);
+					break;
+				default:
+					variant = variants[random.nextInt(variants.length)];
+				}
+				evaluator.evaluate(variant, from);
+				assertEvaluatedFromScratch(evaluator, times, variant, "run " + run + " step " + step);
+			}
+		}
+	}
+}
@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that undoing and redoing several steps of a SynmvHistory restores the orders
+ * the schedule has had, also after the oldest steps have been dropped to keep the memory cap.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvHistoryTest {
+
+	/**
+	 * Runs random shifts, swaps and new orders and records the order after each of them.
+	 */
+	private static ArrayList<int[]> runActions(SynmvSchedule schedule, SynmvHistory history, int count, Random random) {
+		int n = schedule.size();
+		ArrayList<int[]> orders = new ArrayList<int[]>();
+		orders.add(schedule.getOrder().clone());
+		for(int k = 0; k < count; k++) {
+			SynmvJobAction action;
+			int kind = random.nextInt(10);
+			if(kind == 0) {
+				int[] order = schedule.getOrder().clone();
+				for(int p = n-1; p > 0; p--) {
+					int q = random.nextInt(p+1);
+					int tmp = order[p];
+					order[p] = order[q];
+					order[q] = tmp;
+				}
+				action = new SynmvJobReorderAction(schedule, order);
+			}
+			else if(kind < 6) {
+				action = new SynmvJobShiftAction(schedule.getJob(random.nextInt(n)), schedule.getJob(random.nextInt(n)));
+			}
+			else {
+				action = new SynmvJobSwapAction(schedule.getJob(random.nextInt(n)), schedule.getJob(random.nextInt(n)));
+			}
+			action.run();
+			history.add(action);
+			orders.add(schedule.getOrder().clone());
+		}
+		return orders;
+	}
+
+	@Test
+	public void severalStepsRestoreTheRecordedOrders() {
+		SynmvSchedule schedule = SynmvJobTest.randomSchedule(50, 3, 1);
+		SynmvHistory history = new SynmvHistory();
+		history.setSchedule(schedule);
+		Random random = new Random(2);
+		ArrayList<int[]> orders = runActions(schedule, history, 500, random);
+
+		int state = orders.size() - 1;
+		assertEquals(state, history.getUndoCount());
+		for(int k = 0; k < 30; k++) {
+			int steps = random.nextInt(100);
+			if(random.nextBoolean()) {
+				history.undo(steps);
+				state = Math.max(0, state - steps);
+			}
+			else {
+				history.redo(steps);
+				state = Math.min(orders.size() - 1, state + steps);
+			}
+			assertArrayEquals(orders.get(state), schedule.getOrder(), "state " + state);
+			assertEquals(state, history.getUndoCount());
+			assertEquals(orders.size() - 1 - state, history.getRedoCount());
+		}
+	}
+
+	@Test
+	public void allocatedMemoryStaysBelowTheCap() {
+		SynmvSchedule schedule = SynmvJobTest.randomSchedule(1000, 2, 3);
+		SynmvHistory history = new SynmvHistory();
+		history.setSchedule(schedule);
+		long cap = 64 << 10;
+		history.setMemoryCap(cap);
+		Random random = new Random(4);
+		ArrayList<int[]> orders = runActions(schedule, history, 20000, random);
+		assertTrue(history.getMemoryUsage() <= cap, history.getMemoryUsage() + " bytes");
+
+		//the steps that are kept still lead back to the orders of their states
+		int kept = history.getUndoCount();
+		assertTrue(kept > 0);
+		history.undo(kept);
+		assertArrayEquals(orders.get(orders.size() - 1 - kept), schedule.getOrder());
+		history.redo(kept);
+		assertArrayEquals(orders.get(orders.size() - 1), schedule.getOrder());
+	}
+
+	@Test
+	public void loweringTheCapShrinksTheBuffers() {
+		SynmvSchedule schedule = SynmvJobTest.randomSchedule(200, 2, 5);
+		SynmvHistory history = new SynmvHistory();
+		history.setSchedule(schedule);
+		runActions(schedule, history, 5000, new Random(6));
+		long before = history.getMemoryUsage();
+
+		long cap = before / 4;
+		history.setMemoryCap(cap);
+		assertTrue(history.getMemoryUsage() <= cap, history.getMemoryUsage() + " of " + before + " bytes");
+	}
+}
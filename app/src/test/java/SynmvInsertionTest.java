@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the makespans SynmvInsertion calculates in O(m) are the ones
+ * of full evaluations of the sequences with the inserted job.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvInsertionTest {
+
+	static float[][] randomTimes(Random random, int n, int m) {
+		float[][] times = new float[n][m];
+		for(float[] row : times) {
+			for(int i = 0; i < m; i++) {
+				row[i] = 1 + random.nextInt(99);
+			}
+		}
+		return times;
+	}
+
+	@Test
+	public void insertionsMatchFullEvaluation() {
+		Random random = new Random(3);
+		for(int run = 0; run < 50; run++) {
+			int n = 2 + random.nextInt(15);
+			int m = 1 + random.nextInt(6);
+			float[][] times = randomTimes(random, n, m);
+			int length = random.nextInt(n);
+			int job = n - 1;
+			int[] sequence = new int[n];
+			for(int p = 0; p < n; p++) {
+				sequence[p] = p;
+			}
+			for(SynmvJob.Variant variant : SynmvJob.Variant.values()) {
+				SynmvInsertion insertion = new SynmvInsertion(times, variant);
+				insertion.setSequence(sequence, length);
+				for(int k = 0; k <= length; k++) {
+					int[] inserted = new int[length + 1];
+					System.arraycopy(sequence, 0, inserted, 0, k);
+					inserted[k] = job;
+					System.arraycopy(sequence, k, inserted, k+1, length-k);
+					float[][] used = new float[length + 1][];
+					int[] order = new int[length + 1];
+					for(int p = 0; p <= length; p++) {
+						used[p] = times[inserted[p]];
+						order[p] = p;
+					}
+					SynmvEvaluator evaluator = new SynmvEvaluator(used, order);
+					evaluator.evaluate(variant);
+					assertEquals(evaluator.getEndTime(length), insertion.evaluate(job, k), 1e-3,
+							variant + " run " + run + " position " + k);
+				}
+			}
+		}
+	}
+}
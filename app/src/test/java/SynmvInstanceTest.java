@@ -0,0 +1,76 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that instances are read as they have been written in both formats.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvInstanceTest {
+
+	@TempDir
+	Path dir;
+
+	private static SynmvInstance randomInstance(Random random) {
+		int n = 1 + random.nextInt(30);
+		int m = 1 + random.nextInt(8);
+		float[][] times = SynmvInsertionTest.randomTimes(random, n, m);
+		float[] duedates = new float[n];
+		float[] weights = new float[n];
+		int[] order = new int[n];
+		for(int j = 0; j < n; j++) {
+			duedates[j] = random.nextInt(500);
+			weights[j] = 1 + random.nextInt(9);
+			int k = random.nextInt(j+1);
+			order[j] = order[k];
+			order[k] = j;
+		}
+		return new SynmvInstance(m, times, duedates, weights, order, true, true);
+	}
+
+	private static void assertSameInstance(SynmvInstance expected, SynmvInstance actual) {
+		assertEquals(expected.getMachineCount(), actual.getMachineCount());
+		assertEquals(expected.getJobCount(), actual.getJobCount());
+		for(int j = 0; j < expected.getJobCount(); j++) {
+			assertArrayEquals(expected.getTimes()[j], actual.getTimes()[j]);
+		}
+		assertArrayEquals(expected.getDuedates(), actual.getDuedates());
+		assertArrayEquals(expected.getWeights(), actual.getWeights());
+		assertArrayEquals(expected.getOrder(), actual.getOrder());
+	}
+
+	@Test
+	public void roundTripsInBothFormats() throws Exception {
+		Random random = new Random(5);
+		for(int run = 0; run < 50; run++) {
+			SynmvInstance instance = randomInstance(random);
+			for(boolean binary : new boolean[]{false, true}) {
+				String file = dir.resolve("instance" + run + (binary ? ".bin" : ".txt")).toString();
+				instance.write(file, binary);
+				assertSameInstance(instance, SynmvInstance.read(file));
+			}
+		}
+	}
+
+	@Test
+	public void truncatedBinaryFileIsRejected() throws IOException {
+		SynmvInstance instance = randomInstance(new Random(6));
+		File file = dir.resolve("truncated.bin").toFile();
+		instance.write(file.getPath(), true);
+		try(RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 3);
+		}
+		assertThrows(InvalidFileFormatException.class, () -> SynmvInstance.read(file.getPath()));
+	}
+}
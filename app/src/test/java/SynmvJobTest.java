@@ -0,0 +1,135 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
+
+import javax.swing.JPanel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the offsets the jobs calculate themselves are the ones of SynmvEvaluator,
+ * also for schedules that are too long to be walked recursively.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvJobTest {
+
+	/**
+	 * The number of jobs of the long schedule. Recursing through its jobs
+	 * would overflow the default thread stack.
+	 */
+	private static final int LONG = 100000;
+
+	private final SynmvJob.Variant variant = SynmvJob.variant;
+
+	@AfterEach
+	public void restoreVariant() {
+		SynmvJob.variant = variant;
+	}
+
+	/**
+	 * Creates a schedule of jobs with random times between 1 and 99.
+	 */
+	static SynmvSchedule randomSchedule(int n, int m, long seed) {
+		Random random = new Random(seed);
+		JPanel container = new JPanel();
+		SynmvJob[] jobs = new SynmvJob[n];
+		for(int j = 0; j < n; j++) {
+			float[] times = new float[m];
+			for(int i = 0; i < m; i++) {
+				times[i] = 1 + random.nextInt(99);
+			}
+			jobs[j] = new SynmvJob(container, j+1, times);
+		}
+		return new SynmvSchedule(jobs, null);
+	}
+
+	@Test
+	public void coldOffsetsOfLongScheduleMatchEvaluator() {
+		SynmvSchedule schedule = randomSchedule(LONG, 5, 1);
+		for(SynmvJob.Variant v : SynmvJob.Variant.values()) {
+			SynmvJob.variant = v;
+			SynmvJob.markChanged(0);
+			SynmvEvaluator evaluator = new SynmvEvaluator(schedule.getTimes(), schedule.getOrder());
+			evaluator.evaluate(v);
+
+			//the last job is asked first, so all offsets before it are calculated from a cold cache
+			SynmvJob last = schedule.getJob(LONG-1);
+			assertEquals(evaluator.getEndTime(LONG-1), last.getEndTime(), 0, v.name());
+			for(int p = 0; p < LONG; p++) {
+				SynmvJob job = schedule.getJob(p);
+				for(int i = 0; i < 5; i++) {
+					assertEquals(evaluator.getOffset(p, i), job.getOffset(i), 0, v.name() + " position " + p);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void offsetsOfLongScheduleAfterChangesInTheMiddleMatchEvaluator() {
+		SynmvSchedule schedule = randomSchedule(LONG, 5, 4);
+		for(SynmvJob.Variant v : SynmvJob.Variant.values()) {
+			SynmvJob.variant = v;
+			SynmvJob.markChanged(0);
+			schedule.getJob(LONG-1).getEndTime();
+
+			//no callback stores the offsets, the jobs have to calculate the changed ones themselves
+			schedule.getJob(LONG/2).swapWithNext();
+			schedule.getJob(LONG-1).getEndTime(); //the stale suffix is walked from its end
+			assertOffsets(schedule, 5, v.name() + " after a swap");
+
+			schedule.getJob(LONG/3).setTime(2, 1000);
+			schedule.getJob(LONG-1).getEndTime(); //the stale suffix is walked from its end
+			assertOffsets(schedule, 5, v.name() + " after a new time");
+		}
+	}
+
+	/**
+	 * Compares the offsets the jobs calculate themselves with the ones of a new SynmvEvaluator.
+	 */
+	static void assertOffsets(SynmvSchedule schedule, int m, String message) {
+		SynmvEvaluator evaluator = new SynmvEvaluator(schedule.getTimes(), schedule.getOrder());
+		evaluator.evaluate(SynmvJob.variant);
+		for(int p = 0; p < schedule.size(); p++) {
+			SynmvJob job = schedule.getJob(p);
+			for(int i = 0; i < m; i++) {
+				assertEquals(evaluator.getOffset(p, i), job.getOffset(i), 0, message + " position " + p);
+			}
+			assertEquals(evaluator.getEndTime(p), job.getEndTime(), 0, message + " position " + p);
+		}
+	}
+
+	@Test
+	public void offsetsAfterChangesInTheMiddleAreCalculatedAgain() {
+		SynmvSchedule schedule = randomSchedule(8, 3, 3);
+		for(SynmvJob.Variant v : SynmvJob.Variant.values()) {
+			SynmvJob.variant = v;
+			SynmvJob.markChanged(0);
+			assertOffsets(schedule, 3, v.name());
+
+			schedule.getJob(2).swapWithNext();
+			assertOffsets(schedule, 3, v.name() + " after a swap");
+
+			schedule.getJob(4).setTime(1, 500);
+			assertOffsets(schedule, 3, v.name() + " after a new time");
+
+			//two changes without reading the offsets in between
+			schedule.getJob(5).swapWithNext();
+			schedule.getJob(3).setTime(0, 200);
+			assertOffsets(schedule, 3, v.name() + " after two changes");
+		}
+	}
+
+	@Test
+	public void listWalksOfLongSchedule() {
+		SynmvSchedule schedule = randomSchedule(LONG, 2, 2);
+		SynmvJob middle = schedule.getJob(LONG/2);
+		assertEquals(LONG/2, middle.countPredecessors());
+		assertEquals(LONG - LONG/2 - 1, middle.countFollowers());
+		assertSame(schedule.getJob(0), middle.getFirstPredecessor());
+		assertSame(schedule.getJob(LONG-1), middle.getLastFollower());
+	}
+}
@@ -0,0 +1,30 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the objectives of a small schedule with early and late jobs.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvObjectivesTest {
+
+	@Test
+	public void earlyJobsHaveNoTardiness() {
+		//asynchronous end times 2, 5 and 7
+		float[][] times = {{1, 1}, {1, 3}, {4, 1}};
+		SynmvEvaluator evaluator = new SynmvEvaluator(times, new int[]{0, 1, 2});
+		evaluator.evaluate(SynmvJob.Variant.asynchronous);
+		float[] duedates = {10, 3, 5};
+		float[] weights = {1, 2, 3};
+
+		SynmvObjectives objectives = new SynmvObjectives();
+		objectives.calculate(evaluator, duedates, weights, SynmvObjectives.ALL);
+		assertEquals(7, objectives.getCmax(), 0);
+		assertEquals(1*2 + 2*5 + 3*7, objectives.getSumCj(), 0);
+		assertEquals(2, objectives.getLmax(), 0);
+		assertEquals(2*2 + 3*2, objectives.getSumTj(), 0);
+		assertEquals(2 + 3, objectives.getSumUj(), 0);
+	}
+}
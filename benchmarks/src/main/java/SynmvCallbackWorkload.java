@@ -0,0 +1,85 @@
+import java.awt.EventQueue;
+
+/**
+ * This workload runs the callback of the frame after the whole schedule has changed.
+ * A SynmvFrame cannot be created without a display, so the callback runs the
+ * SynmvEvaluation the frame uses, too, with all objectives and highlightings selected.
+ * Everything runs in the event dispatch thread like in the frame, and an operation
+ * lasts until the worker's result is shown for large schedules.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvCallbackWorkload extends SynmvScheduleWorkload {
+
+	protected SynmvEvaluation evaluation;
+
+	private final Runnable callback = new Runnable() {
+		@Override
+		public void run() {
+			evaluation.setObjectives(SynmvObjectives.CMAX | SynmvObjectives.SUM_CJ | SynmvObjectives.LMAX
+					| SynmvObjectives.SUM_TJ | SynmvObjectives.SUM_UJ, schedule.getWeights(), true, true);
+			evaluation.recompute();
+		}
+	};
+
+	@Override
+	public void setUp(final int n, final int m, final String variant) throws Exception {
+		EventQueue.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					SynmvCallbackWorkload.super.setUp(n, m, variant);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+				evaluation = new SynmvEvaluation(schedule, canvas);
+				SynmvJob.callback = callback;
+			}
+		});
+		runInEventQueue(new Runnable() {
+			@Override
+			public void run() {
+				SynmvJob.runCallback();
+			}
+		});
+	}
+
+	@Override
+	public float run() throws Exception {
+		runInEventQueue(new Runnable() {
+			@Override
+			public void run() {
+				SynmvJob.markChanged(0);
+				SynmvJob.runCallback();
+			}
+		});
+		return evaluation.getObjectives().getCmax();
+	}
+
+	@Override
+	public void tearDown() {
+		evaluation.dispose();
+		super.tearDown();
+	}
+
+	/**
+	 * Runs an operation in the event dispatch thread and waits until its result is shown.
+	 *
+	 * @param operation
+	 * 			the operation
+	 * @throws Exception
+	 * 			if the operation fails
+	 */
+	protected void runInEventQueue(Runnable operation) throws Exception {
+		EventQueue.invokeAndWait(operation);
+		while(evaluation.isPending()) {
+			//the worker delivers its result through the event queue
+			EventQueue.invokeAndWait(new Runnable() {
+				@Override
+				public void run() {
+				}
+			});
+		}
+	}
+}
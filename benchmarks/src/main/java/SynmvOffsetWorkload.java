@@ -0,0 +1,16 @@
+/**
+ * This workload calculates the offsets of all jobs by SynmvJob.getOffset()
+ * after the whole schedule has been marked as changed.
+ * 
+ * @author sebrockm
+ *
+ */
+public class SynmvOffsetWorkload extends SynmvScheduleWorkload {
+	
+	@Override
+	public float run() {
+		SynmvJob.markChanged(0);
+		SynmvJob last = schedule.getJob(jobs.length-1);
+		return last.getOffset(last.getMachineCount()-1);
+	}
+}
@@ -0,0 +1,48 @@
+import java.io.File;
+
+import javax.swing.JPanel;
+
+import synmv.benchmarks.Workload;
+
+/**
+ * This workload reads a file of random jobs and creates the SynmvJobs
+ * and their schedule, like the frame does when a file is loaded.
+ * The option is the format of the file, text or binary.
+ * 
+ * @author sebrockm
+ *
+ */
+public class SynmvReadWorkload implements Workload {
+	
+	private final JPanel container = new JPanel();
+	private File file;
+	
+	@Override
+	public void setUp(int n, int m, String format) throws Exception {
+		float[][] times = SynmvScheduleWorkload.randomTimes(n, m);
+		float[] duedates = new float[n];
+		float[] weights = new float[n];
+		for(int j = 0; j < n; j++) {
+			duedates[j] = -1;
+			weights[j] = 1;
+		}
+		file = File.createTempFile("synmv", "." + format);
+		new SynmvInstance(m, times, duedates, weights, null, false, false).write(file.getPath(), format.equals("binary"));
+	}
+	
+	@Override
+	public float run() throws Exception {
+		SynmvInstance instance = SynmvInstance.read(file.getPath());
+		float[][] times = instance.getTimes();
+		SynmvJob[] jobs = new SynmvJob[times.length];
+		for(int j = 0; j < jobs.length; j++) {
+			jobs[j] = new SynmvJob(container, j+1, times[j], instance.getDuedates()[j], instance.getWeights()[j]);
+		}
+		return new SynmvSchedule(jobs, instance.getOrder()).size();
+	}
+	
+	@Override
+	public void tearDown() {
+		file.delete();
+	}
+}
@@ -0,0 +1,61 @@
+import java.util.Random;
+
+import synmv.benchmarks.Workload;
+
+/**
+ * This class is the base of the workloads on a displayed schedule. It creates
+ * random jobs like the ones of Taillard in a SynmvCanvas, which does not need
+ * a display, and selects the variant given as option.
+ * 
+ * @author sebrockm
+ *
+ */
+public abstract class SynmvScheduleWorkload implements Workload {
+	
+	/**
+	 * The seed of the random times, so that every run measures the same schedule.
+	 */
+	private static final long SEED = 42;
+	
+	protected SynmvCanvas canvas;
+	protected SynmvJob[] jobs;
+	protected SynmvSchedule schedule;
+	
+	/**
+	 * Creates random process times between 1 and 99.
+	 * 
+	 * @param n
+	 * 			the number of jobs
+	 * @param m
+	 * 			the number of machines
+	 * @return the process times, times[j][i] is the time job j needs on machine i
+	 */
+	public static float[][] randomTimes(int n, int m) {
+		Random random = new Random(SEED);
+		float[][] times = new float[n][m];
+		for(float[] row : times) {
+			for(int i = 0; i < m; i++) {
+				row[i] = 1 + random.nextInt(99);
+			}
+		}
+		return times;
+	}
+	
+	@Override
+	public void setUp(int n, int m, String variant) throws Exception {
+		SynmvJob.variant = SynmvJob.Variant.valueOf(variant);
+		float[][] times = randomTimes(n, m);
+		canvas = new SynmvCanvas();
+		jobs = new SynmvJob[n];
+		for(int j = 0; j < n; j++) {
+			jobs[j] = new SynmvJob(canvas, j+1, times[j]);
+		}
+		schedule = new SynmvSchedule(jobs, null);
+	}
+	
+	@Override
+	public void tearDown() {
+		SynmvJob.callback = null;
+		SynmvJob.history.setSchedule(null);
+	}
+}
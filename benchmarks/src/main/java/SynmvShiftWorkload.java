@@ -0,0 +1,59 @@
+import java.util.Random;
+
+/**
+ * This workload shifts a job by a SynmvJobShiftAction and undoes it again through
+ * the history, like the frame's undo does. Both run the callback of the frame.
+ * The positions are drawn at random in advance.
+ * 
+ * @author sebrockm
+ *
+ */
+public class SynmvShiftWorkload extends SynmvCallbackWorkload {
+	
+	/**
+	 * The number of drawn shifts, they are repeated.
+	 */
+	private static final int SHIFTS = 1024;
+	
+	private final int[] from = new int[SHIFTS];
+	private final int[] to = new int[SHIFTS];
+	private int next = 0;
+	
+	@Override
+	public void setUp(int n, int m, String variant) throws Exception {
+		super.setUp(n, m, variant);
+		SynmvJob.history.setSchedule(schedule);
+		Random random = new Random(n);
+		for(int k = 0; k < SHIFTS; k++) {
+			from[k] = random.nextInt(n);
+			to[k] = random.nextInt(n);
+		}
+	}
+	
+	@Override
+	public float run() throws Exception {
+		int k = next;
+		next = (next + 1) % SHIFTS;
+		final SynmvJobShiftAction action = new SynmvJobShiftAction(schedule.getJob(from[k]), schedule.getJob(to[k]));
+		runInEventQueue(new Runnable() {
+			@Override
+			public void run() {
+				action.run();
+				SynmvJob.history.add(action);
+			}
+		});
+		runInEventQueue(new Runnable() {
+			@Override
+			public void run() {
+				SynmvJob.beginTransaction();
+				try {
+					SynmvJob.history.undo(1);
+				}
+				finally {
+					SynmvJob.endTransaction();
+				}
+			}
+		});
+		return evaluation.getObjectives().getCmax();
+	}
+}
@@ -0,0 +1,36 @@
+import java.io.File;
+
+/**
+ * This workload stores a schedule of random jobs in a file,
+ * like the frame does when the jobs are saved.
+ * The option is the format of the file, text or binary.
+ * 
+ * @author sebrockm
+ *
+ */
+public class SynmvStoreWorkload extends SynmvScheduleWorkload {
+	
+	private File file;
+	private boolean binary;
+	
+	@Override
+	public void setUp(int n, int m, String format) throws Exception {
+		super.setUp(n, m, SynmvJob.Variant.synchronous.name());
+		binary = format.equals("binary");
+		file = File.createTempFile("synmv", "." + format);
+	}
+	
+	@Override
+	public float run() throws Exception {
+		SynmvInstance instance = new SynmvInstance(jobs[0].getMachineCount(), schedule.getTimes(), schedule.getDuedates(),
+				schedule.getWeights(), schedule.getOrder(), SynmvJob.hasDuedates, SynmvJob.hasWeights);
+		instance.write(file.getPath(), binary);
+		return instance.getJobCount();
+	}
+	
+	@Override
+	public void tearDown() {
+		super.tearDown();
+		file.delete();
+	}
+}
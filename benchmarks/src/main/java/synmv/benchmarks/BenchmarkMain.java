@@ -0,0 +1,31 @@
+package synmv.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks like the main class of JMH, but always with the gc profiler,
+ * so that the allocation rate is reported next to the operations per second.
+ * All options of JMH can be given, e.g. a regular expression of the benchmarks
+ * to be run or -p jobs=100,1000 to restrict the parameters.
+ * 
+ * @author sebrockm
+ *
+ */
+public class BenchmarkMain {
+	
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+		if(cmdOptions.shouldHelp()) {
+			cmdOptions.showHelp();
+			return;
+		}
+		if(cmdOptions.shouldList()) {
+			new Runner(cmdOptions).list();
+			return;
+		}
+		new Runner(new OptionsBuilder().parent(cmdOptions).addProfiler(GCProfiler.class).build()).run();
+	}
+}
@@ -0,0 +1,57 @@
+package synmv.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the callback of the frame after the whole schedule has changed.
+ * 
+ * @author sebrockm
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallbackBenchmark {
+	
+	@Param({"100", "1000", "10000", "100000"})
+	private int jobs;
+	
+	@Param({"5", "20", "100"})
+	private int machines;
+	
+	@Param({"synchronous", "asynchronous", "noWait", "blocking"})
+	private String variant;
+	
+	private Workload workload;
+	
+	@Setup
+	public void setUp() throws Exception {
+		workload = Workloads.create("SynmvCallbackWorkload", jobs, machines, variant);
+	}
+	
+	@TearDown
+	public void tearDown() throws Exception {
+		workload.tearDown();
+	}
+	
+	@Benchmark
+	public float callback() throws Exception {
+		return workload.run();
+	}
+}
@@ -0,0 +1,66 @@
+package synmv.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading the jobs of a file and storing them again,
+ * like the frame does when a file is loaded or saved.
+ * 
+ * @author sebrockm
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileBenchmark {
+	
+	@Param({"100", "1000", "10000", "100000"})
+	private int jobs;
+	
+	@Param({"5", "20", "100"})
+	private int machines;
+	
+	@Param({"text", "binary"})
+	private String format;
+	
+	private Workload read;
+	private Workload store;
+	
+	@Setup
+	public void setUp() throws Exception {
+		read = Workloads.create("SynmvReadWorkload", jobs, machines, format);
+		store = Workloads.create("SynmvStoreWorkload", jobs, machines, format);
+	}
+	
+	@TearDown
+	public void tearDown() throws Exception {
+		read.tearDown();
+		store.tearDown();
+	}
+	
+	@Benchmark
+	public float read() throws Exception {
+		return read.run();
+	}
+	
+	@Benchmark
+	public float store() throws Exception {
+		return store.run();
+	}
+}
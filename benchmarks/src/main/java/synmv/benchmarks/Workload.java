@@ -0,0 +1,44 @@
+package synmv.benchmarks;
+
+/**
+ * A workload on the classes of synmvGUI. Those classes are in the default package,
+ * which cannot be referenced from a package. JMH on the other hand does not accept
+ * benchmarks in the default package. So the workloads are implemented in the default
+ * package against this interface and the benchmarks load them by name.
+ * 
+ * @author sebrockm
+ *
+ */
+public interface Workload {
+	
+	/**
+	 * Prepares the workload. This is not measured.
+	 * 
+	 * @param jobs
+	 * 			the number of jobs
+	 * @param machines
+	 * 			the number of machines
+	 * @param option
+	 * 			an option of the workload, e.g. the variant or the file format
+	 * @throws Exception
+	 * 			if the workload cannot be prepared
+	 */
+	void setUp(int jobs, int machines, String option) throws Exception;
+	
+	/**
+	 * Runs one operation of the workload.
+	 * 
+	 * @return a result that is consumed by the benchmark, so that the operation cannot be eliminated
+	 * @throws Exception
+	 * 			if the operation fails
+	 */
+	float run() throws Exception;
+	
+	/**
+	 * Releases everything the workload has prepared.
+	 * 
+	 * @throws Exception
+	 * 			if something cannot be released
+	 */
+	void tearDown() throws Exception;
+}
@@ -0,0 +1,34 @@
+package synmv.benchmarks;
+
+/**
+ * Creates the workloads of the default package.
+ * 
+ * @author sebrockm
+ *
+ */
+public final class Workloads {
+	
+	private Workloads() {
+	}
+	
+	/**
+	 * Creates a workload and prepares it.
+	 * 
+	 * @param name
+	 * 			the name of the class implementing Workload
+	 * @param jobs
+	 * 			the number of jobs
+	 * @param machines
+	 * 			the number of machines
+	 * @param option
+	 * 			an option of the workload
+	 * @return the prepared workload
+	 * @throws Exception
+	 * 			if the class cannot be instantiated or the workload cannot be prepared
+	 */
+	public static Workload create(String name, int jobs, int machines, String option) throws Exception {
+		Workload workload = (Workload) Class.forName(name).getDeclaredConstructor().newInstance();
+		workload.setUp(jobs, machines, option);
+		return workload;
+	}
+}
@@ -0,0 +1,15 @@
+/**
+ * This exception shall be thrown, if a file read has an invalid format.
+ * 
+ * @author sebrockm
+ *
+ */
+@SuppressWarnings("serial")
+public class InvalidFileFormatException extends Exception {
+	public InvalidFileFormatException() {
+		super();
+	}
+	public InvalidFileFormatException(String message) {
+		super(message);
+	}
+}
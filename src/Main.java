@@ -4,16 +4,28 @@ import java.awt.EventQueue;
 public class Main {
 
 
+	/**
+	 * Opens a SynmvFrame or, if there are arguments, runs the batch mode
+	 * of SynmvBatch without loading the GUI.
+	 *
+	 * @param args
+	 * 			the arguments of the batch mode, see SynmvBatch
+	 */
 	public static void main(String[] args) throws InterruptedException{
+		if(args.length > 0) {
+			SynmvBatch.main(args);
+			return;
+		}
+
 		EventQueue.invokeLater(new Runnable(){
 
 			@Override
 			public void run() {
 				new SynmvFrame();
 			}
-			
+
 		});
-		
+
 	}
 
 }
@@ -0,0 +1,260 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class finds the best moves of a schedule. A move shifts one job to
+ * another position, just like a SynmvJobShiftAction. All n^2 moves are
+ * evaluated and the ones that improve the objective the most are returned.
+ * <p>
+ * For the makespan every job is removed once and a SynmvInsertion evaluates
+ * all its positions in O(m) each, so all moves take O(n^2 * m). The other
+ * objectives depend on every end time, so they are evaluated by a
+ * SynmvEvaluator from the first changed position onward. The jobs are
+ * distributed among the cores by a ForkJoinPool.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvAdvisor {
+
+	/**
+	 * The pool all advisors share. Its threads are daemons and idle when there is nothing to do.
+	 */
+	private static final ForkJoinPool pool = new ForkJoinPool();
+
+	/**
+	 * The number of jobs whose moves are evaluated by one task.
+	 */
+	private static final int JOBS_PER_TASK = 8;
+
+	/**
+	 * A move of the job at position from to position to
+	 * and the value of the objective after the move.
+	 */
+	public static class Move {
+		public final int from;
+		public final int to;
+		public final float value;
+
+		public Move(int from, int to, float value) {
+			this.from = from;
+			this.to = to;
+			this.value = value;
+		}
+	}
+
+	private final float[][] times;
+	private final float[] duedates;
+	private final float[] weights;
+	private final SynmvJob.Variant variant;
+	private final int objective;
+
+	/**
+	 * The no-wait delays shared by all tasks or null.
+	 */
+	private SynmvNoWaitDelays delays = null;
+
+	/**
+	 * The order of the evaluated schedule.
+	 */
+	private int[] order;
+
+	/**
+	 * The value of the evaluated schedule.
+	 */
+	private float value;
+
+	/**
+	 * The number of moves that are returned at most.
+	 */
+	private int count;
+
+	/**
+	 * true, when the evaluation has been cancelled.
+	 */
+	private volatile boolean cancelled = false;
+
+	/**
+	 * This task evaluates all moves of the jobs at a range of positions
+	 * and returns the best ones. It splits itself as long as there are too many jobs.
+	 */
+	@SuppressWarnings("serial")
+	private class MovesTask extends RecursiveTask<Move[]> {
+		private final int from;
+		private final int to;
+
+		public MovesTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Move[] compute() {
+			if(to - from > JOBS_PER_TASK) {
+				int mid = (from + to) >>> 1;
+				MovesTask right = new MovesTask(mid, to);
+				right.fork();
+				Move[] left = new MovesTask(from, mid).compute();
+				return merge(left, right.join());
+			}
+
+			Move[] best = new Move[0];
+			int n = order.length;
+			int[] sequence = new int[n];
+			SynmvInsertion insertion = objective == SynmvObjectives.CMAX ? new SynmvInsertion(times, variant) : null;
+			SynmvEvaluator evaluator = null;
+			SynmvObjectives objectives = null;
+			if(insertion == null) {
+				evaluator = new SynmvEvaluator(times, sequence);
+				evaluator.setNoWaitDelays(delays);
+				objectives = new SynmvObjectives();
+			}
+
+			float[] values = new float[n];
+			for(int p = from; p < to && !cancelled; p++) {
+				int job = order[p];
+
+				if(insertion != null) {
+					System.arraycopy(order, 0, sequence, 0, p);
+					System.arraycopy(order, p+1, sequence, p, n-p-1);
+					insertion.setSequence(sequence, n-1);
+					for(int k = 0; k < n; k++) {
+						values[k] = insertion.evaluate(job, k);
+					}
+				}
+				else {
+					//move the job to the end and from there to the front, evaluating every position on the way
+					System.arraycopy(order, 0, sequence, 0, n);
+					System.arraycopy(sequence, p+1, sequence, p, n-p-1);
+					sequence[n-1] = job;
+					evaluator.evaluate(variant, 0);
+					objectives.calculate(evaluator, duedates, weights, objective);
+					values[n-1] = objectives.get(objective);
+					for(int k = n-2; k >= 0; k--) {
+						sequence[k+1] = sequence[k];
+						sequence[k] = job;
+						evaluator.evaluate(variant, k);
+						objectives.calculate(evaluator, duedates, weights, objective);
+						values[k] = objectives.get(objective);
+					}
+				}
+
+				for(int k = 0; k < n; k++) {
+					//moving p to p-1 is the same as moving p-1 to p
+					if(k == p || k == p-1 || !improves(values[k])) {
+						continue;
+					}
+					if(best.length == count && best[count-1].value <= values[k]) {
+						continue;
+					}
+					best = merge(best, new Move[]{new Move(p, k, values[k])});
+				}
+			}
+			return best;
+		}
+	}
+
+	/**
+	 * Creates a new SynmvAdvisor. The arrays are not copied,
+	 * so they must not be changed while advise() runs.
+	 *
+	 * @param times
+	 * 			the process times, times[j][i] is the time job j needs on machine i
+	 * @param duedates
+	 * 			the due dates, duedates[j] is the due date of job j
+	 * @param weights
+	 * 			the weights, weights[j] is the weight of job j, or null if all weights are 1
+	 * @param variant
+	 * 			the variant the schedules are evaluated for
+	 * @param objective
+	 * 			the flag of the objective to be minimized, e.g. SynmvObjectives.CMAX
+	 */
+	public SynmvAdvisor(float[][] times, float[] duedates, float[] weights, SynmvJob.Variant variant, int objective) {
+		this.times = times;
+		this.duedates = duedates;
+		this.weights = weights;
+		this.variant = variant;
+		this.objective = objective;
+	}
+
+	/**
+	 * Evaluates all moves of a schedule.
+	 *
+	 * @param order
+	 * 			the order of the job indices, it is not copied
+	 * @param count
+	 * 			the maximal number of moves to be returned
+	 * @return the best moves that improve the schedule, the best one first
+	 */
+	public Move[] advise(int[] order, int count) {
+		this.order = order;
+		this.count = count;
+		int n = order.length;
+		if(n < 2 || count <= 0) {
+			value = 0;
+			return new Move[0];
+		}
+
+		if(objective == SynmvObjectives.CMAX) {
+			SynmvInsertion insertion = new SynmvInsertion(times, variant);
+			insertion.setSequence(order, n);
+			value = insertion.getMakespan();
+		}
+		else {
+			if(variant == SynmvJob.Variant.noWait && SynmvNoWaitDelays.fits(n) && delays == null) {
+				delays = new SynmvNoWaitDelays(times);
+			}
+			SynmvEvaluator evaluator = new SynmvEvaluator(times, order);
+			evaluator.setNoWaitDelays(delays);
+			evaluator.evaluate(variant, 0);
+			SynmvObjectives objectives = new SynmvObjectives();
+			objectives.calculate(evaluator, duedates, weights, objective);
+			value = objectives.get(objective);
+		}
+
+		return pool.invoke(new MovesTask(0, n));
+	}
+
+	/**
+	 *
+	 * @return the value of the schedule evaluated by the last call of advise()
+	 */
+	public float getValue() {
+		return value;
+	}
+
+	/**
+	 * Stops a running evaluation. advise() returns the best moves found so far.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Indicates whether a value is better than the value of the schedule.
+	 * Tiny differences are ignored, because they may be rounding errors.
+	 */
+	private boolean improves(float v) {
+		return value - v > 1e-6f * Math.max(1, Math.abs(value));
+	}
+
+	/**
+	 * Merges two sorted arrays of moves and keeps the best ones.
+	 *
+	 * @return the best count moves of both arrays, sorted by their values
+	 */
+	private Move[] merge(Move[] a, Move[] b) {
+		Move[] merged = new Move[Math.min(count, a.length + b.length)];
+		int i = 0;
+		int j = 0;
+		for(int k = 0; k < merged.length; k++) {
+			if(j == b.length || (i < a.length && a[i].value <= b[j].value)) {
+				merged[k] = a[i++];
+			}
+			else {
+				merged[k] = b[j++];
+			}
+		}
+		return merged;
+	}
+}
@@ -0,0 +1,255 @@
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingWorker;
+
+/**
+ * This panel lists the best moves of the displayed schedule. They are
+ * calculated by a SynmvAdvisor in the background whenever the schedule changes,
+ * and every move can be applied as a SynmvJobShiftAction.
+ *
+ * @author sebrockm
+ *
+ */
+@SuppressWarnings("serial")
+public class SynmvAdvisorPanel extends JPanel {
+
+	/**
+	 * The number of moves that are listed.
+	 */
+	private static final int COUNT = 10;
+
+	/**
+	 * The names of the objectives in the combo box.
+	 */
+	private static final String[] NAMES = {"Cmax", SynmvFrame.SIGMA + "Cj", "Lmax", SynmvFrame.SIGMA + "Tj",
+			SynmvFrame.SIGMA + "Uj"};
+
+	/**
+	 * The flags of the objectives in the combo box.
+	 */
+	private static final int[] FLAGS = {SynmvObjectives.CMAX, SynmvObjectives.SUM_CJ, SynmvObjectives.LMAX,
+			SynmvObjectives.SUM_TJ, SynmvObjectives.SUM_UJ};
+
+	/**
+	 * Combo box to choose the objective the moves are ranked by.
+	 */
+	private final JComboBox<String> objectiveBox = new JComboBox<String>(NAMES);
+
+	/**
+	 * The descriptions of the listed moves.
+	 */
+	private final DefaultListModel<String> model = new DefaultListModel<String>();
+
+	/**
+	 * The list that shows the moves.
+	 */
+	private final JList<String> list = new JList<String>(model);
+
+	/**
+	 * Label that shows whether the moves are being calculated or why none are listed.
+	 */
+	private final JLabel status = new JLabel(" ");
+
+	/**
+	 * Button that applies the selected move.
+	 */
+	private final JButton apply = new JButton("apply");
+
+	/**
+	 * The schedule the moves are calculated for.
+	 */
+	private SynmvSchedule schedule = null;
+
+	/**
+	 * Indicates whether the weights are used.
+	 */
+	private boolean useWeights = false;
+
+	/**
+	 * The order the listed moves have been calculated for.
+	 */
+	private int[] advised = new int[0];
+
+	/**
+	 * The variant the listed moves have been calculated for.
+	 */
+	private SynmvJob.Variant advisedVariant = null;
+
+	/**
+	 * The due dates the listed moves have been calculated for.
+	 */
+	private float[] advisedDuedates = new float[0];
+
+	/**
+	 * The weights the listed moves have been calculated for.
+	 */
+	private float[] advisedWeights = new float[0];
+
+	/**
+	 * The listed moves.
+	 */
+	private SynmvAdvisor.Move[] moves = new SynmvAdvisor.Move[0];
+
+	/**
+	 * The advisor that is running or null.
+	 */
+	private SynmvAdvisor running = null;
+
+	/**
+	 * Incremented by every update, so the results of older ones can be discarded.
+	 */
+	private int version = 0;
+
+	/**
+	 * Creates a new SynmvAdvisorPanel.
+	 */
+	public SynmvAdvisorPanel() {
+		super(new BorderLayout());
+		setBorder(BorderFactory.createTitledBorder("best moves"));
+		setPreferredSize(new Dimension(260, 0));
+
+		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		JPanel north = new JPanel(new BorderLayout());
+		north.add(objectiveBox, BorderLayout.NORTH);
+		north.add(status, BorderLayout.SOUTH);
+		add(north, BorderLayout.NORTH);
+		add(new JScrollPane(list), BorderLayout.CENTER);
+		add(apply, BorderLayout.SOUTH);
+
+		objectiveBox.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				update(schedule, useWeights, true);
+			}
+		});
+
+		apply.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				applyMove(list.getSelectedIndex());
+			}
+		});
+
+		list.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if(e.getClickCount() == 2) {
+					applyMove(list.locationToIndex(e.getPoint()));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Calculates the moves of a schedule in the background. The moves of a
+	 * running calculation are discarded. Nothing is calculated while the panel is invisible.
+	 *
+	 * @param schedule
+	 * 			the schedule
+	 * @param useWeights
+	 * 			true, if the objectives shall be weighted
+	 * @param changed
+	 * 			true, if the order or the times of the jobs may have changed since the last update.
+	 * 			Changes of the schedule, the due dates or the weights are detected anyway.
+	 */
+	public void update(SynmvSchedule schedule, boolean useWeights, boolean changed) {
+		if(!changed && schedule != null && schedule == this.schedule && useWeights == this.useWeights && SynmvJob.variant == advisedVariant
+				&& Arrays.equals(advisedDuedates, schedule.getDuedates()) && Arrays.equals(advisedWeights, schedule.getWeights())) {
+			return;
+		}
+		this.schedule = schedule;
+		this.useWeights = useWeights;
+		final int stamp = ++version;
+		if(running != null) {
+			running.cancel();
+			running = null;
+		}
+		moves = new SynmvAdvisor.Move[0];
+		model.clear();
+		advisedVariant = null;
+		if(schedule == null || !isVisible()) {
+			return;
+		}
+		advisedVariant = SynmvJob.variant;
+		advisedDuedates = schedule.getDuedates().clone();
+		advisedWeights = schedule.getWeights().clone();
+
+		int objective = FLAGS[objectiveBox.getSelectedIndex()];
+		if(objective != SynmvObjectives.CMAX && objective != SynmvObjectives.SUM_CJ && !SynmvJob.hasDuedates) {
+			status.setText("there are no due dates");
+			return;
+		}
+
+		status.setText("evaluating...");
+		final int[] order = schedule.getOrder().clone();
+		float[] weights = useWeights ? schedule.getWeights().clone() : null;
+		final SynmvAdvisor advisor = new SynmvAdvisor(schedule.copyTimes(), advisedDuedates,
+				weights, SynmvJob.variant, objective);
+		running = advisor;
+
+		new SwingWorker<SynmvAdvisor.Move[], Void>() {
+			@Override
+			protected SynmvAdvisor.Move[] doInBackground() {
+				return advisor.advise(order, COUNT);
+			}
+
+			@Override
+			protected void done() {
+				if(stamp != version) { //the schedule has changed in the meantime
+					return;
+				}
+				running = null;
+
+				try {
+					moves = get();
+				} catch (InterruptedException e) {
+					return;
+				} catch (ExecutionException e) {
+					status.setText(e.getCause().toString());
+					return;
+				}
+
+				advised = order;
+				SynmvJob[] jobs = SynmvAdvisorPanel.this.schedule.getJobs();
+				for(SynmvAdvisor.Move move : moves) {
+					model.addElement("job " + jobs[order[move.from]].getID() + ": " + (move.from+1) + " -> "
+							+ (move.to+1) + "    " + move.value);
+				}
+				status.setText(moves.length == 0 ? "no improving move" : "current: " + advisor.getValue());
+			}
+		}.execute();
+	}
+
+	/**
+	 * Shifts a job as one of the listed moves says, if the schedule has not changed since.
+	 *
+	 * @param index
+	 * 			the index of the move in the list
+	 */
+	private void applyMove(int index) {
+		if(index < 0 || index >= moves.length || !Arrays.equals(advised, schedule.getOrder())) {
+			return;
+		}
+
+		SynmvAdvisor.Move move = moves[index];
+		SynmvJobShiftAction action = new SynmvJobShiftAction(schedule.getJob(move.from), schedule.getJob(move.to));
+		action.run();
+		SynmvJob.history.add(action);
+	}
+}
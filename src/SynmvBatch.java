@@ -0,0 +1,539 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class evaluates or solves instance files without a display.
+ * It is used by Main, if there are command line arguments.
+ * <p>
+ * Every file is read by SynmvInstance, so no AWT class is loaded. For every
+ * file and chosen variant either the stored schedule is evaluated or a new one
+ * is calculated by a solver, and the chosen objectives are written as one row
+ * of CSV or as one JSON object. The files are processed in parallel, but the
+ * results are written in the order of the files.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvBatch {
+
+	private static final String USAGE =
+			"usage: java Main [options] <file or directory>...\n" +
+			"  -variant <list>    comma separated variants: synchronous, asynchronous, noWait, blocking (default: all)\n" +
+			"  -objective <list>  comma separated objectives: Cmax, SumCj, Lmax, SumTj, SumUj (default: all)\n" +
+			"  -solve <solver>    none (evaluate the stored schedule), neh, ig or bb (default: none)\n" +
+			"                     ig minimizes the first objective, neh and bb the makespan\n" +
+			"  -time <seconds>    time budget of ig per file and variant (default: 10)\n" +
+			"  -seed <integer>    seed of ig (default: 1)\n" +
+			"  -weights           weight the sum objectives\n" +
+			"  -format <format>   csv or json (default: csv)\n" +
+			"  -schedule          also write the schedules\n" +
+			"  -threads <integer> number of files processed in parallel (default: number of cores)\n" +
+			"  -output <file>     write the results to a file instead of the standard output\n" +
+			"Directories are processed file by file, but not recursively.";
+
+	/**
+	 * The names of the objectives in the arguments and the output.
+	 */
+	private static final String[] OBJECTIVE_NAMES = {"Cmax", "SumCj", "Lmax", "SumTj", "SumUj"};
+
+	/**
+	 * The flags of the objectives with the same index in OBJECTIVE_NAMES.
+	 */
+	private static final int[] OBJECTIVE_FLAGS = {SynmvObjectives.CMAX, SynmvObjectives.SUM_CJ, SynmvObjectives.LMAX,
+			SynmvObjectives.SUM_TJ, SynmvObjectives.SUM_UJ};
+
+	/**
+	 * The flags of the objectives that need due dates.
+	 */
+	private static final int DUEDATE_OBJECTIVES = SynmvObjectives.LMAX | SynmvObjectives.SUM_TJ | SynmvObjectives.SUM_UJ;
+
+	private final List<SynmvJob.Variant> variants = new ArrayList<SynmvJob.Variant>();
+	private final List<Integer> objectives = new ArrayList<Integer>();
+	private final List<File> files = new ArrayList<File>();
+	private String solver = "none";
+	private long millis = 10000;
+	private long seed = 1;
+	private boolean useWeights = false;
+	private boolean json = false;
+	private boolean printSchedule = false;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private String output = null;
+
+	/**
+	 * The results of one file and one variant.
+	 */
+	private static class Result {
+		private final String file;
+		private final SynmvJob.Variant variant;
+		private int jobs = 0;
+		private int machines = 0;
+
+		/**
+		 * The values of the objectives in the order of OBJECTIVE_NAMES, NaN if not calculated.
+		 */
+		private final float[] values = new float[OBJECTIVE_NAMES.length];
+		private int[] order = null;
+		private long millis = 0;
+		private String error = null;
+
+		public Result(String file, SynmvJob.Variant variant) {
+			this.file = file;
+			this.variant = variant;
+			Arrays.fill(values, Float.NaN);
+		}
+	}
+
+	/**
+	 * Runs the batch mode and exits with its return code.
+	 *
+	 * @param args
+	 * 			the command line arguments
+	 */
+	public static void main(String[] args) {
+		System.exit(run(args));
+	}
+
+	/**
+	 * Runs the batch mode.
+	 *
+	 * @param args
+	 * 			the command line arguments
+	 * @return 0, if all files have been processed, 1, if some have failed, and 2, if the arguments are invalid
+	 */
+	public static int run(String[] args) {
+		SynmvBatch batch = new SynmvBatch();
+		try {
+			batch.parseArguments(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			return 2;
+		}
+
+		PrintStream out = System.out;
+		if(batch.output != null) {
+			try {
+				out = new PrintStream(new FileOutputStream(batch.output), false, "UTF-8");
+			} catch (Exception e) {
+				System.err.println("cannot write " + batch.output + ": " + e.getMessage());
+				return 2;
+			}
+		}
+
+		try {
+			return batch.process(out) ? 0 : 1;
+		} finally {
+			out.flush();
+			if(out != System.out) {
+				out.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads the options and files of the command line.
+	 *
+	 * @param args
+	 * 			the command line arguments
+	 * @throws IllegalArgumentException
+	 * 			if an argument is invalid
+	 */
+	private void parseArguments(String[] args) {
+		for(int a = 0; a < args.length; a++) {
+			String arg = args[a];
+			if(!arg.startsWith("-") || arg.length() == 1) {
+				File file = new File(arg);
+				if(file.isDirectory()) {
+					File[] content = file.listFiles();
+					if(content == null) {
+						throw new IllegalArgumentException("the directory " + arg + " cannot be read");
+					}
+					Arrays.sort(content);
+					for(File f : content) {
+						if(f.isFile() && !f.isHidden()) {
+							files.add(f);
+						}
+					}
+				}
+				else {
+					files.add(file);
+				}
+			}
+			else if(arg.equals("-weights")) {
+				useWeights = true;
+			}
+			else if(arg.equals("-schedule")) {
+				printSchedule = true;
+			}
+			else {
+				if(a+1 == args.length) {
+					throw new IllegalArgumentException("the option " + arg + " needs a value");
+				}
+				String value = args[++a];
+				if(arg.equals("-variant")) {
+					for(String name : value.split(",")) {
+						variants.add(parseVariant(name.trim()));
+					}
+				}
+				else if(arg.equals("-objective")) {
+					for(String name : value.split(",")) {
+						objectives.add(parseObjective(name.trim()));
+					}
+				}
+				else if(arg.equals("-solve")) {
+					if(!Arrays.asList("none", "neh", "ig", "bb").contains(value)) {
+						throw new IllegalArgumentException("unknown solver: " + value);
+					}
+					solver = value;
+				}
+				else if(arg.equals("-time")) {
+					millis = (long)(parseNumber(arg, value) * 1000);
+				}
+				else if(arg.equals("-seed")) {
+					seed = parseLong(arg, value);
+				}
+				else if(arg.equals("-format")) {
+					if(!value.equals("csv") && !value.equals("json")) {
+						throw new IllegalArgumentException("unknown format: " + value);
+					}
+					json = value.equals("json");
+				}
+				else if(arg.equals("-threads")) {
+					threads = Math.max(1, parseInt(arg, value));
+				}
+				else if(arg.equals("-output")) {
+					output = value;
+				}
+				else {
+					throw new IllegalArgumentException("unknown option: " + arg);
+				}
+			}
+		}
+
+		if(files.isEmpty()) {
+			throw new IllegalArgumentException("no files given");
+		}
+		if(variants.isEmpty()) {
+			variants.addAll(Arrays.asList(SynmvJob.Variant.values()));
+		}
+		if(objectives.isEmpty()) {
+			for(int flag : OBJECTIVE_FLAGS) {
+				objectives.add(flag);
+			}
+		}
+	}
+
+	private static SynmvJob.Variant parseVariant(String name) {
+		for(SynmvJob.Variant variant : SynmvJob.Variant.values()) {
+			if(variant.name().equalsIgnoreCase(name) || variant.name().equalsIgnoreCase(name.replace("-", ""))) {
+				return variant;
+			}
+		}
+		throw new IllegalArgumentException("unknown variant: " + name);
+	}
+
+	private static int parseObjective(String name) {
+		for(int o = 0; o < OBJECTIVE_NAMES.length; o++) {
+			if(OBJECTIVE_NAMES[o].equalsIgnoreCase(name)) {
+				return OBJECTIVE_FLAGS[o];
+			}
+		}
+		throw new IllegalArgumentException("unknown objective: " + name);
+	}
+
+	private static float parseNumber(String option, String value) {
+		try {
+			return Float.parseFloat(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("the value of " + option + " is not a number: " + value);
+		}
+	}
+
+	private static long parseLong(String option, String value) {
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("the value of " + option + " is not an integer: " + value);
+		}
+	}
+
+	private static int parseInt(String option, String value) {
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("the value of " + option + " is not an integer: " + value);
+		}
+	}
+
+	/**
+	 * Processes all files in parallel and writes the results in their order.
+	 *
+	 * @param out
+	 * 			the stream the results are written to
+	 * @return true, if no file has failed
+	 */
+	private boolean process(PrintStream out) {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, files.size()));
+		List<Future<Result[]>> futures = new ArrayList<Future<Result[]>>(files.size());
+		for(final File file : files) {
+			futures.add(executor.submit(new Callable<Result[]>() {
+				@Override
+				public Result[] call() {
+					return processFile(file);
+				}
+			}));
+		}
+		executor.shutdown();
+
+		boolean success = true;
+		boolean first = true;
+		if(json) {
+			out.println("[");
+		}
+		else {
+			writeHeader(out);
+		}
+		for(int f = 0; f < futures.size(); f++) {
+			Result[] results;
+			try {
+				results = futures.get(f).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			} catch (ExecutionException e) {
+				Result result = new Result(files.get(f).getPath(), null);
+				result.error = e.getCause().toString();
+				results = new Result[]{result};
+			}
+
+			for(Result result : results) {
+				success &= result.error == null;
+				if(json) {
+					if(!first) {
+						out.println(",");
+					}
+					writeJson(out, result);
+				}
+				else {
+					writeCsv(out, result);
+				}
+				first = false;
+			}
+			out.flush();
+		}
+		if(json) {
+			out.println();
+			out.println("]");
+		}
+		return success;
+	}
+
+	/**
+	 * Reads a file and evaluates or solves it for every chosen variant.
+	 *
+	 * @param file
+	 * 			the file
+	 * @return one result per variant, or one result with an error, if the file cannot be read
+	 */
+	private Result[] processFile(File file) {
+		SynmvInstance instance;
+		try {
+			instance = SynmvInstance.read(file.getPath());
+			if(instance == null) {
+				throw new InvalidFileFormatException("the file " + file.getPath() + " cannot be read");
+			}
+		} catch (FileNotFoundException e) {
+			Result result = new Result(file.getPath(), null);
+			result.error = e.getMessage();
+			return new Result[]{result};
+		} catch (InvalidFileFormatException e) {
+			Result result = new Result(file.getPath(), null);
+			result.error = e.getMessage();
+			return new Result[]{result};
+		}
+
+		Result[] results = new Result[variants.size()];
+		for(int v = 0; v < results.length; v++) {
+			results[v] = processVariant(file, instance, variants.get(v));
+		}
+		return results;
+	}
+
+	/**
+	 * Evaluates or solves an instance for one variant.
+	 */
+	private Result processVariant(File file, SynmvInstance instance, SynmvJob.Variant variant) {
+		Result result = new Result(file.getPath(), variant);
+		result.jobs = instance.getJobCount();
+		result.machines = instance.getMachineCount();
+
+		float[][] times = instance.getTimes();
+		float[] weights = useWeights ? instance.getWeights() : null;
+		int selected = 0;
+		for(int objective : objectives) {
+			if(instance.hasDuedates() || (objective & DUEDATE_OBJECTIVES) == 0) {
+				selected |= objective;
+			}
+		}
+
+		long start = System.currentTimeMillis();
+		int[] order = instance.getOrderOrDefault().clone();
+		if(solver.equals("neh")) {
+			order = SynmvNEH.solve(times, variant);
+		}
+		else if(solver.equals("ig")) {
+			int objective = objectives.get(0);
+			if(!instance.hasDuedates() && (objective & DUEDATE_OBJECTIVES) != 0) {
+				result.error = "the file has no due dates";
+				return result;
+			}
+			SynmvIteratedGreedy ig = new SynmvIteratedGreedy(times, instance.getDuedates(), weights, variant, objective);
+			order = ig.solve(order, millis, seed);
+		}
+		else if(solver.equals("bb")) {
+			if(times.length > SynmvBranchAndBound.MAX_JOBS) {
+				result.error = "branch and bound is limited to " + SynmvBranchAndBound.MAX_JOBS + " jobs";
+				return result;
+			}
+			order = new SynmvBranchAndBound(times, variant).solve(order);
+		}
+
+		SynmvEvaluator evaluator = new SynmvEvaluator(times, order);
+		evaluator.evaluate(variant);
+		SynmvObjectives calculated = new SynmvObjectives();
+		calculated.calculate(evaluator, instance.getDuedates(), weights, selected);
+		result.millis = System.currentTimeMillis() - start;
+
+		for(int o = 0; o < OBJECTIVE_FLAGS.length; o++) {
+			if((selected & OBJECTIVE_FLAGS[o]) != 0) {
+				result.values[o] = calculated.get(OBJECTIVE_FLAGS[o]);
+			}
+		}
+		result.order = order;
+		return result;
+	}
+
+	/**
+	 * Indicates whether an objective is written.
+	 */
+	private boolean isWritten(int o) {
+		return objectives.contains(OBJECTIVE_FLAGS[o]);
+	}
+
+	private void writeHeader(PrintStream out) {
+		StringBuilder line = new StringBuilder("file,variant,solver,jobs,machines");
+		for(int o = 0; o < OBJECTIVE_NAMES.length; o++) {
+			if(isWritten(o)) {
+				line.append(',').append(OBJECTIVE_NAMES[o]);
+			}
+		}
+		line.append(",millis");
+		if(printSchedule) {
+			line.append(",schedule");
+		}
+		line.append(",error");
+		out.println(line);
+	}
+
+	private void writeCsv(PrintStream out, Result result) {
+		StringBuilder line = new StringBuilder();
+		line.append(csv(result.file)).append(',');
+		line.append(result.variant == null ? "" : result.variant.name()).append(',');
+		line.append(solver).append(',');
+		line.append(result.jobs).append(',');
+		line.append(result.machines);
+		for(int o = 0; o < OBJECTIVE_NAMES.length; o++) {
+			if(isWritten(o)) {
+				line.append(',');
+				if(!Float.isNaN(result.values[o])) {
+					line.append(result.values[o]);
+				}
+			}
+		}
+		line.append(',').append(result.millis);
+		if(printSchedule) {
+			line.append(',');
+			if(result.order != null) {
+				for(int p = 0; p < result.order.length; p++) {
+					line.append(p == 0 ? "" : " ").append(result.order[p] + 1);
+				}
+			}
+		}
+		line.append(',');
+		if(result.error != null) {
+			line.append(csv(result.error));
+		}
+		out.println(line);
+	}
+
+	private void writeJson(PrintStream out, Result result) {
+		StringBuilder line = new StringBuilder("  {");
+		line.append("\"file\": ").append(json(result.file));
+		if(result.variant != null) {
+			line.append(", \"variant\": ").append(json(result.variant.name()));
+		}
+		line.append(", \"solver\": ").append(json(solver));
+		line.append(", \"jobs\": ").append(result.jobs);
+		line.append(", \"machines\": ").append(result.machines);
+		for(int o = 0; o < OBJECTIVE_NAMES.length; o++) {
+			if(isWritten(o)) {
+				float value = result.values[o];
+				line.append(", \"").append(OBJECTIVE_NAMES[o]).append("\": ");
+				line.append(Float.isNaN(value) || Float.isInfinite(value) ? "null" : "" + value);
+			}
+		}
+		line.append(", \"millis\": ").append(result.millis);
+		if(printSchedule && result.order != null) {
+			line.append(", \"schedule\": [");
+			for(int p = 0; p < result.order.length; p++) {
+				line.append(p == 0 ? "" : ", ").append(result.order[p] + 1);
+			}
+			line.append(']');
+		}
+		if(result.error != null) {
+			line.append(", \"error\": ").append(json(result.error));
+		}
+		line.append('}');
+		out.print(line);
+	}
+
+	/**
+	 * Quotes a CSV field, if necessary.
+	 */
+	private static String csv(String field) {
+		if(field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0) {
+			return field;
+		}
+		return "\"" + field.replace("\"", "\"\"") + "\"";
+	}
+
+	/**
+	 * Quotes and escapes a JSON string.
+	 */
+	private static String json(String string) {
+		StringBuilder ret = new StringBuilder("\"");
+		for(int c = 0; c < string.length(); c++) {
+			char ch = string.charAt(c);
+			if(ch == '"' || ch == '\\') {
+				ret.append('\\').append(ch);
+			}
+			else if(ch < ' ') {
+				ret.append(String.format("\\u%04x", (int)ch));
+			}
+			else {
+				ret.append(ch);
+			}
+		}
+		return ret.append('"').toString();
+	}
+}
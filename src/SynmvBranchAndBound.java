@@ -0,0 +1,521 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements a branch and bound algorithm that finds a schedule
+ * with the minimal makespan. The schedule is built from the first position
+ * onward, so a node of the search tree is a prefix of the schedule, which is
+ * described by a state of m+1 values per variant:
+ * <ul>
+ * <li>asynchronous: the completion times of the last job on every machine</li>
+ * <li>no-wait: the same, they follow from the last job's start time</li>
+ * <li>blocking: the start and the departure times of the last job</li>
+ * <li>synchronous: the sum of the complete cycles and the maxima of the m-1
+ * cycles the prefix's last jobs take part in, which are still open</li>
+ * </ul>
+ * The lower bound of a node is a machine based one. Every machine has to process
+ * all remaining jobs after it has become free, and after its last job at least
+ * the smallest tail of the remaining jobs on the following machines is processed.
+ * <p>
+ * The first levels of the tree are split into tasks of a ForkJoinPool, which are
+ * distributed by work stealing. All tasks share the best makespan found so far.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvBranchAndBound {
+
+	/**
+	 * The maximal number of jobs.
+	 */
+	public static final int MAX_JOBS = 20;
+
+	/**
+	 * The number of positions that are fixed by parallel tasks.
+	 * The subtrees below are searched sequentially.
+	 */
+	private static final int SPLIT_DEPTH = 3;
+
+	private final float[][] times;
+	private final SynmvJob.Variant variant;
+	private final int n;
+	private final int m;
+
+	/**
+	 * The tails of the jobs. tails[j][i] is the sum of the times of job j on the machines after i.
+	 */
+	private final float[][] tails;
+
+	/**
+	 * The bits of the best makespan found so far.
+	 */
+	private final AtomicInteger incumbent = new AtomicInteger();
+
+	/**
+	 * The best schedule found so far.
+	 */
+	private int[] best;
+
+	/**
+	 * The number of nodes visited so far.
+	 */
+	private final LongAdder nodes = new LongAdder();
+
+	/**
+	 * The lower bounds of the subtrees of the root, which are the schedules starting with job j.
+	 * NaN marks a subtree that has been searched completely.
+	 */
+	private float[] rootBounds;
+
+	/**
+	 * true, when the search has been cancelled.
+	 */
+	private volatile boolean cancelled = false;
+
+	/**
+	 * true, when the search has been finished without being cancelled.
+	 */
+	private volatile boolean optimal = false;
+
+	/**
+	 * The working arrays of a sequential search. Every array has one entry per depth.
+	 */
+	private class Buffers {
+		final float[][][] states = new float[n][n][m+1];
+		final float[][] bounds = new float[n][n];
+		final int[][] jobs = new int[n][n];
+		final float[][] sums = new float[n+1][m];
+	}
+
+	/**
+	 * A task that searches the subtree of a prefix. It splits itself into one
+	 * task per child as long as the prefix is shorter than SPLIT_DEPTH.
+	 */
+	@SuppressWarnings("serial")
+	private class Search extends RecursiveAction {
+		private final int[] prefix;
+		private final int depth;
+		private final int used;
+		private final float[] state;
+		private final float[] sums;
+
+		public Search(int[] prefix, int depth, int used, float[] state, float[] sums) {
+			this.prefix = prefix;
+			this.depth = depth;
+			this.used = used;
+			this.state = state;
+			this.sums = sums;
+		}
+
+		@Override
+		protected void compute() {
+			if(depth >= SPLIT_DEPTH || n - depth <= 2) {
+				Buffers buffers = new Buffers();
+				System.arraycopy(sums, 0, buffers.sums[depth], 0, m);
+				search(prefix, depth, used, state, buffers);
+			}
+			else {
+				nodes.increment();
+				int last = depth == 0 ? -1 : prefix[depth-1];
+				ArrayList<Search> children = new ArrayList<Search>();
+				for(int job = 0; job < n; job++) {
+					if((used & (1 << job)) != 0) {
+						continue;
+					}
+					float[] childState = new float[m+1];
+					append(state, last, job, childState);
+					float[] childSums = sums.clone();
+					for(int i = 0; i < m; i++) {
+						childSums[i] -= times[job][i];
+					}
+					float bound = lowerBound(childState, used | (1 << job), childSums);
+					if(depth == 0) {
+						rootBounds[job] = bound;
+					}
+					if(bound < getIncumbent()) {
+						int[] childPrefix = prefix.clone();
+						childPrefix[depth] = job;
+						children.add(new Search(childPrefix, depth+1, used | (1 << job), childState, childSums));
+					}
+					else if(depth == 0) {
+						rootBounds[job] = Float.NaN;
+					}
+				}
+				invokeAll(children);
+			}
+
+			if(depth == 1 && !cancelled) {
+				rootBounds[prefix[0]] = Float.NaN;
+			}
+		}
+	}
+
+	/**
+	 * Creates a new SynmvBranchAndBound. The times array is not copied,
+	 * so it must not be changed while solve() runs.
+	 *
+	 * @param times
+	 * 			the process times, times[j][i] is the time job j needs on machine i
+	 * @param variant
+	 * 			the variant the makespan is minimized for
+	 */
+	public SynmvBranchAndBound(float[][] times, SynmvJob.Variant variant) {
+		if(times.length > MAX_JOBS) {
+			throw new IllegalArgumentException("there must not be more than " + MAX_JOBS + " jobs");
+		}
+		this.times = times;
+		this.variant = variant;
+		this.n = times.length;
+		this.m = n == 0 ? 0 : times[0].length;
+
+		tails = new float[n][m];
+		for(int j = 0; j < n; j++) {
+			for(int i = m-2; i >= 0; i--) {
+				tails[j][i] = tails[j][i+1] + times[j][i+1];
+			}
+		}
+	}
+
+	/**
+	 * Searches the schedule with the minimal makespan until the search has been
+	 * finished or cancelled.
+	 *
+	 * @param initial
+	 * 			a schedule whose makespan is the initial upper bound
+	 * @return the best schedule found, which is optimal if isOptimal() returns true
+	 */
+	public int[] solve(int[] initial) {
+		best = initial.clone();
+		setIncumbent(makespan(initial));
+		int[] neh = SynmvNEH.solve(times, variant);
+		offer(makespan(neh), neh);
+		if(n == 0) {
+			optimal = true;
+			return best;
+		}
+
+		rootBounds = new float[n];
+		float[] sums = new float[m];
+		for(float[] t : times) {
+			for(int i = 0; i < m; i++) {
+				sums[i] += t[i];
+			}
+		}
+		float[] state = new float[m+1];
+
+		ForkJoinPool pool = new ForkJoinPool();
+		try {
+			pool.invoke(new Search(new int[n], 0, 0, state, sums));
+		}
+		finally {
+			pool.shutdown();
+		}
+		optimal = !cancelled;
+		return getBest();
+	}
+
+	/**
+	 * Searches the subtree of a prefix sequentially.
+	 *
+	 * @param prefix
+	 * 			the schedule, the first depth positions are fixed
+	 * @param depth
+	 * 			the length of the prefix
+	 * @param used
+	 * 			the bit set of the jobs in the prefix
+	 * @param state
+	 * 			the state of the prefix
+	 * @param buffers
+	 * 			the working arrays, buffers.sums[depth] contains the sums of the remaining jobs' times
+	 */
+	private void search(int[] prefix, int depth, int used, float[] state, Buffers buffers) {
+		nodes.increment();
+		if(cancelled) {
+			return;
+		}
+		if(depth == n) {
+			offer(makespan(state), prefix);
+			return;
+		}
+
+		int last = depth == 0 ? -1 : prefix[depth-1];
+		float[] sums = buffers.sums[depth];
+		float[] childSums = buffers.sums[depth+1];
+		float[][] states = buffers.states[depth];
+		float[] bounds = buffers.bounds[depth];
+		int[] jobs = buffers.jobs[depth];
+
+		//calculate the children's bounds and sort them by insertion sort
+		int count = 0;
+		float incumbent = getIncumbent();
+		for(int job = 0; job < n; job++) {
+			if((used & (1 << job)) != 0) {
+				continue;
+			}
+			float[] childState = states[count];
+			append(state, last, job, childState);
+			for(int i = 0; i < m; i++) {
+				childSums[i] = sums[i] - times[job][i];
+			}
+			float bound = lowerBound(childState, used | (1 << job), childSums);
+			if(bound >= incumbent) {
+				continue;
+			}
+
+			int k = count;
+			while(k > 0 && bounds[k-1] > bound) {
+				bounds[k] = bounds[k-1];
+				jobs[k] = jobs[k-1];
+				states[k] = states[k-1];
+				k--;
+			}
+			bounds[k] = bound;
+			jobs[k] = job;
+			states[k] = childState;
+			count++;
+		}
+
+		for(int c = 0; c < count; c++) {
+			if(bounds[c] >= getIncumbent()) {
+				break;
+			}
+			int job = jobs[c];
+			for(int i = 0; i < m; i++) {
+				childSums[i] = sums[i] - times[job][i];
+			}
+			prefix[depth] = job;
+			search(prefix, depth+1, used | (1 << job), states[c], buffers);
+		}
+	}
+
+	/**
+	 * Calculates the state of a prefix after appending a job.
+	 *
+	 * @param state
+	 * 			the state of the prefix
+	 * @param last
+	 * 			the last job of the prefix or -1, if it is empty
+	 * @param job
+	 * 			the appended job
+	 * @param target
+	 * 			the array the new state is stored in
+	 */
+	private void append(float[] state, int last, int job, float[] target) {
+		float[] t = times[job];
+		switch(variant) {
+		case asynchronous:
+			for(int i = 0; i < m; i++) {
+				target[i] = Math.max(i == 0 ? 0 : target[i-1], state[i]) + t[i];
+			}
+			break;
+
+		case noWait:
+			float start = last < 0 ? 0 : state[m] + SynmvEvaluator.noWaitDelay(times[last], t);
+			target[m] = start;
+			for(int i = 0; i < m; i++) {
+				start += t[i];
+				target[i] = start;
+			}
+			break;
+
+		case blocking:
+			target[0] = last < 0 ? 0 : state[1];
+			for(int i = 0; i < m; i++) {
+				float d = target[i] + t[i];
+				if(last >= 0 && i < m-1) {
+					d = Math.max(d, state[i+2]);
+				}
+				target[i+1] = d;
+			}
+			break;
+
+		case synchronous:
+			if(m == 1) {
+				target[0] = state[0] + t[0];
+				break;
+			}
+			target[0] = state[0] + Math.max(state[1], t[0]);
+			for(int j = 0; j < m-2; j++) {
+				target[j+1] = Math.max(state[j+2], t[j+1]);
+			}
+			target[m-1] = t[m-1];
+			break;
+
+		default:
+			throw new RuntimeException("unknown variant, this cannot happen...");
+		}
+	}
+
+	/**
+	 * Calculates the makespan of a complete schedule from its state.
+	 *
+	 * @param state
+	 * 			the state
+	 * @return the makespan
+	 */
+	private float makespan(float[] state) {
+		switch(variant) {
+		case asynchronous:
+		case noWait:
+			return state[m-1];
+		case blocking:
+			return state[m];
+		case synchronous:
+			float c = state[0];
+			for(int j = 1; j < m; j++) {
+				c += state[j];
+			}
+			return c;
+		default:
+			throw new RuntimeException("unknown variant, this cannot happen...");
+		}
+	}
+
+	/**
+	 * Calculates the makespan of a schedule with a SynmvEvaluator.
+	 *
+	 * @param schedule
+	 * 			the schedule
+	 * @return its makespan
+	 */
+	private float makespan(int[] schedule) {
+		if(n == 0) {
+			return 0;
+		}
+		SynmvEvaluator evaluator = new SynmvEvaluator(times, schedule);
+		evaluator.evaluate(variant);
+		return evaluator.getEndTime(n-1);
+	}
+
+	/**
+	 * Calculates the machine based lower bound of the makespan of all schedules
+	 * starting with a prefix.
+	 *
+	 * @param state
+	 * 			the state of the prefix
+	 * @param used
+	 * 			the bit set of the jobs in the prefix
+	 * @param sums
+	 * 			the sums of the remaining jobs' times on every machine
+	 * @return the lower bound
+	 */
+	private float lowerBound(float[] state, int used, float[] sums) {
+		if(used == (1 << n) - 1) {
+			return makespan(state);
+		}
+
+		float bound = 0;
+		float open = 0; //synchronous: the sum of the open cycles before machine i's first remaining operation
+		for(int i = 0; i < m; i++) {
+			float minTail = Float.POSITIVE_INFINITY;
+			for(int job = 0; job < n; job++) {
+				if((used & (1 << job)) == 0) {
+					minTail = Math.min(minTail, tails[job][i]);
+				}
+			}
+
+			float free;
+			switch(variant) {
+			case asynchronous:
+			case noWait:
+				free = state[i];
+				break;
+			case blocking:
+				free = state[i+1];
+				break;
+			case synchronous:
+				free = state[0] + open;
+				if(i < m-1) {
+					open += state[i+1];
+				}
+				break;
+			default:
+				throw new RuntimeException("unknown variant, this cannot happen...");
+			}
+			bound = Math.max(bound, free + sums[i] + minTail);
+		}
+
+		return bound;
+	}
+
+	/**
+	 * Offers a complete schedule. It becomes the best one, if its makespan is smaller.
+	 *
+	 * @param makespan
+	 * 			the makespan of the schedule
+	 * @param schedule
+	 * 			the schedule, it is copied
+	 */
+	private synchronized void offer(float makespan, int[] schedule) {
+		if(makespan < getIncumbent()) {
+			best = schedule.clone();
+			setIncumbent(makespan);
+		}
+	}
+
+	private void setIncumbent(float makespan) {
+		incumbent.set(Float.floatToIntBits(makespan));
+	}
+
+	/**
+	 *
+	 * @return the best makespan found so far
+	 */
+	public float getIncumbent() {
+		return Float.intBitsToFloat(incumbent.get());
+	}
+
+	/**
+	 *
+	 * @return the best schedule found so far
+	 */
+	public synchronized int[] getBest() {
+		return best.clone();
+	}
+
+	/**
+	 * Returns a lower bound of the optimal makespan. It is the smallest lower bound
+	 * of the subtrees of the root that have not been searched completely yet.
+	 *
+	 * @return the lower bound
+	 */
+	public float getLowerBound() {
+		float incumbent = getIncumbent();
+		if(optimal || rootBounds == null) {
+			return optimal ? incumbent : 0;
+		}
+		float bound = incumbent;
+		for(float b : rootBounds) {
+			if(!Float.isNaN(b)) {
+				bound = Math.min(bound, b);
+			}
+		}
+		return bound;
+	}
+
+	/**
+	 *
+	 * @return the number of nodes visited so far
+	 */
+	public long getNodes() {
+		return nodes.sum();
+	}
+
+	/**
+	 *
+	 * @return true, if the search has been finished and the best schedule is optimal
+	 */
+	public boolean isOptimal() {
+		return optimal;
+	}
+
+	/**
+	 * Stops a running search. solve() returns the best schedule found so far.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+}
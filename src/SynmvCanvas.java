@@ -0,0 +1,879 @@
+import java.awt.Color;
+import java.awt.Cursor;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.SwingConstants;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+
+/**
+ * This class is the panel the SynmvJobs are displayed in.
+ * Instead of using one component per process time, it paints the process
+ * times of the visible jobs itself and finds the job under the mouse by
+ * searching the evaluated offsets. So its costs depend on the visible part
+ * of the schedule only, not on the number of jobs.
+ * <p>
+ * Above the first machine every position is colored by the makespan the
+ * schedule would have, if the chosen job was shifted there. Green positions
+ * are better than the current one, red ones worse. A SynmvInsertion
+ * calculates all of them in O(n * m) whenever the schedule changes.
+ *
+ * @author sebrockm
+ *
+ */
+@SuppressWarnings("serial")
+public class SynmvCanvas extends JPanel {
+
+	/**
+	 * The minimal width of a process time in pixels.
+	 */
+	private static final int MIN_WIDTH = 10;
+
+	/**
+	 * The schedule that is displayed.
+	 */
+	private SynmvSchedule schedule = null;
+
+	/**
+	 * The evaluator that has calculated the offsets of the schedule.
+	 * The jobs are displayed in its permutation with its times, which are
+	 * the schedule's ones, unless it is evaluated in the background.
+	 */
+	private SynmvEvaluator evaluator = null;
+
+	/**
+	 * true, while a newer state of the schedule is evaluated in the background.
+	 */
+	private boolean outdated = false;
+
+	/**
+	 * JTextFields that are placed on the chosen job's process times to enter new ones.
+	 */
+	private JTextField[] editFields = new JTextField[0];
+
+	/**
+	 * The job the edit fields currently belong to.
+	 */
+	private SynmvJob edited = null;
+
+	/**
+	 * true, when the chosen job is being moved and the mouse button is still pressed.
+	 */
+	private boolean mouseHold = false;
+
+	/**
+	 * The action of the current drag or null. It is extended as long as it is the last action.
+	 */
+	private SynmvJobShiftAction dragged = null;
+
+	/**
+	 * true, when one job is being resized by mouse motion right now.
+	 */
+	private boolean beingResized = false;
+
+	/**
+	 * The side of a process time that has been grabbed to resize it.
+	 * -1 is the left side, 1 the right side and 0 means none.
+	 */
+	private int grabbedSide = 0;
+
+	/**
+	 * The job whose process time has been grabbed.
+	 */
+	private SynmvJob grabbedJob = null;
+
+	/**
+	 * The machine of the grabbed process time.
+	 */
+	private int grabbedMachine = 0;
+
+	/**
+	 * true, if the insertion heatmap of the chosen job is painted.
+	 */
+	private boolean heatmap = true;
+
+	/**
+	 * The makespans of the schedule after shifting the chosen job to each position,
+	 * or null if there is no chosen job.
+	 */
+	private float[] heat = null;
+
+	/**
+	 * true, when heat has to be calculated again before it is painted.
+	 */
+	private boolean heatOutdated = true;
+
+	/**
+	 * The displayed position of the chosen job heat has been calculated for.
+	 */
+	private int heatPosition = 0;
+
+	/**
+	 * The minimal and maximal value of heat.
+	 */
+	private float heatMin = 0;
+	private float heatMax = 0;
+
+	/**
+	 * The insertion that calculates heat, it is reused as long as the variant does not change.
+	 */
+	private SynmvInsertion insertion = null;
+
+	/**
+	 * The schedule without the chosen job, as the evaluator displays it.
+	 */
+	private int[] heatSequence = new int[0];
+
+	/**
+	 * Creates a new, empty SynmvCanvas.
+	 */
+	public SynmvCanvas() {
+		super();
+		setLayout(null);
+		setBackground(Color.WHITE);
+		setToolTipText("");
+
+		addMouseMotionListener(new MouseMotionListener() {
+			@Override
+			public void mouseMoved(MouseEvent e) {
+				setMouseOver(getJobAt(e.getPoint()));
+
+				int m = getMachineCount();
+				if(SynmvJob.splitTimes == null || SynmvJob.splitTimes.length != m - 1) {
+					return;
+				}
+
+				int machine = getMachineAt(e.getY());
+				int position = machine < 0 ? -1 : getPositionAt(machine, e.getX());
+				int x = position < 0 ? -1 : e.getX() - getSlotX(position, machine);
+
+				if(position >= 0 && machine > 0 && x == 0) { //cursor on left bound
+					if(!SynmvJob.splitTimes[machine-1]) {
+						return;
+					}
+					setCursor(Cursor.getPredefinedCursor(Cursor.E_RESIZE_CURSOR));
+					grabbedSide = -1;
+				}
+				else if(position >= 0 && machine < m-1 && x == getSlotWidth(position, machine)-1) { //right bound
+					if(!SynmvJob.splitTimes[machine]) {
+						return;
+					}
+					setCursor(Cursor.getPredefinedCursor(Cursor.W_RESIZE_CURSOR));
+					grabbedSide = 1;
+				}
+				else {
+					setCursor(Cursor.getDefaultCursor());
+					grabbedSide = 0;
+				}
+				if(grabbedSide != 0) {
+					grabbedJob = getDisplayedJob(position);
+					grabbedMachine = machine;
+				}
+				beingResized = grabbedSide != 0;
+			}
+
+			@Override
+			public void mouseDragged(MouseEvent e) {
+				if(SynmvJob.isCallbackRequested() || outdated) {
+					return; //the layout is outdated until the requested callback or the evaluation has finished
+				}
+
+				if(grabbedSide != 0) {
+					resize(e.getX());
+					return;
+				}
+
+				SynmvJob job = getJobAt(e.getPoint());
+				setMouseOver(job);
+
+				SynmvJob chosen = SynmvJob.chosen;
+				if(SynmvJob.continuousShift && mouseHold && chosen != null && job != null && job != chosen) {
+					SynmvJob.beginTransaction();
+					try {
+						//the whole drag is one action, so it is undone by a single shift
+						if(dragged != null && SynmvJob.history.getLast() == dragged) {
+							dragged.shiftFurther(job);
+							SynmvJob.history.replaceLast(dragged);
+						}
+						else {
+							dragged = new SynmvJobShiftAction(chosen, job);
+							dragged.run();
+							SynmvJob.history.add(dragged);
+						}
+					}
+					finally {
+						SynmvJob.endTransactionLater();
+					}
+				}
+			}
+		});
+
+		addMouseListener(new MouseListener() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if(beingResized) {
+					return;
+				}
+
+				SynmvJob job = getJobAt(e.getPoint());
+				if(job == null) {
+					return;
+				}
+
+				if(e.getButton() == MouseEvent.BUTTON3 && SynmvJob.chosen != null) {
+					SynmvJobSwapAction action = new SynmvJobSwapAction(SynmvJob.chosen, job);
+					action.run();
+					SynmvJob.history.add(action);
+				}
+
+				if(e.getButton() == MouseEvent.BUTTON1 && e.getClickCount() == 2) {
+					job.showInfobox();
+				}
+			}
+
+			@Override
+			public void mouseEntered(MouseEvent e) {
+				if(!beingResized) {
+					setMouseOver(getJobAt(e.getPoint()));
+				}
+			}
+
+			@Override
+			public void mouseExited(MouseEvent e) {
+				if(!beingResized) {
+					setMouseOver(null);
+				}
+			}
+
+			@Override
+			public void mousePressed(MouseEvent e) {
+				if(beingResized) {
+					return;
+				}
+
+				SynmvJob job = getJobAt(e.getPoint());
+				if(e.getButton() == MouseEvent.BUTTON1 && job != null) {
+					mouseHold = true;
+					if(SynmvJob.chosen != null) {
+						SynmvJob.chosen.highlight(Color.GRAY);
+					}
+					SynmvJob.chosen = job;
+					job.highlight(Color.RED);
+					heatOutdated = true;
+					layoutEditFields();
+					repaint();
+				}
+			}
+
+			@Override
+			public void mouseReleased(MouseEvent e) {
+				if(beingResized || !mouseHold) {
+					return;
+				}
+
+				if(!SynmvJob.continuousShift) {
+					if(SynmvJob.chosen != null && SynmvJob.mouseOver != null) {
+						SynmvJobShiftAction action = new SynmvJobShiftAction(SynmvJob.chosen, SynmvJob.mouseOver);
+						action.run();
+						SynmvJob.history.add(action);
+					}
+				}
+				mouseHold = false;
+				dragged = null;
+				SynmvJob.runCallback();
+			}
+		});
+	}
+
+	/**
+	 * Sets the schedule that shall be displayed.
+	 *
+	 * @param schedule
+	 * 			the schedule
+	 * @param evaluator
+	 * 			the evaluator that calculates the schedule's offsets
+	 */
+	public void setSchedule(SynmvSchedule schedule, SynmvEvaluator evaluator) {
+		for(JTextField field : editFields) {
+			remove(field);
+		}
+
+		this.schedule = schedule;
+		this.evaluator = evaluator;
+		this.outdated = false;
+		this.insertion = null;
+		this.heatOutdated = true;
+		this.edited = null;
+		this.grabbedJob = null;
+		this.grabbedSide = 0;
+		this.beingResized = false;
+		this.mouseHold = false;
+		this.dragged = null;
+
+		editFields = new JTextField[evaluator.getMachineCount()];
+		for(int i = 0; i < editFields.length; i++) {
+			editFields[i] = createEditField(i);
+			add(editFields[i]);
+		}
+	}
+
+	/**
+	 * Replaces the evaluator by the one that has evaluated a newer state of the
+	 * schedule in the background. scheduleChanged() has to be called afterwards.
+	 *
+	 * @param evaluator
+	 * 			the evaluator, its permutation is a copy of the schedule's order
+	 */
+	public void setEvaluator(SynmvEvaluator evaluator) {
+		this.evaluator = evaluator;
+		this.outdated = false;
+	}
+
+	/**
+	 * Announces that a newer state of the schedule is evaluated in the background.
+	 * Until setEvaluator() is called, the jobs are displayed as they have been
+	 * evaluated before and cannot be dragged.
+	 */
+	public void evaluationSubmitted() {
+		outdated = true;
+	}
+
+	/**
+	 * Actualizes the size of the panel and the edit fields after the
+	 * schedule has been evaluated again and repaints it.
+	 */
+	public void scheduleChanged() {
+		int n = getJobCount();
+		int m = getMachineCount();
+		if(n > 0) {
+			int width = getSlotX(n-1, m-1) + getSlotWidth(n-1, m-1);
+			Dimension size = new Dimension(width, m * SynmvJob.HEIGHT + SynmvJob.yOffset);
+			if(!size.equals(getPreferredSize())) {
+				setPreferredSize(size);
+				setSize(size);
+				revalidate();
+			}
+		}
+		heatOutdated = true;
+		layoutEditFields();
+		repaint();
+	}
+
+	/**
+	 * Shows or hides the insertion heatmap of the chosen job.
+	 *
+	 * @param heatmap
+	 * 			true, if the heatmap shall be painted
+	 */
+	public void setHeatmap(boolean heatmap) {
+		this.heatmap = heatmap;
+		heatOutdated = true;
+		repaint();
+	}
+
+	@Override
+	public String getToolTipText(MouseEvent e) {
+		if(e.getY() >= SynmvJob.yOffset || e.getY() < SynmvJob.yOffset - SynmvJob.HEIGHT) {
+			return null;
+		}
+		calculateHeat();
+		int position = heat == null ? -1 : getPositionAt(0, e.getX());
+		return position < 0 ? null : "Cmax after shifting job " + SynmvJob.chosen.getID() + " here: " + heat[position];
+	}
+
+	/**
+	 * Calculates the makespans of the schedule after shifting the chosen job
+	 * to each position, if they are outdated. The schedule is the one the evaluator
+	 * displays, which is an older state while a newer one is evaluated in the background.
+	 */
+	private void calculateHeat() {
+		if(!heatOutdated) {
+			return;
+		}
+		heatOutdated = false;
+
+		SynmvJob chosen = SynmvJob.chosen;
+		int n = getJobCount();
+		if(!heatmap || chosen == null || chosen.getSchedule() != schedule || n < 2) {
+			heat = null;
+			return;
+		}
+
+		if(insertion == null || insertion.getVariant() != SynmvJob.variant || insertion.getTimes() != evaluator.getTimes()) {
+			insertion = new SynmvInsertion(evaluator.getTimes(), SynmvJob.variant);
+		}
+		if(heatSequence.length != n) {
+			heatSequence = new int[n];
+		}
+		if(heat == null || heat.length != n) {
+			heat = new float[n];
+		}
+
+		int[] order = evaluator.getPermutation();
+		int position = 0;
+		while(getDisplayedJob(position) != chosen) {
+			position++;
+		}
+		heatPosition = position;
+		System.arraycopy(order, 0, heatSequence, 0, position);
+		System.arraycopy(order, position+1, heatSequence, position, n-position-1);
+		insertion.setSequence(heatSequence, n-1);
+
+		int job = order[position];
+		heatMin = Float.POSITIVE_INFINITY;
+		heatMax = Float.NEGATIVE_INFINITY;
+		for(int k = 0; k < n; k++) {
+			float c = insertion.evaluate(job, k);
+			heat[k] = c;
+			heatMin = Math.min(heatMin, c);
+			heatMax = Math.max(heatMax, c);
+		}
+	}
+
+	/**
+	 * Returns the color of a position in the heatmap. The current position
+	 * is white, better ones are green and worse ones red, the more the
+	 * better or worse they are.
+	 *
+	 * @param position
+	 * 			the position starting with 0
+	 * @return the color
+	 */
+	private Color getHeatColor(int position) {
+		float current = heat[heatPosition];
+		float c = heat[position];
+		float share;
+		if(c < current) {
+			share = (current - c) / (current - heatMin);
+			return new Color(1 - share, 1, 1 - share);
+		}
+		if(c > current) {
+			share = (c - current) / (heatMax - current);
+			return new Color(1, 1 - share, 1 - share);
+		}
+		return Color.WHITE;
+	}
+
+	/**
+	 * Creates the JTextField that is placed on the chosen job's process time
+	 * of a machine. Sets its properties and adds an ActionListener and a DocumentListener.
+	 *
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @return the new JTextField
+	 */
+	private JTextField createEditField(final int machine) {
+		final JTextField field = new JTextField();
+		field.setVisible(false);
+		field.setHorizontalAlignment(SwingConstants.CENTER);
+		field.setFont(getFont());
+
+		field.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				if(edited == null) {
+					return;
+				}
+
+				float t;
+				try {
+					t = Float.parseFloat(field.getText());
+				} catch (NumberFormatException e) {
+					t = edited.getTime(machine);
+				}
+
+				edited.setTime(machine, t);
+				field.setText("" + t);
+				SynmvJob.runCallback();
+			}
+		});
+
+		final FontMetrics metric = field.getFontMetrics(field.getFont());
+		field.getDocument().addDocumentListener(new DocumentListener() {
+			private void update(DocumentEvent e) {
+				if(edited == null) {
+					return;
+				}
+				int width;
+				try {
+					int oldw = metric.stringWidth("" + edited.getTime(machine));
+					int neww = metric.stringWidth(field.getDocument().getText(0, field.getDocument().getLength()));
+					width = Math.max(oldw, neww);
+				} catch (BadLocationException e1) {
+					width = getSlotWidth(edited.getPosition(), machine);
+				}
+				width += 5;
+				int x = getSlotX(edited.getPosition(), machine);
+				field.setSize(width, field.getHeight());
+				field.setLocation(x + (getSlotWidth(edited.getPosition(), machine) - width) / 2, field.getY());
+			}
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				update(e);
+			}
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				update(e);
+			}
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				update(e);
+			}
+		});
+
+		return field;
+	}
+
+	/**
+	 * Places the edit fields on the chosen job's process times
+	 * or hides them, if no job of the schedule is chosen.
+	 */
+	private void layoutEditFields() {
+		SynmvJob chosen = SynmvJob.chosen;
+		if(chosen == null || schedule == null || chosen.getSchedule() != schedule) {
+			for(JTextField field : editFields) {
+				field.setVisible(false);
+			}
+			edited = null;
+			return;
+		}
+
+		boolean newJob = chosen != edited;
+		edited = chosen;
+		int position = chosen.getPosition();
+		for(int i = 0; i < editFields.length; i++) {
+			JTextField field = editFields[i];
+			if(newJob || !field.hasFocus()) {
+				field.setText("" + chosen.getTime(i));
+			}
+
+			FontMetrics metric = field.getFontMetrics(field.getFont());
+			int width = metric.stringWidth(field.getText()) + 5;
+			int height = SynmvJob.HEIGHT / 3;
+			int x = getSlotX(position, i) + (getSlotWidth(position, i) - width) / 2;
+			int y = getSlotY(i) + (SynmvJob.HEIGHT - height) / 2;
+			field.setBounds(x, y, width, height);
+			field.setVisible(true);
+		}
+	}
+
+	/**
+	 * Transfers time between the grabbed process time and its neighbor,
+	 * such that the grabbed side follows the mouse.
+	 *
+	 * @param mouseX
+	 * 			the mouse's x coordinate
+	 */
+	private void resize(int mouseX) {
+		SynmvJob job = grabbedJob;
+		int ii = grabbedMachine;
+		int position = job.getPosition();
+		beingResized = true;
+
+		if(grabbedSide == -1) {
+			if(!SynmvJob.splitTimes[ii-1]) {
+				return;
+			}
+			float diff = (mouseX - getSlotX(position, ii)) / SynmvJob.factor;
+			diff = Math.min(job.getTime(ii), diff);
+			diff = Math.max(-job.getTime(ii-1), diff);
+			if(Math.abs(diff) < 1) {
+				return;
+			}
+
+			job.setTime(ii, job.getTime(ii) - Math.round(diff));
+			job.setTime(ii-1, job.getTime(ii-1) + Math.round(diff));
+		}
+		else {
+			if(!SynmvJob.splitTimes[ii]) {
+				return;
+			}
+			float diff = (mouseX - getSlotX(position, ii) - getSlotWidth(position, ii) + 1) / SynmvJob.factor;
+			diff = Math.min(job.getTime(ii+1), diff);
+			diff = Math.max(-job.getTime(ii), diff);
+			if(Math.abs(diff) < 1) {
+				return;
+			}
+
+			job.setTime(ii+1, job.getTime(ii+1) - Math.round(diff));
+			job.setTime(ii, job.getTime(ii) + Math.round(diff));
+		}
+
+		if(job == edited) {
+			editFields[ii].setText("" + job.getTime(ii));
+			editFields[ii + grabbedSide].setText("" + job.getTime(ii + grabbedSide));
+		}
+		SynmvJob.requestCallback();
+	}
+
+	/**
+	 * Sets the job the mouse is over and repaints, if it has changed.
+	 *
+	 * @param job
+	 * 			the job under the mouse or null
+	 */
+	private void setMouseOver(SynmvJob job) {
+		if(SynmvJob.mouseOver != job) {
+			SynmvJob.mouseOver = job;
+			repaint();
+		}
+	}
+
+	/**
+	 *
+	 * @return the number of displayed jobs
+	 */
+	private int getJobCount() {
+		return schedule == null ? 0 : schedule.size();
+	}
+
+	/**
+	 *
+	 * @return the number of machines
+	 */
+	private int getMachineCount() {
+		return evaluator == null ? 0 : evaluator.getMachineCount();
+	}
+
+	/**
+	 * @param position
+	 * 			the position starting with 0
+	 * @return the job that is displayed at a position
+	 */
+	private SynmvJob getDisplayedJob(int position) {
+		return schedule.getJobs()[evaluator.getPermutation()[position]];
+	}
+
+	/**
+	 * @param position
+	 * 			the position starting with 0
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @return the x coordinate of the process time's left side
+	 */
+	private int getSlotX(int position, int machine) {
+		return SynmvJob.xOffset + (int)(SynmvJob.factor * evaluator.getOffset(position, machine));
+	}
+
+	/**
+	 * @param position
+	 * 			the position starting with 0
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @return the width of the process time in pixels
+	 */
+	private int getSlotWidth(int position, int machine) {
+		float time = evaluator.getTime(position, machine);
+		return Math.max(MIN_WIDTH, (int)Math.ceil(SynmvJob.factor * time));
+	}
+
+	/**
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @return the y coordinate of the process times' top side on that machine
+	 */
+	private static int getSlotY(int machine) {
+		return SynmvJob.yOffset + machine * SynmvJob.HEIGHT;
+	}
+
+	/**
+	 * Returns the machine whose process times are displayed at a y coordinate.
+	 *
+	 * @param y
+	 * 			the y coordinate
+	 * @return the machine number or -1, if there is none
+	 */
+	private int getMachineAt(int y) {
+		if(y < SynmvJob.yOffset) {
+			return -1;
+		}
+		int machine = (y - SynmvJob.yOffset) / SynmvJob.HEIGHT;
+		return machine < getMachineCount() ? machine : -1;
+	}
+
+	/**
+	 * Finds the last position whose process time on a machine starts left
+	 * of or at an x coordinate. The offsets of a machine never decrease
+	 * along the schedule, so a binary search is used.
+	 *
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @param x
+	 * 			the x coordinate
+	 * @return the position or -1, if all process times start right of x
+	 */
+	private int findPosition(int machine, int x) {
+		int low = 0;
+		int high = getJobCount() - 1;
+		int found = -1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			if(getSlotX(mid, machine) <= x) {
+				found = mid;
+				low = mid + 1;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the position of the job whose process time on a machine is displayed
+	 * at an x coordinate.
+	 *
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @param x
+	 * 			the x coordinate
+	 * @return the position or -1, if there is none
+	 */
+	private int getPositionAt(int machine, int x) {
+		int position = findPosition(machine, x);
+		if(position < 0 || x >= getSlotX(position, machine) + getSlotWidth(position, machine)) {
+			return -1;
+		}
+		return position;
+	}
+
+	/**
+	 * Returns the job that is displayed at a point.
+	 *
+	 * @param point
+	 * 			the point
+	 * @return the job or null, if there is none
+	 */
+	private SynmvJob getJobAt(Point point) {
+		int machine = getMachineAt(point.y);
+		if(machine < 0) {
+			return null;
+		}
+		int position = getPositionAt(machine, point.x);
+		return position < 0 ? null : getDisplayedJob(position);
+	}
+
+	/**
+	 * Returns the first position whose process time on a machine is (partly)
+	 * visible right of an x coordinate.
+	 *
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @param x
+	 * 			the x coordinate
+	 * @return the first visible position
+	 */
+	private int getFirstVisiblePosition(int machine, int x) {
+		int position = Math.max(0, findPosition(machine, x));
+		while(position > 0 && getSlotX(position-1, machine) + getSlotWidth(position-1, machine) > x) {
+			position--;
+		}
+		return position;
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		super.paintComponent(g);
+
+		int n = getJobCount();
+		int m = getMachineCount();
+		if(n == 0 || m == 0) {
+			return;
+		}
+
+		Rectangle clip = g.getClipBounds();
+		if(clip == null) {
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+		FontMetrics metric = g.getFontMetrics();
+
+		//numbers and heatmap above the first machine
+		if(clip.y < SynmvJob.yOffset) {
+			calculateHeat();
+			for(int p = getFirstVisiblePosition(0, clip.x); p < n; p++) {
+				int x = getSlotX(p, 0);
+				if(x > clip.x + clip.width) {
+					break;
+				}
+				if(heat != null) {
+					g.setColor(getHeatColor(p));
+					g.fillRect(x, SynmvJob.yOffset - SynmvJob.HEIGHT, getSlotWidth(p, 0), SynmvJob.HEIGHT);
+				}
+				g.setColor(getForeground());
+				String text = "" + (p+1);
+				int textY = SynmvJob.yOffset - SynmvJob.HEIGHT + (SynmvJob.HEIGHT + metric.getAscent() - metric.getDescent()) / 2;
+				g.drawString(text, x + (getSlotWidth(p, 0) - metric.stringWidth(text)) / 2, textY);
+			}
+		}
+
+		//process times
+		int firstMachine = Math.max(0, (clip.y - SynmvJob.yOffset) / SynmvJob.HEIGHT);
+		int lastMachine = Math.min(m-1, (clip.y + clip.height - SynmvJob.yOffset) / SynmvJob.HEIGHT);
+		for(int i = firstMachine; i <= lastMachine; i++) {
+			for(int p = getFirstVisiblePosition(i, clip.x); p < n; p++) {
+				int x = getSlotX(p, i);
+				if(x > clip.x + clip.width) {
+					break;
+				}
+				paintSlot(g, metric, p, i, x);
+			}
+		}
+
+		//due date of the chosen job
+		SynmvJob job = SynmvJob.chosen;
+		if(job != null && job.getSchedule() == schedule && job.getDuedate() >= 0.f) {
+			g.setColor(Color.RED);
+			int x = SynmvJob.xOffset + (int)(job.getDuedate() * SynmvJob.factor);
+			int y = SynmvJob.yOffset - SynmvJob.HEIGHT/2;
+			int l = m * SynmvJob.HEIGHT + SynmvJob.HEIGHT;
+			g.drawLine(x, y, x, y+l);
+		}
+	}
+
+	/**
+	 * Paints the process time of the job at a position on a machine.
+	 *
+	 * @param g
+	 * 			the graphics to paint with
+	 * @param metric
+	 * 			the font metrics of g
+	 * @param position
+	 * 			the position starting with 0
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @param x
+	 * 			the x coordinate of the process time's left side
+	 */
+	private void paintSlot(Graphics g, FontMetrics metric, int position, int machine, int x) {
+		SynmvJob job = getDisplayedJob(position);
+		int y = getSlotY(machine);
+		int width = getSlotWidth(position, machine);
+		int height = SynmvJob.HEIGHT;
+
+		g.setColor(job.getColor());
+		g.fillRect(x, y, width, height);
+		g.setColor(job == SynmvJob.mouseOver ? Color.RED : Color.DARK_GRAY);
+		g.drawRect(x, y, width-1, height-1);
+
+		if(job != edited) {
+			String text = "" + evaluator.getTime(position, machine);
+			int textWidth = metric.stringWidth(text);
+			if(textWidth < width) {
+				g.setColor(getForeground());
+				g.drawString(text, x + (width - textWidth) / 2, y + (height + metric.getAscent() - metric.getDescent()) / 2);
+			}
+		}
+	}
+}
@@ -0,0 +1,248 @@
+import java.awt.Color;
+import java.util.BitSet;
+
+/**
+ * This class evaluates a displayed schedule after it has changed and shows the result
+ * in its jobs and canvas: the offsets, the infoboxes, the highlighting of late jobs and
+ * the layout. Large schedules are evaluated by a SynmvEvaluationWorker in the background,
+ * then the result is shown when the worker delivers it.
+ * <p>
+ * It needs no display, so the callback of the frame and the benchmarks run the same code.
+ * Subclasses show the objectives in shown().
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvEvaluation {
+
+	/**
+	 * The schedule that is evaluated.
+	 */
+	private final SynmvSchedule schedule;
+
+	/**
+	 * The canvas the schedule is displayed on.
+	 */
+	private final SynmvCanvas canvas;
+
+	/**
+	 * Evaluator that calculates the offsets and end times of the jobs.
+	 * Its permutation is the schedule's order, unless the worker evaluates the schedule.
+	 * Then it is the evaluator of the worker's result that is shown.
+	 */
+	private SynmvEvaluator evaluator;
+
+	/**
+	 * Calculates the objective functions of the evaluated schedule.
+	 */
+	private SynmvObjectives objectives;
+
+	/**
+	 * Evaluates large schedules in the background or null, if recompute() evaluates the schedule itself.
+	 */
+	private SynmvEvaluationWorker worker = null;
+
+	/**
+	 * The flags of the objectives to calculate.
+	 */
+	private int selected = SynmvObjectives.CMAX;
+
+	/**
+	 * The weights of the objectives or null, if they are not weighted.
+	 */
+	private float[] weights = null;
+
+	/**
+	 * true, if the jobs with maximal lateness are highlighted.
+	 */
+	private boolean highlightLmax = false;
+
+	/**
+	 * true, if the late jobs are highlighted.
+	 */
+	private boolean highlightLate = false;
+
+	/**
+	 * Creates a new SynmvEvaluation and lets the canvas display the schedule.
+	 * Schedules of at least SynmvEvaluationWorker.MIN_OPERATIONS operations are
+	 * evaluated in the background.
+	 *
+	 * @param schedule
+	 * 			the schedule
+	 * @param canvas
+	 * 			the canvas the jobs of the schedule are placed on
+	 */
+	public SynmvEvaluation(SynmvSchedule schedule, SynmvCanvas canvas) {
+		this.schedule = schedule;
+		this.canvas = canvas;
+		int n = schedule.size();
+		if(n > 0 && (long) n * schedule.getJob(0).getMachineCount() >= SynmvEvaluationWorker.MIN_OPERATIONS) {
+			worker = new SynmvEvaluationWorker(schedule) {
+				@Override
+				protected void done(SynmvEvaluationWorker.Result result) {
+					SynmvMetrics.Probe probe = SynmvMetrics.begin(SynmvMetrics.CALLBACK);
+					evaluator = result.getEvaluator();
+					objectives = result.getObjectives();
+					SynmvEvaluation.this.canvas.setEvaluator(evaluator);
+					if(isPending()) {
+						SynmvEvaluation.this.canvas.evaluationSubmitted(); //a newer version will replace this one
+					}
+					int n = evaluator.getJobCount();
+					show(result.getChanged());
+					probe.end(n, evaluator.getMachineCount(), Math.max(0, n - result.getChanged()), result.getVariant());
+				}
+			};
+			evaluator = worker.getShown().getEvaluator();
+			objectives = worker.getShown().getObjectives();
+		}
+		else {
+			evaluator = new SynmvEvaluator(schedule.getTimes(), schedule.getOrder());
+			objectives = new SynmvObjectives();
+		}
+		canvas.setSchedule(schedule, evaluator);
+	}
+
+	/**
+	 * Sets what the next evaluations calculate and highlight.
+	 *
+	 * @param selected
+	 * 			the flags of the objectives to calculate
+	 * @param weights
+	 * 			the weights or null, if the objectives are not weighted
+	 * @param highlightLmax
+	 * 			true, if the jobs with maximal lateness are highlighted orange
+	 * @param highlightLate
+	 * 			true, if the other late jobs are highlighted yellow
+	 */
+	public void setObjectives(int selected, float[] weights, boolean highlightLmax, boolean highlightLate) {
+		this.selected = selected;
+		this.weights = weights;
+		this.highlightLmax = highlightLmax;
+		this.highlightLate = highlightLate;
+	}
+
+	/**
+	 * Evaluates the changes SynmvJob has collected since the last call and shows the result,
+	 * or submits them to the worker, which shows the result when it has been evaluated.
+	 * This must be called in the event dispatch thread, if the worker is used.
+	 */
+	public void recompute() {
+		int n = evaluator.getJobCount();
+		if(worker != null) {
+			//the result is shown by the worker's done(), the jobs are displayed as they are until then
+			BitSet changedTimes = new BitSet();
+			for(int j = SynmvJob.pollChangedTimes(); j >= 0; j = SynmvJob.pollChangedTimes()) {
+				if(j < n) {
+					changedTimes.set(j);
+				}
+			}
+			worker.submit(SynmvJob.pollFirstChangedPosition(), changedTimes, weights, selected);
+			canvas.evaluationSubmitted();
+			return;
+		}
+
+		SynmvMetrics.Probe callbackProbe = SynmvMetrics.begin(SynmvMetrics.CALLBACK);
+		int m = evaluator.getMachineCount();
+		for(int j = SynmvJob.pollChangedTimes(); j >= 0; j = SynmvJob.pollChangedTimes()) {
+			if(j < n) {
+				evaluator.timesChanged(j);
+			}
+		}
+		SynmvMetrics.Probe probe = SynmvMetrics.begin(SynmvMetrics.EVALUATION);
+		int changed = evaluator.evaluate(SynmvJob.variant, SynmvJob.pollFirstChangedPosition());
+		long offsets = (long) Math.max(0, n - changed) * m;
+		SynmvMetrics.countOffsets(offsets);
+		probe.end(n, m, offsets);
+		objectives.calculate(evaluator, schedule.getDuedates(), weights, selected);
+
+		show(changed);
+		callbackProbe.end(n, m, Math.max(0, n - changed));
+	}
+
+	/**
+	 *
+	 * @return true, if a submitted state of the schedule has not been shown yet
+	 */
+	public boolean isPending() {
+		return worker != null && worker.isPending();
+	}
+
+	/**
+	 * Stops the worker, if there is one. Results that are on the way are discarded.
+	 */
+	public void dispose() {
+		if(worker != null) {
+			worker.dispose();
+		}
+	}
+
+	/**
+	 *
+	 * @return the evaluator whose result is shown
+	 */
+	public SynmvEvaluator getEvaluator() {
+		return evaluator;
+	}
+
+	/**
+	 *
+	 * @return the objectives of the schedule that is shown
+	 */
+	public SynmvObjectives getObjectives() {
+		return objectives;
+	}
+
+	/**
+	 * Is called after a result has been shown in the jobs and the canvas.
+	 * Subclasses show the objectives here.
+	 *
+	 * @param changed
+	 * 			the first position whose offsets may have changed since they have been shown the last time
+	 */
+	protected void shown(int changed) {
+	}
+
+	/**
+	 * Shows the offsets the evaluator has calculated: updates the jobs, the highlighting
+	 * and the layout.
+	 */
+	private void show(int changed) {
+		int[] permutation = evaluator.getPermutation();
+		SynmvJob[] jobs = schedule.getJobs();
+		int n = permutation.length;
+		int m = evaluator.getMachineCount();
+		if(!SynmvJob.isChangeMarked() && !isPending()) {
+			//the jobs calculate their offsets themselves, if the schedule has changed since the evaluation
+			for(int p = changed; p < n; p++) {
+				jobs[permutation[p]].setOffsets(evaluator, p);
+			}
+		}
+		for(SynmvJob job : jobs) {
+			job.updateInfobox();
+		}
+
+		//late jobs are highlighted yellow, the ones with maximal lateness orange
+		SynmvMetrics.Probe probe = SynmvMetrics.begin(SynmvMetrics.RECOLOR);
+		float[] duedates = schedule.getDuedates();
+		float lmax = objectives.getLmax();
+		for(int p = 0; p < n; p++) {
+			SynmvJob job = jobs[permutation[p]];
+			float lateness = evaluator.getEndTime(p) - duedates[permutation[p]];
+			if(highlightLmax && lateness == lmax) {
+				job.highlight(Color.ORANGE);
+			}
+			else if(highlightLate && lateness > 0) {
+				job.highlight(Color.YELLOW);
+			}
+			else {
+				job.setDefaultColor();
+			}
+		}
+		probe.end(n, m, n);
+
+		probe = SynmvMetrics.begin(SynmvMetrics.RELAYOUT);
+		canvas.scheduleChanged();
+		probe.end(n, m, n);
+		shown(changed);
+	}
+}
@@ -0,0 +1,425 @@
+import java.awt.EventQueue;
+import java.util.BitSet;
+
+/**
+ * This class evaluates a schedule in a background thread, so that the event
+ * dispatch thread stays responsive while large schedules are changed.
+ * <p>
+ * Every call of submit() gives the current state of the schedule a new version and
+ * hands a copy of its order, due dates and weights to the worker thread. The times
+ * are shared as rows that are never changed but replaced, when a job's times change.
+ * The worker evaluates the newest submitted version only and hands the result to
+ * done() in the event dispatch thread. A result is shown, even if a newer version
+ * has been submitted meanwhile, so that a continuous change like a drag does not
+ * freeze the display. The newer version replaces it when it has been evaluated.
+ * <p>
+ * There are two results that are used as buffers. One of them is shown, i.e. it
+ * belongs to the event dispatch thread until a newer result replaces it, and the
+ * worker evaluates the other one. Each of them remembers the first position and
+ * the jobs that have changed since it has been evaluated, so both of them are
+ * evaluated incrementally.
+ *
+ * @author sebrockm
+ *
+ */
+public abstract class SynmvEvaluationWorker {
+
+	/**
+	 * The minimal number of operations, i.e. jobs times machines, of a schedule
+	 * that is worth being evaluated in the background.
+	 */
+	public static final int MIN_OPERATIONS = 1 << 16;
+
+	/**
+	 * The result of an evaluation.
+	 */
+	public static class Result {
+		/**
+		 * The rows of the times of the evaluated version.
+		 */
+		private final float[][] times;
+
+		/**
+		 * The order of the evaluated version.
+		 */
+		private final int[] order;
+
+		/**
+		 * The evaluator of times and order.
+		 */
+		private final SynmvEvaluator evaluator;
+
+		/**
+		 * The objectives of the evaluated version.
+		 */
+		private final SynmvObjectives objectives = new SynmvObjectives();
+
+		/**
+		 * The first position that has changed since this result has been evaluated.
+		 */
+		private int changedFrom = 0;
+
+		/**
+		 * The indices of the jobs whose times have changed since this result has been evaluated.
+		 */
+		private final BitSet changedTimes = new BitSet();
+
+		/**
+		 * The evaluated version.
+		 */
+		private long version = -1;
+
+		/**
+		 * The variant the version has been evaluated for.
+		 */
+		private SynmvJob.Variant variant = SynmvJob.variant;
+
+		/**
+		 * The first position whose offsets may differ from the ones of the result
+		 * shown before.
+		 */
+		private int changed = 0;
+
+		private Result(float[][] rows, int[] order) {
+			this.times = rows.clone();
+			this.order = order.clone();
+			this.evaluator = new SynmvEvaluator(times, this.order);
+		}
+
+		/**
+		 * Returns the evaluator. Its permutation and times are copies of the
+		 * schedule's ones of the evaluated version.
+		 *
+		 * @return the evaluator that has evaluated the schedule
+		 */
+		public SynmvEvaluator getEvaluator() {
+			return evaluator;
+		}
+
+		/**
+		 *
+		 * @return the objectives of the evaluated schedule
+		 */
+		public SynmvObjectives getObjectives() {
+			return objectives;
+		}
+
+		/**
+		 *
+		 * @return the first position whose offsets may differ from the ones of the result shown before
+		 */
+		public int getChanged() {
+			return changed;
+		}
+
+		/**
+		 *
+		 * @return the version of the schedule that has been evaluated
+		 */
+		public long getVersion() {
+			return version;
+		}
+
+		/**
+		 *
+		 * @return the variant the schedule has been evaluated for
+		 */
+		public SynmvJob.Variant getVariant() {
+			return variant;
+		}
+	}
+
+	/**
+	 * A submitted version of the schedule.
+	 */
+	private static class Request {
+		/**
+		 * The submitted version.
+		 */
+		private final long version;
+
+		/**
+		 * A copy of the order of the schedule.
+		 */
+		private final int[] order;
+
+		/**
+		 * The variant to evaluate the schedule for.
+		 */
+		private final SynmvJob.Variant variant;
+
+		/**
+		 * A copy of the due dates of the schedule.
+		 */
+		private final float[] duedates;
+
+		/**
+		 * A copy of the weights or null, if the objectives are not weighted.
+		 */
+		private final float[] weights;
+
+		/**
+		 * The flags of the objectives to calculate.
+		 */
+		private final int objectives;
+
+		private Request(long version, int[] order, SynmvJob.Variant variant, float[] duedates, float[] weights, int objectives) {
+			this.version = version;
+			this.order = order;
+			this.variant = variant;
+			this.duedates = duedates;
+			this.weights = weights;
+			this.objectives = objectives;
+		}
+	}
+
+	/**
+	 * The schedule that is evaluated.
+	 */
+	private final SynmvSchedule schedule;
+
+	/**
+	 * The current times of the schedule. A row is replaced by a copy, when the times
+	 * of its job change, so the rows the results share are never changed.
+	 */
+	private final float[][] rows;
+
+	/**
+	 * Both results.
+	 */
+	private final Result[] buffers;
+
+	/**
+	 * The result that is shown.
+	 */
+	private Result shown;
+
+	/**
+	 * The result the worker may evaluate. It is null, while the worker evaluates it
+	 * or its result is on the way to the event dispatch thread.
+	 */
+	private Result spare = null;
+
+	/**
+	 * The newest submitted version.
+	 */
+	private long version = 0;
+
+	/**
+	 * The request of the newest submitted version or null, if it is evaluated already.
+	 */
+	private Request pending = null;
+
+	/**
+	 * true, when the worker thread has been stopped.
+	 */
+	private boolean disposed = false;
+
+	/**
+	 * The no-wait delays both evaluators share. Only the worker thread uses them,
+	 * after they have been created.
+	 */
+	private SynmvNoWaitDelays delays = null;
+
+	/**
+	 * The times the no-wait delays are calculated of.
+	 */
+	private final float[][] delayRows;
+
+	/**
+	 * Creates a new SynmvEvaluationWorker and starts its thread.
+	 * The current state of the schedule is evaluated before, so
+	 * getShown() returns an evaluated result right away.
+	 *
+	 * @param schedule
+	 * 			the schedule to evaluate
+	 */
+	public SynmvEvaluationWorker(SynmvSchedule schedule) {
+		this.schedule = schedule;
+		this.rows = schedule.copyTimes();
+		this.delayRows = rows.clone();
+		this.buffers = new Result[]{new Result(rows, schedule.getOrder()), new Result(rows, schedule.getOrder())};
+		this.shown = buffers[0];
+		this.spare = buffers[1];
+
+		prepareDelays(SynmvJob.variant);
+		shown.evaluator.evaluate(SynmvJob.variant);
+		shown.changedFrom = Integer.MAX_VALUE;
+		shown.version = 0;
+
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				work();
+			}
+		}, "synmv evaluation");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 *
+	 * @return the result that is shown currently
+	 */
+	public synchronized Result getShown() {
+		return shown;
+	}
+
+	/**
+	 * Gives the current state of the schedule a new version and lets the worker evaluate it.
+	 * This must be called in the event dispatch thread.
+	 *
+	 * @param from
+	 * 			the first position that has changed since the last submission
+	 * @param changedTimes
+	 * 			the indices of the jobs whose times have changed since the last submission
+	 * @param weights
+	 * 			the weights or null, if the objectives are not weighted
+	 * @param objectives
+	 * 			the flags of the objectives to calculate
+	 * @return the new version
+	 */
+	public synchronized long submit(int from, BitSet changedTimes, float[] weights, int objectives) {
+		float[][] times = schedule.getTimes();
+		for(int j = changedTimes.nextSetBit(0); j >= 0; j = changedTimes.nextSetBit(j+1)) {
+			rows[j] = times[j].clone();
+		}
+		for(Result buffer : buffers) {
+			buffer.changedFrom = Math.min(buffer.changedFrom, from);
+			buffer.changedTimes.or(changedTimes);
+		}
+		pending = new Request(++version, schedule.getOrder().clone(), SynmvJob.variant, schedule.getDuedates().clone(),
+				weights == null ? null : weights.clone(), objectives);
+		notifyAll();
+		return version;
+	}
+
+	/**
+	 *
+	 * @return true, if a submitted version has not been shown yet
+	 */
+	public synchronized boolean isPending() {
+		return shown.version != version;
+	}
+
+	/**
+	 * Stops the worker thread. Results that are on the way are discarded.
+	 */
+	public synchronized void dispose() {
+		disposed = true;
+		notifyAll();
+	}
+
+	/**
+	 * Is called in the event dispatch thread with the result of the newest evaluated version.
+	 * isPending() tells, whether a newer one has been submitted meanwhile.
+	 * The result stays valid until the next call.
+	 *
+	 * @param result
+	 * 			the result
+	 */
+	protected abstract void done(Result result);
+
+	/**
+	 * The loop of the worker thread.
+	 */
+	private void work() {
+		while(true) {
+			Result buffer;
+			Request request;
+			int from;
+			BitSet changedTimes;
+			synchronized(this) {
+				while(!disposed && (pending == null || spare == null)) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if(disposed) {
+					return;
+				}
+				buffer = spare;
+				request = pending;
+				spare = null;
+				pending = null;
+
+				from = buffer.changedFrom;
+				changedTimes = (BitSet) buffer.changedTimes.clone();
+				buffer.changedFrom = Integer.MAX_VALUE;
+				buffer.changedTimes.clear();
+				for(int j = changedTimes.nextSetBit(0); j >= 0; j = changedTimes.nextSetBit(j+1)) {
+					buffer.times[j] = rows[j];
+				}
+			}
+
+			evaluate(buffer, request, from, changedTimes);
+
+			final Result result = buffer;
+			EventQueue.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					deliver(result);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Creates the shared no-wait delays, if they are needed for a variant and fit into memory.
+	 */
+	private void prepareDelays(SynmvJob.Variant variant) {
+		if(delays == null && variant == SynmvJob.Variant.noWait && SynmvNoWaitDelays.fits(rows.length)) {
+			delays = new SynmvNoWaitDelays(delayRows);
+			for(Result buffer : buffers) {
+				buffer.evaluator.setNoWaitDelays(delays);
+			}
+		}
+	}
+
+	/**
+	 * Evaluates a result for a request. The positions before from and the times
+	 * of all other jobs must not have changed since the result has been evaluated the last time.
+	 */
+	private void evaluate(Result buffer, Request request, int from, BitSet changedTimes) {
+		int n = buffer.order.length;
+		int m = buffer.evaluator.getMachineCount();
+		System.arraycopy(request.order, 0, buffer.order, 0, n);
+		for(int j = changedTimes.nextSetBit(0); j >= 0; j = changedTimes.nextSetBit(j+1)) {
+			delayRows[j] = buffer.times[j];
+			buffer.evaluator.timesChanged(j);
+		}
+		prepareDelays(request.variant);
+
+		SynmvMetrics.Probe probe = SynmvMetrics.begin(SynmvMetrics.EVALUATION);
+		int changed = buffer.evaluator.evaluate(request.variant, from);
+		long offsets = (long) Math.max(0, n - changed) * m;
+		SynmvMetrics.countOffsets(offsets);
+		probe.end(n, m, offsets, request.variant);
+
+		buffer.objectives.calculate(buffer.evaluator, request.duedates, request.weights, request.objectives);
+		buffer.version = request.version;
+		buffer.variant = request.variant;
+		//the positions before are the same in all versions since this result has been shown
+		buffer.changed = Math.min(buffer.changed, changed);
+	}
+
+	/**
+	 * Shows a result and lets the worker evaluate the other one, if a newer version
+	 * has been submitted meanwhile.
+	 */
+	private void deliver(Result result) {
+		synchronized(this) {
+			if(disposed) {
+				return;
+			}
+			//the changes since its evaluation are recorded, so the worker evaluates the other one incrementally
+			spare = shown;
+			spare.changed = Integer.MAX_VALUE;
+			shown = result;
+			notifyAll();
+		}
+		done(result);
+	}
+}
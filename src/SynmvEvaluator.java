@@ -0,0 +1,488 @@
+/**
+ * This class evaluates a schedule, i.e. it calculates the offsets and end times
+ * of all jobs for a given variant.
+ * It works on primitive arrays only and does not need any java.swing components,
+ * so schedules can be evaluated without a GUI.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvEvaluator {
+
+	/**
+	 * The process times. times[j][i] is the time job j needs on machine i.
+	 */
+	private final float[][] times;
+
+	/**
+	 * The schedule. permutation[p] is the index of the job at position p.
+	 */
+	private final int[] permutation;
+
+	/**
+	 * The number of jobs.
+	 */
+	private final int n;
+
+	/**
+	 * The number of positions that are evaluated, at most n.
+	 */
+	private int length;
+
+	/**
+	 * The first position that has to be evaluated again, because the length has changed,
+	 * or Integer.MAX_VALUE, if it has not changed since the last evaluation.
+	 */
+	private int lengthChanged = Integer.MAX_VALUE;
+
+	/**
+	 * The number of machines.
+	 */
+	private final int m;
+
+	/**
+	 * The calculated offsets. offsets[p*m + i] is the offset of the job
+	 * at position p on machine i.
+	 */
+	private final float[] offsets;
+
+	/**
+	 * The calculated end times. endTimes[p] is the end time of the job at position p.
+	 */
+	private final float[] endTimes;
+
+	/**
+	 * The cycle lengths of the synchronous variant. The operations (p,i) with
+	 * p + i = d belong to the cycle d, so there are n + m - 1 cycles.
+	 */
+	private final float[] cycles;
+
+	/**
+	 * The start times of the synchronous cycles. cycleStarts[d] is the sum of
+	 * the lengths of all cycles before d.
+	 */
+	private final float[] cycleStarts;
+
+	/**
+	 * The no-wait delays of all pairs of jobs or null, if they have not been
+	 * needed yet or there are too many jobs to store them.
+	 */
+	private SynmvNoWaitDelays delays = null;
+
+	/**
+	 * The variant of the last evaluation or null, if there has not been one yet.
+	 */
+	private SynmvJob.Variant evaluatedVariant = null;
+
+	/**
+	 * Creates a new SynmvEvaluator. The arrays are not copied, so changes
+	 * made to them afterwards are considered by the next evaluation.
+	 *
+	 * @param times
+	 * 			the process times, times[j][i] is the time job j needs on machine i
+	 * @param permutation
+	 * 			the schedule, permutation[p] is the index of the job at position p
+	 */
+	public SynmvEvaluator(float[][] times, int[] permutation) {
+		if(times.length != permutation.length) {
+			throw new IllegalArgumentException("'times' and 'permutation' must have the same length");
+		}
+		this.times = times;
+		this.permutation = permutation;
+		this.n = times.length;
+		this.m = n == 0 ? 0 : times[0].length;
+		this.length = n;
+
+		offsets = new float[n * m];
+		endTimes = new float[n];
+		cycles = new float[Math.max(0, n + m - 1)];
+		cycleStarts = new float[n + m];
+	}
+
+	/**
+	 *
+	 * @return the number of jobs
+	 */
+	public int getJobCount() {
+		return n;
+	}
+
+	/**
+	 *
+	 * @return the number of machines
+	 */
+	public int getMachineCount() {
+		return m;
+	}
+
+	/**
+	 *
+	 * @return the number of positions that are evaluated
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Sets the number of positions that are evaluated. Only the jobs at the
+	 * positions before it are considered, as if the others were not scheduled.
+	 * This is used to evaluate partial schedules.
+	 *
+	 * @param length
+	 * 			the number of evaluated positions from 0 to getJobCount()
+	 */
+	public void setLength(int length) {
+		if(length < 0 || length > n) {
+			throw new IllegalArgumentException("'length' must be in [0,getJobCount()]");
+		}
+		if(length != this.length) {
+			//the last m-1 jobs before the cut take part in synchronous cycles that jobs after it take part in, too
+			lengthChanged = Math.min(lengthChanged, Math.max(0, Math.min(this.length, length) - m + 1));
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Returns the schedule array itself, not a copy. It may be changed
+	 * before the next call of evaluate().
+	 *
+	 * @return the schedule, permutation[p] is the index of the job at position p
+	 */
+	public int[] getPermutation() {
+		return permutation;
+	}
+
+	/**
+	 * Returns the times array itself, not a copy.
+	 *
+	 * @return the process times, times[j][i] is the time job j needs on machine i
+	 */
+	public float[][] getTimes() {
+		return times;
+	}
+
+	/**
+	 * Announces that the times of a job have changed. This must be called
+	 * before the next evaluation, if the job's times have been changed
+	 * through the times array.
+	 *
+	 * @param job
+	 * 			the index of the changed job
+	 */
+	public void timesChanged(int job) {
+		if(delays != null) {
+			delays.update(job);
+		}
+	}
+
+	/**
+	 * Lets this evaluator use the delay matrix of another one, so that evaluators
+	 * of the same times in different threads do not build one each.
+	 *
+	 * @param delays
+	 * 			the delay matrix of the same times
+	 */
+	void setNoWaitDelays(SynmvNoWaitDelays delays) {
+		this.delays = delays;
+	}
+
+	/**
+	 * Calculates the offsets and end times of all jobs.
+	 *
+	 * @param variant
+	 * 			the variant the schedule is evaluated for
+	 */
+	public void evaluate(SynmvJob.Variant variant) {
+		evaluate(variant, 0);
+	}
+
+	/**
+	 * Calculates the offsets and end times of the jobs from a position onward.
+	 * The results of the last evaluation are reused for the positions before,
+	 * so neither the schedule nor the times of those jobs may have changed since.
+	 * If the variant differs from the last evaluation's one, all jobs are evaluated.
+	 *
+	 * @param variant
+	 * 			the variant the schedule is evaluated for
+	 * @param from
+	 * 			the first position in the schedule that has changed
+	 * @return the first position whose offsets or end time may have changed
+	 */
+	public int evaluate(SynmvJob.Variant variant, int from) {
+		if(variant != evaluatedVariant) {
+			evaluatedVariant = variant;
+			from = 0;
+		}
+		boolean lengthHasChanged = lengthChanged != Integer.MAX_VALUE;
+		from = Math.max(0, Math.min(from, lengthChanged));
+		lengthChanged = Integer.MAX_VALUE;
+		if(from >= length && !lengthHasChanged) {
+			return length;
+		}
+
+		switch(variant) {
+		case synchronous:
+			return evaluateSynchronous(from);
+		case asynchronous:
+			evaluateAsynchronous(from);
+			return from;
+		case noWait:
+			evaluateNoWait(from);
+			return from;
+		case blocking:
+			evaluateBlocking(from);
+			return from;
+		default:
+			throw new RuntimeException("unknown variant, this cannot happen...");
+		}
+	}
+
+	/**
+	 * Returns the process time of the job at a position on a machine.
+	 *
+	 * @param position
+	 * 			the position in the schedule starting with 0
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @return the process time
+	 */
+	public float getTime(int position, int machine) {
+		return times[permutation[position]][machine];
+	}
+
+	/**
+	 * Returns the offset of the job at a position on a machine,
+	 * as calculated by the last call of evaluate().
+	 *
+	 * @param position
+	 * 			the position in the schedule starting with 0
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @return the offset
+	 */
+	public float getOffset(int position, int machine) {
+		return offsets[position * m + machine];
+	}
+
+	/**
+	 * Returns the start time of the job at a position,
+	 * as calculated by the last call of evaluate().
+	 *
+	 * @param position
+	 * 			the position in the schedule starting with 0
+	 * @return the start time
+	 */
+	public float getStartTime(int position) {
+		return offsets[position * m];
+	}
+
+	/**
+	 * Returns the end time of the job at a position,
+	 * as calculated by the last call of evaluate().
+	 *
+	 * @param position
+	 * 			the position in the schedule starting with 0
+	 * @return the end time
+	 */
+	public float getEndTime(int position) {
+		return endTimes[position];
+	}
+
+	/**
+	 * Evaluates the synchronous variant. Every cycle is as long as its
+	 * longest operation, and every operation starts at the beginning of its cycle.
+	 * A change at a position changes the cycles from that position onward,
+	 * which also contain operations of up to m-1 preceding jobs.
+	 *
+	 * @param from
+	 * 			the first position in the schedule that has changed
+	 * @return the first position whose offsets or end time may have changed
+	 */
+	private int evaluateSynchronous(int from) {
+		calculateCycles(times, permutation, length, from, cycles);
+
+		int first = Math.max(0, from - m + 1);
+		for(int d = from; d < length + m - 1; d++) {
+			cycleStarts[d+1] = cycleStarts[d] + cycles[d];
+		}
+
+		for(int p = first; p < length; p++) {
+			for(int i = 0; i < m; i++) {
+				offsets[p*m + i] = cycleStarts[p+i];
+			}
+			endTimes[p] = cycleStarts[p+m];
+		}
+		return first;
+	}
+
+	/**
+	 * Calculates the lengths of the synchronous cycles from a cycle onward.
+	 * The jobs are processed in schedule order while a window of the m cycles
+	 * they take part in slides along. The cycle at a job's position is complete
+	 * as soon as that job has been processed, because its followers only take
+	 * part in later cycles. So every operation is looked at exactly once.
+	 *
+	 * @param times
+	 * 			the process times, times[j][i] is the time job j needs on machine i
+	 * @param permutation
+	 * 			the schedule, permutation[p] is the index of the job at position p
+	 * @param from
+	 * 			the first cycle that has to be calculated
+	 * @param cycles
+	 * 			the n + m - 1 cycle lengths, the ones before from must be valid already
+	 */
+	static void calculateCycles(float[][] times, int[] permutation, int from, float[] cycles) {
+		calculateCycles(times, permutation, permutation.length, from, cycles);
+	}
+
+	/**
+	 * Calculates the lengths of the synchronous cycles of the first n jobs of a
+	 * schedule from a cycle onward like calculateCycles(times, permutation, from, cycles).
+	 *
+	 * @param times
+	 * 			the process times, times[j][i] is the time job j needs on machine i
+	 * @param permutation
+	 * 			the schedule, permutation[p] is the index of the job at position p
+	 * @param n
+	 * 			the number of jobs of the schedule that are considered, at least 1
+	 * @param from
+	 * 			the first cycle that has to be calculated
+	 * @param cycles
+	 * 			an array for at least n + m - 1 cycle lengths, the ones before from must be valid already
+	 */
+	static void calculateCycles(float[][] times, int[] permutation, int n, int from, float[] cycles) {
+		int m = times[permutation[0]].length;
+
+		//open the window of the first job that takes part in cycle from
+		int first = Math.max(0, from - m + 1);
+		for(int d = from; d < first + m - 1; d++) {
+			cycles[d] = 0;
+		}
+
+		for(int p = first; p < n; p++) {
+			cycles[p+m-1] = 0; //the window now contains cycles p to p+m-1
+			float[] t = times[permutation[p]];
+			for(int i = Math.max(0, from - p); i < m; i++) {
+				if(cycles[p+i] < t[i]) {
+					cycles[p+i] = t[i];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the asynchronous variant, which is the permutation flow shop.
+	 *
+	 * @param from
+	 * 			the first position in the schedule that has changed
+	 */
+	private void evaluateAsynchronous(int from) {
+		for(int p = from; p < length; p++) {
+			float[] t = times[permutation[p]];
+			int row = p * m;
+
+			if(p == 0) {
+				offsets[0] = 0;
+				for(int i = 1; i < m; i++) {
+					offsets[i] = offsets[i-1] + t[i-1];
+				}
+			}
+			else {
+				float[] predTimes = times[permutation[p-1]];
+				offsets[row] = offsets[row-m] + predTimes[0];
+				for(int i = 1; i < m; i++) {
+					offsets[row+i] = Math.max(offsets[row+i-1] + t[i-1], offsets[row-m+i] + predTimes[i]);
+				}
+			}
+			endTimes[p] = offsets[row+m-1] + t[m-1];
+		}
+	}
+
+	/**
+	 * Evaluates the no-wait variant. Every job is started as early as possible
+	 * such that it never waits between two machines. The delays between the jobs
+	 * are taken from the delay matrix, which is built on first use.
+	 *
+	 * @param from
+	 * 			the first position in the schedule that has changed
+	 */
+	private void evaluateNoWait(int from) {
+		if(delays == null && SynmvNoWaitDelays.fits(n)) {
+			delays = new SynmvNoWaitDelays(times);
+		}
+
+		float start = from == 0 ? 0 : offsets[(from-1) * m];
+		for(int p = from; p < length; p++) {
+			float[] t = times[permutation[p]];
+			if(p > 0) {
+				if(delays != null) {
+					start = delays.getDelay(permutation[p-1], permutation[p]) + start;
+				}
+				else {
+					start = noWaitDelay(times[permutation[p-1]], t) + start;
+				}
+			}
+
+			int row = p * m;
+			offsets[row] = start;
+			for(int i = 1; i < m; i++) {
+				offsets[row+i] = offsets[row+i-1] + t[i-1];
+			}
+			endTimes[p] = offsets[row+m-1] + t[m-1];
+		}
+	}
+
+	/**
+	 * Calculates the minimal time between the start of a job and the start
+	 * of its follower in the no-wait variant.
+	 *
+	 * @param pred
+	 * 			the process times of the job
+	 * @param next
+	 * 			the process times of its follower
+	 * @return the no-wait delay
+	 */
+	static float noWaitDelay(float[] pred, float[] next) {
+		float predSum = pred[0];
+		float nextSum = 0;
+		float delay = predSum;
+		for(int i = 1; i < pred.length; i++) {
+			predSum += pred[i];
+			nextSum += next[i-1];
+			delay = Math.max(delay, predSum - nextSum);
+		}
+		return delay;
+	}
+
+	/**
+	 * Evaluates the blocking variant. A job stays on its machine until
+	 * the next machine has been left by the job's predecessor.
+	 *
+	 * @param from
+	 * 			the first position in the schedule that has changed
+	 */
+	private void evaluateBlocking(int from) {
+		for(int p = from; p < length; p++) {
+			float[] t = times[permutation[p]];
+			int row = p * m;
+
+			if(p == 0) {
+				offsets[0] = 0;
+				for(int i = 1; i < m; i++) {
+					offsets[i] = offsets[i-1] + t[i-1];
+				}
+			}
+			else if(m == 1) {
+				offsets[row] = offsets[row-m] + times[permutation[p-1]][0];
+			}
+			else {
+				offsets[row] = offsets[row-m+1];
+				for(int i = 1; i < m-1; i++) {
+					offsets[row+i] = Math.max(offsets[row-m+i+1], offsets[row+i-1] + t[i-1]);
+				}
+				offsets[row+m-1] = Math.max(offsets[row-1] + times[permutation[p-1]][m-1], offsets[row+m-2] + t[m-2]);
+			}
+			endTimes[p] = offsets[row+m-1] + t[m-1];
+		}
+	}
+}
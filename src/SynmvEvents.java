@@ -0,0 +1,114 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class contains the JFR events of the operations SynmvMetrics measures.
+ * They are recorded by Java Flight Recorder, e.g. when the application is started with
+ * -XX:StartFlightRecording, and can be inspected in JDK Mission Control.
+ * 
+ * @author sebrockm
+ *
+ */
+public final class SynmvEvents {
+	
+	private SynmvEvents() {
+	}
+	
+	/**
+	 * The fields all events have.
+	 */
+	@Category("synmvGUI")
+	public abstract static class Base extends Event {
+		@Label("Jobs")
+		public int jobs;
+		
+		@Label("Machines")
+		public int machines;
+		
+		@Label("Variant")
+		public String variant;
+		
+		@Label("Size")
+		@Description("The number of positions or offsets that have been calculated, of undone or redone steps or of bytes read or written")
+		public long size;
+	}
+	
+	@Name("synmv.Callback")
+	@Label("Callback")
+	@Description("The displayed schedule has been recomputed after a change, size is the number of changed positions")
+	public static class Callback extends Base {
+	}
+	
+	@Name("synmv.Evaluation")
+	@Label("Evaluation")
+	@Description("The offsets of the changed positions have been evaluated, size is the number of offsets")
+	public static class Evaluation extends Base {
+	}
+	
+	@Name("synmv.Relayout")
+	@Label("Relayout")
+	@Description("The canvas has been resized and its edit fields have been placed again")
+	public static class Relayout extends Base {
+	}
+	
+	@Name("synmv.Recolor")
+	@Label("Recolor")
+	@Description("The highlights of the jobs have been updated")
+	public static class Recolor extends Base {
+	}
+	
+	@Name("synmv.Undo")
+	@Label("Undo")
+	public static class Undo extends Base {
+	}
+	
+	@Name("synmv.Redo")
+	@Label("Redo")
+	public static class Redo extends Base {
+	}
+	
+	@Name("synmv.Load")
+	@Label("Load")
+	@Description("Jobs have been read from a file, size is the number of bytes")
+	public static class Load extends Base {
+	}
+	
+	@Name("synmv.Save")
+	@Label("Save")
+	@Description("Jobs have been written to a file, size is the number of bytes")
+	public static class Save extends Base {
+	}
+	
+	/**
+	 * Creates the event of an operation.
+	 * 
+	 * @param operation
+	 * 			one of the operations of SynmvMetrics, e.g. SynmvMetrics.CALLBACK
+	 * @return the new event
+	 */
+	public static Base create(int operation) {
+		switch(operation) {
+		case SynmvMetrics.CALLBACK:
+			return new Callback();
+		case SynmvMetrics.EVALUATION:
+			return new Evaluation();
+		case SynmvMetrics.RELAYOUT:
+			return new Relayout();
+		case SynmvMetrics.RECOLOR:
+			return new Recolor();
+		case SynmvMetrics.UNDO:
+			return new Undo();
+		case SynmvMetrics.REDO:
+			return new Redo();
+		case SynmvMetrics.LOAD:
+			return new Load();
+		case SynmvMetrics.SAVE:
+			return new Save();
+		default:
+			throw new IllegalArgumentException("unknown operation " + operation);
+		}
+	}
+}
@@ -1,27 +1,23 @@
 import java.awt.BorderLayout;
-import java.awt.Color;
+import java.awt.Cursor;
 import java.awt.Dimension;
-import java.awt.Graphics;
-import java.awt.Graphics2D;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.StringTokenizer;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.ButtonGroup;
+import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JDialog;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -29,10 +25,11 @@ import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
-import javax.swing.JPanel;
 import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JScrollPane;
 import javax.swing.KeyStroke;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
@@ -45,26 +42,10 @@ import javax.swing.event.ChangeListener;
 @SuppressWarnings("serial")
 public class SynmvFrame extends JFrame {
 	
-	/**
-	 * Indicator string that is followed by a schedule.
-	 */
-	private static final String SCHEDULE_INDICATOR = "#schedule";
-	
-	/**
-	 * Indicator string that is followed by due dates.
-	 */
-	private static final String DUEDATE_INDICATOR = "#duedates";
-	
-	/**
-	 * Indicator string that is followed by weights.
-	 */
-	private static final String WEIGHT_INDICATOR = "#weights";
-
-	
 	/**
 	 * Container that is used as the jobs' parent.
 	 */
-	private final JPanel jobcontainer;
+	private final SynmvCanvas jobcontainer;
 	
 	/**
 	 * JLabel that displays the Cmax and Lmax text.
@@ -91,6 +72,21 @@ public class SynmvFrame extends JFrame {
 	 */
 	private final JMenuItem storeFile = new JMenuItem("save jobs");
 	
+	/**
+	 * Store file in the binary format item
+	 */
+	private final JMenuItem storeBinaryFile = new JMenuItem("save jobs binary");
+	
+	/**
+	 * import sub menu
+	 */
+	private final JMenu importSubMenu = new JMenu("Import");
+	
+	/**
+	 * import item for benchmark files of Taillard
+	 */
+	private final JMenuItem importTaillard = new JMenuItem("Taillard...");
+	
 	/**
 	 * Edit-menu
 	 */
@@ -106,6 +102,16 @@ public class SynmvFrame extends JFrame {
 	 */
 	private final JMenuItem redoItem = new JMenuItem("redo");
 	
+	/**
+	 * undo several steps item
+	 */
+	private final JMenuItem undoSeveral = new JMenuItem("undo several...");
+	
+	/**
+	 * redo several steps item
+	 */
+	private final JMenuItem redoSeveral = new JMenuItem("redo several...");
+	
 	/**
 	 * zoom in item
 	 */
@@ -121,6 +127,36 @@ public class SynmvFrame extends JFrame {
 	 */
 	private final JMenuItem resetZoom = new JMenuItem("reset zoom");
 	
+	/**
+	 * Optimize-menu
+	 */
+	private final JMenu optimizeMenu = new JMenu("Optimize");
+	
+	/**
+	 * NEH heuristic item
+	 */
+	private final JMenuItem nehItem = new JMenuItem("NEH");
+	
+	/**
+	 * iterated greedy item
+	 */
+	private final JMenuItem iteratedGreedyItem = new JMenuItem("iterated greedy...");
+	
+	/**
+	 * branch and bound item
+	 */
+	private final JMenuItem branchAndBoundItem = new JMenuItem("branch and bound...");
+	
+	/**
+	 * Checkbox that shows the best moves panel.
+	 */
+	private final JCheckBoxMenuItem showBestMoves = new JCheckBoxMenuItem("best moves", false);
+	
+	/**
+	 * Panel that lists the best moves of the schedule.
+	 */
+	private final SynmvAdvisorPanel advisorPanel = new SynmvAdvisorPanel();
+	
 	/**
 	 * Options-menu
 	 */
@@ -208,12 +244,43 @@ public class SynmvFrame extends JFrame {
 	 */
 	private final JCheckBoxMenuItem continuousShift = new JCheckBoxMenuItem("continuous shift", true);
 	
+	/**
+	 * Insertion heatmap checkbox.
+	 * If enabled, the positions are colored by the makespan after shifting the chosen job there.
+	 */
+	private final JCheckBoxMenuItem insertionHeatmap = new JCheckBoxMenuItem("insertion heatmap", true);
+	
+	/**
+	 * Item that sets the memory cap of the undo history.
+	 */
+	private final JMenuItem historyMemory = new JMenuItem("undo memory...");
+	
 	
 	/**
 	 * An array of SynmvJobs that shall be displayed in the window.
 	 */
 	private SynmvJob[] jobs = new SynmvJob[0];
 	
+	/**
+	 * The schedule of the jobs.
+	 */
+	private SynmvSchedule schedule = new SynmvSchedule(jobs, null);
+	
+	/**
+	 * Evaluates the schedule and shows the result in the jobs and the canvas.
+	 */
+	private SynmvEvaluation evaluation;
+
+	/**
+	 * The best known upper bound of the makespan of the loaded instance, negative if it is unknown.
+	 */
+	private float upperBound = -1;
+
+	/**
+	 * The best known lower bound of the makespan of the loaded instance, negative if it is unknown.
+	 */
+	private float lowerBound = -1;
+
 	/**
 	 * Array of check boxes that indicate whether the corresponding times can be split to neighbor times.
 	 */
@@ -229,23 +296,10 @@ public class SynmvFrame extends JFrame {
 	 */
 	private final JFileChooser fileChooser = new JFileChooser();
 	
-	private final static char SIGMA = (char) 931;
-	
 	/**
-	 * This exception shall be thrown, if a file read has an invalid format.
-	 * 
-	 * @author sebrockm
-	 *
+	 * The capital sigma that prefixes the sum objectives.
 	 */
-	@SuppressWarnings("unused")	
-	private class InvalidFileFormatException extends Exception {
-		public InvalidFileFormatException() {
-			super();
-		}
-		public InvalidFileFormatException(String message) {
-			super(message);
-		}
-	}
+	final static char SIGMA = (char) 931;
 	
 	/**
 	 * Callback that is given to the SynmvJob class.
@@ -253,10 +307,6 @@ public class SynmvFrame extends JFrame {
 	private final Runnable callback = new Runnable(){
 		@Override
 		public void run() {
-			for(SynmvJob job : jobs) {
-				job.deleteOldOffsets();
-			}
-			
 			if(jobs.length > 0) { //if not jobs are loaded, let all options be enabled
 				lMaxCheck.setEnabled(SynmvJob.hasDuedates);
 				sumTjCheck.setEnabled(SynmvJob.hasDuedates);
@@ -266,430 +316,215 @@ public class SynmvFrame extends JFrame {
 				highlightSumUj.setEnabled(SynmvJob.hasDuedates);
 			}
 			
-			float cmax = 0;
-			float lmax = Float.NEGATIVE_INFINITY;
-			float sumCj = 0;
-			float sumUj = 0;
-			float sumTj = 0;
-			
-			LinkedList<SynmvJob> critLmax = new LinkedList<SynmvJob>();
-			LinkedList<SynmvJob> critUj = new LinkedList<SynmvJob>();
-			for(SynmvJob job : jobs) {
-				if(job != null) {
-					float weight = useWeights.isSelected() ? job.getWeight() : 1;
-					
-					job.setLocations();
-					float finished = job.getEndTime();
-
-					if(cmax < finished) {
-						cmax = finished;
-					}
-					
-					sumCj += weight*finished;
-					
-					if(lmax == finished - job.getDuedate()) {
-						critLmax.add(job);
-					}
-					else if(lmax < finished - job.getDuedate()) {
-						lmax = finished - job.getDuedate();
-						critLmax.clear();
-						critLmax.add(job);
-					}
-					
-					sumTj += weight * (finished - job.getDuedate());
-					
-					if(finished > job.getDuedate()) {
-						sumUj += weight;
-						critUj.add(job);
-					}
-				}
+			int selected = 0;
+			if(isSelected(cMaxCheck)) {
+				selected |= SynmvObjectives.CMAX;
 			}
-			
-			String w = useWeights.isSelected() ? "wj" : "";
-			String text = "";
-			if(cMaxCheck.isEnabled() && cMaxCheck.isSelected()) {
-				text += "Cmax: " + cmax + "    ";
+			if(isSelected(sumCjCheck)) {
+				selected |= SynmvObjectives.SUM_CJ;
 			}
-			if(sumCjCheck.isEnabled() && sumCjCheck.isSelected()) {
-				text += SIGMA + w + "Cj: " + sumCj + "    ";
+			if(isSelected(lMaxCheck) || isSelected(highlightLmax)) {
+				selected |= SynmvObjectives.LMAX;
 			}
-			if(lMaxCheck.isEnabled() && lMaxCheck.isSelected()) {
-				text += "Lmax: " + lmax + "    ";
+			if(isSelected(sumTjCheck)) {
+				selected |= SynmvObjectives.SUM_TJ;
 			}
-			if(sumTjCheck.isEnabled() && sumTjCheck.isSelected()) {
-				text += SIGMA + w + "Tj: " + sumTj + "    ";
-			}
-			if(sumUjCheck.isEnabled() && sumUjCheck.isSelected()) {
-				text += SIGMA + w + "Uj: " + sumUj;
-			}
-			
-			for(SynmvJob job : jobs) {
-				job.setDefaultColor();
-			}
-			
-			if(highlightSumUj.isEnabled() && highlightSumUj.isSelected()) {
-				for(SynmvJob job : critUj) {
-					job.highlight(Color.YELLOW);
-				}
-			}
-				
-			if(highlightLmax.isEnabled() && highlightLmax.isSelected()) {
-				for(SynmvJob job : critLmax) {
-					job.highlight(Color.ORANGE);
-				}
+			if(isSelected(sumUjCheck)) {
+				selected |= SynmvObjectives.SUM_UJ;
 			}
+			float[] weights = useWeights.isSelected() ? schedule.getWeights() : null;
 			
-			label.setText(text);
-			int width = label.getFontMetrics(label.getFont()).stringWidth(label.getText());
-			label.setSize(width, label.getHeight());
+			evaluation.setObjectives(selected, weights, isSelected(highlightLmax), isSelected(highlightSumUj));
+			evaluation.recompute();
 		}
 	};
-
+	
 	/**
-	 * Reads a schedule from a line and delivers error messages (InvalidFileFormatException)
 	 * 
-	 * @param line
-	 * 			the string containing the schedule
-	 * @param n
-	 * 			the expected length of the schedule
-	 * @param filename
-	 * 			the name of the file line is taken from
-	 * @param lineNo
-	 * 			the line number of line in file
-	 * @return the schedule list
-	 * @throws InvalidFileFormatException
-	 * 			if the schedule is not valid. 
+	 * @return true, if a menu item is enabled and selected
 	 */
-	private ArrayList<Integer> readSchedule(String line, int n, String filename, int lineNo) throws InvalidFileFormatException {
-		while(line.startsWith("#")) {
-			line = line.substring(1);
-		}
-		line = line.trim();
-		StringTokenizer tok = new StringTokenizer(line);
-		if(tok.countTokens() != n) {
-			throw new InvalidFileFormatException("in file " + filename + " in line " + 
-					lineNo + " the schedule contains " + tok.countTokens() + " jobs, but " +
-					"must contain " + n + " jobs");
-		}
-		
-		ArrayList<Integer> schedule = new ArrayList<Integer>(n);
-		while(tok.hasMoreTokens()) {
-			int job;
-			try {
-				job = Integer.parseInt(tok.nextToken());
-			}
-			catch(NumberFormatException e) {
-				throw new InvalidFileFormatException("in file " + filename + " in line " + 
-						lineNo + " the schedule contains an invalid number: " + e.getMessage());
-			}
-			if(job < 1 || job > n) {
-				throw new InvalidFileFormatException("in file " + filename + " in line " +
-						lineNo + " a job id is not between 1 and " + n);
-			}
-			if(schedule.contains(job)) {
-				throw new InvalidFileFormatException("in file " + filename + " in line " + 
-						lineNo + " the schedule contains " + job + " at least twice");
+	private static boolean isSelected(JMenuItem item) {
+		return item.isEnabled() && item.isSelected();
+	}
+	
+	/**
+	 * Creates the evaluation of the schedule, which shows the objectives
+	 * in the label and updates the advisor after each shown result.
+	 * 
+	 * @return the evaluation
+	 */
+	private SynmvEvaluation createEvaluation() {
+		return new SynmvEvaluation(schedule, jobcontainer) {
+			@Override
+			protected void shown(int changed) {
+				showObjectives(changed);
 			}
-			schedule.add(job);
-		}
-		return schedule;
+		};
 	}
 	
 	/**
-	 * Returns the next line delivered by the buffers readLine() method that is not empty
-	 * and is no comment (except for the (DUEDATE|SCHEDULE|WEIGHT)_INDICATOR) or null, if
-	 * there is no next line with these properties.
+	 * Shows the objectives the evaluation has calculated in the label and updates the advisor.
 	 * 
-	 * @param buf
-	 * 			the BufferedReader to read lines from
-	 * @return the next non empty and no comment line
-	 * @throws IOException if an reading error occurs
-	 */
-	private String getNextLine(BufferedReader buf) throws IOException {
-		String line;
-		while((line = buf.readLine()) != null) {
-			line = line.trim();
-			if(!line.isEmpty()) {
-				if(line.startsWith(DUEDATE_INDICATOR) ||
-						line.startsWith(SCHEDULE_INDICATOR) ||
-						line.startsWith(WEIGHT_INDICATOR)) {
-					return line;
-				}
-				if(line.charAt(0) != '#') {
-					return line;
+	 * @param changed
+	 * 			the first position whose offsets may have changed since they have been shown the last time
+	 */
+	private void showObjectives(int changed) {
+		SynmvObjectives objectives = evaluation.getObjectives();
+		boolean lmaxSelected = isSelected(lMaxCheck);
+		boolean sumUjSelected = isSelected(sumUjCheck);
+		
+		String w = useWeights.isSelected() ? "wj" : "";
+		String text = "";
+		if(objectives.isCalculated(SynmvObjectives.CMAX)) {
+			text += "Cmax: " + objectives.getCmax();
+			//the bounds of Taillard hold for the permutation flow shop, i.e. the asynchronous variant only
+			boolean bounded = SynmvJob.variant == SynmvJob.Variant.asynchronous;
+			if(bounded && upperBound >= 0) {
+				float gap = Math.round(10000 * (objectives.getCmax() - upperBound) / upperBound) / 100.f;
+				text += " (UB: " + upperBound + ", " + (gap >= 0 ? "+" : "") + gap + " %";
+				if(lowerBound >= 0) {
+					text += ", LB: " + lowerBound;
 				}
+				text += ")";
+			}
+			else if(bounded && lowerBound >= 0) {
+				text += " (LB: " + lowerBound + ")";
 			}
+			text += "    ";
 		}
-		return null;
+		if(objectives.isCalculated(SynmvObjectives.SUM_CJ)) {
+			text += SIGMA + w + "Cj: " + objectives.getSumCj() + "    ";
+		}
+		if(lmaxSelected) {
+			text += "Lmax: " + objectives.getLmax() + "    ";
+		}
+		if(objectives.isCalculated(SynmvObjectives.SUM_TJ)) {
+			text += SIGMA + w + "Tj: " + objectives.getSumTj() + "    ";
+		}
+		if(sumUjSelected) {
+			text += SIGMA + w + "Uj: " + objectives.getSumUj();
+		}
+		
+		label.setText(text);
+		int width = label.getFontMetrics(label.getFont()).stringWidth(label.getText());
+		label.setSize(width, label.getHeight());
+		
+		advisorPanel.update(schedule, useWeights.isSelected(), changed < jobs.length);
 	}
-	
+
 	/**
 	 * Reads jobs from a file.
 	 * 
 	 * @param filename
 	 * 			name of the file to be read
-	 * @return an array of read SynmvJobs
+	 * @return the schedule of the read SynmvJobs
 	 * @throws FileNotFoundException
 	 * 			if the given file was not found
 	 * @throws InvalidFileFormatException
 	 * 			if the given file has an invalid format
 	 */
-	private SynmvJob[] readJobsFromFile(String filename) throws FileNotFoundException, InvalidFileFormatException {
-		SynmvJob[] retjobs = null;
-		BufferedReader buf = new BufferedReader(new FileReader(filename));
-		
-		boolean hasDuedates = false;
-		boolean hasWeights = false;
-		
-		try {
-			//skip empty lines and comments
-			String line;
-			int lineNo = 0;
-			do {
-				line = buf.readLine();
-				lineNo++;
-				if(line == null) {
-					throw new InvalidFileFormatException("the file " + filename + " is empty");
-				}
-				line = line.trim();
-			} while(line.isEmpty() || line.charAt(0) == '#');
-			
-			//number of machines and jobs
-			StringTokenizer tok = new StringTokenizer(line);
-			if(tok.countTokens() != 2) {
-				throw new InvalidFileFormatException("first line of " + filename + " is invalid: " + line);
-			}
-			
-			//read number of machines
-			int m;
-			try {
-				m = Integer.parseInt(tok.nextToken());
-			} catch (NumberFormatException e) {
-				throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
-			}
-			
-			//read number of jobs
-			int n = 0;
-			try {
-				n = Integer.parseInt(tok.nextToken());
-			} catch (NumberFormatException e) {
-				throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
-			}
-			retjobs = new SynmvJob[n];
-			
-			ArrayList<Integer> schedule = null;
-			
-			//read process times
-			int i = 0;
-			while(i < n && (line = buf.readLine()) != null) {
-				lineNo++;
-				line = line.trim();
-				
-				//look for schedule
-				if(i == 0 && line.startsWith(SCHEDULE_INDICATOR)) {
-					line = buf.readLine();
-					lineNo++;
-					if(line == null) {
-						break;
-					}
-					schedule = readSchedule(line, n, filename, lineNo);
-					continue;
-				}
-				
-				if(line.isEmpty() || line.charAt(0) == '#')
-					continue;
-				
-				tok = new StringTokenizer(line);
-				if(tok.countTokens() != m) {
-					throw new InvalidFileFormatException("in file " + filename + " in line " + 
-							lineNo + " there are " + tok.countTokens() + " numbers instead of " + m);
-				}
-				float[] times = new float[m];
-				for(int j = 0; j < m; j++) {
-					try {
-						times[j] = Float.parseFloat(tok.nextToken());
-					} catch (NumberFormatException e) {
-						throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
-					}
-				}
-				retjobs[i] = new SynmvJob(jobcontainer, i+1, times);
-				i++;
-			}
-			if(i < n) {
-				throw new InvalidFileFormatException(n + 
-						" jobs are required but " + filename + " contains only " + i);
-			}
-			
-			// look for additional information
-			while((line = buf.readLine()) != null) {
-				lineNo++;
-				line = line.trim();
-				
-				//look for schedule
-				if(line.startsWith(SCHEDULE_INDICATOR)) {
-					if(schedule != null) {
-						throw new InvalidFileFormatException("in file " + filename + " in line " +
-								lineNo + " there is a second schedule indicator");
-					}
-					line = buf.readLine();
-					lineNo++;
-					if(line == null) {
-						throw new InvalidFileFormatException("file " + filename + " ends with schedule indicator");
-					}
-					schedule = readSchedule(line, n, filename, lineNo);
-				}
-				//look for due dates
-				else if(line.startsWith(DUEDATE_INDICATOR) || //either there is a due date indicator
-						(!hasDuedates && !hasWeights && //or neither due dates nor weights have been read yet
-						!line.isEmpty() && line.charAt(0) != '#' && new StringTokenizer(line).countTokens() == 2)) {
-					
-					if(line.startsWith(DUEDATE_INDICATOR)) {
-						line = buf.readLine();
-						if(line == null) {
-							throw new InvalidFileFormatException("file " + filename + " ends with due date indicator");
-						}
-					}
-					i = 0;
-					do {
-						line = line.trim();
-						lineNo++;
-						if(line.isEmpty() || line.charAt(0) == '#') {
-							continue;
-						}
-						
-						tok = new StringTokenizer(line);
-						if(tok.countTokens() != 2) {
-							throw new InvalidFileFormatException("in file " + filename + " in line " +
-									lineNo + " there are " + tok.countTokens() + " instead of 2 tokens");
-						}
-						
-						int id;
-						try {
-							id = Integer.parseInt(tok.nextToken());
-						} catch (NumberFormatException e) {
-							throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
-						}
-						if(id < 1 || id > n) {
-							throw new InvalidFileFormatException("in file " + filename + " in line " +
-									lineNo + " the job id is not between 1 and " + n);
-						}
-						
-						float duedate;
-						try {
-							duedate = Float.parseFloat(tok.nextToken());
-						} catch (NumberFormatException e) {
-							throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
-						}
-						
-						retjobs[id-1].setDuedate(duedate);
-						i++;
-					} while(i < n && (line = buf.readLine()) != null);
-					if(i < n) {
-						throw new InvalidFileFormatException("in file " + filename + " there are only " + i + " due dates instead of " + n);
-					}
-					else {
-						hasDuedates = true;
-					}
-				}
-				else if(line.startsWith(WEIGHT_INDICATOR) || //either there is a weight indicator
-						(hasDuedates && !hasWeights && //or due dates have been read already and weights have not
-								!line.isEmpty() && line.charAt(0) != '#' && new StringTokenizer(line).countTokens() == 2)) {
-					
-					if(line.startsWith(WEIGHT_INDICATOR)) {
-						line = buf.readLine();
-						if(line == null) {
-							throw new InvalidFileFormatException("file " + filename + " ends with weight indicator");
-						}
-					}
-					i = 0;
-					do {
-						line = line.trim();
-						lineNo++;
-						if(line.isEmpty() || line.charAt(0) == '#') {
-							continue;
-						}
-						
-						tok = new StringTokenizer(line);
-						if(tok.countTokens() != 2) {
-							throw new InvalidFileFormatException("in file " + filename + " in line " +
-									lineNo + " there are " + tok.countTokens() + " instead of 2 tokens");
-						}
-						
-						int id;
-						try {
-							id = Integer.parseInt(tok.nextToken());
-						} catch (NumberFormatException e) {
-							throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
-						}
-						if(id < 1 || id > n) {
-							throw new InvalidFileFormatException("in file " + filename + " in line " +
-									lineNo + " the job id is not between 1 and " + n);
-						}
-						
-						float weight;
-						try {
-							weight = Float.parseFloat(tok.nextToken());
-						} catch (NumberFormatException e) {
-							throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
-						}
-						
-						retjobs[id-1].setWeight(weight);
-						i++;
-					} while(i < n && (line = buf.readLine()) != null);
-					if(i < n) {
-						throw new InvalidFileFormatException("in file " + filename + " there are only " + i + " weights instead of " + n);
-					}
-					else {
-						hasWeights = true;
-					}
-				}
-				//empty or comment line
-				else if(line.isEmpty() || line.charAt(0) == '#') {
-					continue;
-				}
-				else {
-					throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + 
-							" there is unknown information: " + line);
-				}
-			}
-			
-			if(schedule == null) {// default schedule
-				for(int j = 1; j < n; j++) {
-					retjobs[j].setPred(retjobs[j-1]);
-					retjobs[j-1].setNext(retjobs[j]);
-				}
-			}
-			else {
-				for(int j = 1; j < n; j++) {
-					retjobs[schedule.get(j)-1].setPred(retjobs[schedule.get(j-1)-1]);
-					retjobs[schedule.get(j-1)-1].setNext(retjobs[schedule.get(j)-1]);
-				}
-			}
-			
-		}
-		catch(IOException e) {
-			e.printStackTrace();
+	private SynmvSchedule readJobsFromFile(String filename) throws FileNotFoundException, InvalidFileFormatException {
+		SynmvMetrics.Probe probe = SynmvMetrics.begin(SynmvMetrics.LOAD);
+		SynmvInstance instance = SynmvInstance.read(filename);
+		if(instance == null) {
+			return null;
 		}
-		finally {
-			try {
-				buf.close();
-			}
-			catch(IOException e) {
-				e.printStackTrace();
-			}
+		SynmvSchedule retschedule = createSchedule(instance);
+		probe.end(instance.getJobCount(), instance.getMachineCount(), new File(filename).length());
+		return retschedule;
+	}
+	
+	/**
+	 * Creates the SynmvJobs of an instance.
+	 * 
+	 * @param instance
+	 * 			the instance
+	 * @return the schedule of the created SynmvJobs
+	 */
+	private SynmvSchedule createSchedule(SynmvInstance instance) {
+		float[][] times = instance.getTimes();
+		SynmvJob[] retjobs = new SynmvJob[times.length];
+		for(int j = 0; j < retjobs.length; j++) {
+			retjobs[j] = new SynmvJob(jobcontainer, j+1, times[j], instance.getDuedates()[j], instance.getWeights()[j]);
 		}
+		SynmvSchedule retschedule = new SynmvSchedule(retjobs, instance.getOrder());
 		
-		SynmvJob.actionList.clear();
-		SynmvJob.undoneActionList.clear();
+		SynmvJob.history.setSchedule(retschedule);
 		
-		SynmvJob.hasDuedates = hasDuedates;
-		SynmvJob.hasWeights = hasWeights;
+		SynmvJob.hasDuedates = instance.hasDuedates();
+		SynmvJob.hasWeights = instance.hasWeights();
 		
 		lMaxCheck.setEnabled(SynmvJob.hasDuedates);
 		sumTjCheck.setEnabled(SynmvJob.hasDuedates);
 		sumUjCheck.setEnabled(SynmvJob.hasDuedates);
 		
-		return retjobs;
+		upperBound = instance.getUpperBound();
+		lowerBound = instance.getLowerBound();
+		
+		return retschedule;
+	}
+	
+	/**
+	 * Replaces the displayed schedule.
+	 * 
+	 * @param tmp
+	 * 			the new schedule
+	 */
+	private void showSchedule(SynmvSchedule tmp) {
+		for(SynmvJob job : jobs) {
+			job.disposeInfobox();
+		}
+		if(splitTimesCheckBoxes != null) {
+			for(JCheckBox box : splitTimesCheckBoxes) {
+				if(box != null) {
+					jobcontainer.remove(box);
+				}
+			}
+		}
+		schedule = tmp;
+		jobs = schedule.getJobs();
+		
+		evaluation.dispose();
+		evaluation = createEvaluation();
+
+		initSplitTimesCheckBoxes(jobs[0].getMachineCount()-1);
+		
+		SynmvJob.runCallback();
+	}
+	
+	/**
+	 * Lets the user choose one of several imported instances.
+	 * 
+	 * @param instances
+	 * 			the instances
+	 * @param names
+	 * 			the names of the files the instances are taken from
+	 * @return the chosen instance or null, if the dialog has been cancelled
+	 */
+	private SynmvInstance chooseInstance(ArrayList<SynmvInstance> instances, ArrayList<String> names) {
+		if(instances.size() == 1) {
+			return instances.get(0);
+		}
+		
+		String[] labels = new String[instances.size()];
+		for(int k = 0; k < labels.length; k++) {
+			SynmvInstance instance = instances.get(k);
+			labels[k] = names.get(k) + ": " + instance.getJobCount() + " jobs, " + instance.getMachineCount() + " machines";
+			if(instance.getUpperBound() >= 0) {
+				labels[k] += ", UB " + instance.getUpperBound();
+			}
+			if(instance.getLowerBound() >= 0) {
+				labels[k] += ", LB " + instance.getLowerBound();
+			}
+		}
+		Object chosen = JOptionPane.showInputDialog(this, instances.size() + " instances have been imported",
+				"choose an instance", JOptionPane.PLAIN_MESSAGE, null, labels, labels[0]);
+		for(int k = 0; k < labels.length; k++) {
+			if(labels[k] == chosen) {
+				return instances.get(k);
+			}
+		}
+		return null;
 	}
 	
 	/**
@@ -697,59 +532,134 @@ public class SynmvFrame extends JFrame {
 	 * 
 	 * @param filename
 	 * 			name of the file the schedule shall be stored in
+	 * @param binary
+	 * 			true for the binary format, false for the text format
 	 * @throws IOException 
 	 * 			if an IO error occurs
 	 */
-	private void storeJobsToFile(String filename) throws IOException {
-		BufferedWriter writer = new BufferedWriter(new FileWriter(filename));
+	private void storeJobsToFile(String filename, boolean binary) throws IOException {
+		SynmvMetrics.Probe probe = SynmvMetrics.begin(SynmvMetrics.SAVE);
+		SynmvInstance instance = new SynmvInstance(jobs[0].getMachineCount(), schedule.getTimes(), schedule.getDuedates(),
+				schedule.getWeights(), schedule.getOrder(), SynmvJob.hasDuedates, SynmvJob.hasWeights);
+		instance.write(filename, binary);
+		probe.end(instance.getJobCount(), instance.getMachineCount(), new File(filename).length());
+	}
 
-		//write m n
-		writer.write(jobs[0].getMachineCount() + " " + jobs.length);
-		writer.newLine();
+	/**
+	 * Lets the user choose one of the enabled objective functions.
+	 * 
+	 * @param title
+	 * 			the title of the dialog
+	 * @return the flag of the chosen objective or 0, if the dialog has been cancelled
+	 */
+	private int chooseObjective(String title) {
+		String w = useWeights.isSelected() ? "wj" : "";
+		JCheckBoxMenuItem[] checks = {cMaxCheck, sumCjCheck, lMaxCheck, sumTjCheck, sumUjCheck};
+		String[] names = {"Cmax", SIGMA + w + "Cj", "Lmax", SIGMA + w + "Tj", SIGMA + w + "Uj"};
+		int[] flags = {SynmvObjectives.CMAX, SynmvObjectives.SUM_CJ, SynmvObjectives.LMAX, SynmvObjectives.SUM_TJ, SynmvObjectives.SUM_UJ};
 		
-		//write process times
-		for(SynmvJob job : jobs) {
-			for(int i = 0; i < job.getMachineCount(); i++) {
-				writer.write(job.getTime(i) + " ");
+		ArrayList<String> enabled = new ArrayList<String>();
+		for(int i = 0; i < checks.length; i++) {
+			if(checks[i].isEnabled()) {
+				enabled.add(names[i]);
 			}
-			writer.newLine();
 		}
-		
-		//write due dates
-		if(SynmvJob.hasDuedates) {
-			writer.newLine();
-			writer.write(DUEDATE_INDICATOR);
-			writer.newLine();
-			for(SynmvJob job : jobs) {
-				writer.write(job.getID() + " " + job.getDuedate());
-				writer.newLine();
+		Object o = JOptionPane.showInputDialog(this, "objective function: ", title, 
+				JOptionPane.QUESTION_MESSAGE, null, enabled.toArray(), enabled.get(0));
+		for(int i = 0; i < names.length; i++) {
+			if(names[i].equals(o)) {
+				return flags[i];
 			}
 		}
-		
-		//write weights
-		if(SynmvJob.hasWeights) {
-			writer.newLine();
-			writer.write(WEIGHT_INDICATOR);
-			writer.newLine();
-			for(SynmvJob job : jobs) {
-				writer.write(job.getID() + " " + job.getWeight());
-				writer.newLine();
+		return 0;
+	}
+
+	/**
+	 * Undoes or redoes steps of the history as one change of the schedule.
+	 * 
+	 * @param undo
+	 * 			true to undo, false to redo
+	 * @param steps
+	 * 			the number of steps, which is limited to the available ones
+	 */
+	private void moveInHistory(boolean undo, int steps) {
+		steps = Math.min(steps, undo ? SynmvJob.history.getUndoCount() : SynmvJob.history.getRedoCount());
+		if(steps <= 0) {
+			return;
+		}
+		SynmvMetrics.Probe probe = SynmvMetrics.begin(undo ? SynmvMetrics.UNDO : SynmvMetrics.REDO);
+		SynmvJob.beginTransaction();
+		try {
+			if(undo) {
+				SynmvJob.history.undo(steps);
+			}
+			else {
+				SynmvJob.history.redo(steps);
 			}
 		}
-		
-		
-		//write schedule
-		writer.newLine();
-		writer.write(SCHEDULE_INDICATOR);
-		writer.newLine();
-		SynmvJob tmp = jobs[0].getFirstPredecessor();
-		writer.write("# ");
-		while(tmp != null) {
-			writer.write(tmp.getID() + " ");
-			tmp = tmp.getNext();
+		finally {
+			SynmvJob.endTransaction();
+		}
+		probe.end(jobs.length, evaluation.getEvaluator().getMachineCount(), steps);
+	}
+	
+	/**
+	 * Asks the user how many steps to undo or redo.
+	 * 
+	 * @param what
+	 * 			"undo" or "redo"
+	 * @param max
+	 * 			the number of steps that can be undone or redone
+	 * @return the chosen number of steps or 0, if the dialog has been canceled
+	 */
+	private int chooseSteps(String what, int max) {
+		if(max == 0) {
+			JOptionPane.showMessageDialog(SynmvFrame.this, "there is nothing to " + what, what, JOptionPane.INFORMATION_MESSAGE);
+			return 0;
+		}
+		String input = JOptionPane.showInputDialog(SynmvFrame.this, "number of steps to " + what
+				+ " (at most " + max + ")", "" + max);
+		if(input == null) {
+			return 0;
+		}
+		try {
+			return Integer.parseInt(input.trim());
+		} catch (NumberFormatException e) {
+			JOptionPane.showMessageDialog(SynmvFrame.this, input + " is no number", "invalid input", JOptionPane.ERROR_MESSAGE);
+			return 0;
+		}
+	}
+	
+	/**
+	 * Gives the schedule a new order as one undoable action,
+	 * if it is still the displayed one. If it has changed since the order
+	 * has been calculated for it, the user is asked first.
+	 * 
+	 * @param scheduled
+	 * 			the schedule the order has been calculated for
+	 * @param version
+	 * 			the version of the schedule the order has been calculated for
+	 * @param order
+	 * 			the new order of the job indices
+	 */
+	private void applyOrder(SynmvSchedule scheduled, long version, int[] order) {
+		if(scheduled != schedule) { //another file has been loaded in the meantime
+			return;
+		}
+		if(schedule.getVersion() != version) {
+			int answer = JOptionPane.showConfirmDialog(SynmvFrame.this, "The schedule has been changed since the search has started.\n"
+					+ "Apply the order found for the old schedule anyway?", "outdated result", JOptionPane.YES_NO_OPTION);
+			if(answer != JOptionPane.YES_OPTION) {
+				return;
+			}
+		}
+		if(Arrays.equals(order, schedule.getOrder())) {
+			return;
 		}
 		
-		writer.close();
+		SynmvJobReorderAction action = new SynmvJobReorderAction(schedule, order);
+		action.run();
+		SynmvJob.history.add(action);
 	}
 
 	/**
@@ -797,35 +707,15 @@ public class SynmvFrame extends JFrame {
 		this.setPreferredSize(new Dimension(1000, 500));
 		this.setVisible(true);
 		
-		jobcontainer = new JPanel() {	
-			@Override
-			public void paint(Graphics g) {
-				super.paint(g);
-				
-				SynmvJob job = SynmvJob.chosen;
-				if(jobs != null && job != null) {
-					Graphics2D g2d = (Graphics2D) g;
-					Color old = g2d.getColor();
-					g2d.setColor(Color.RED);
-					if(job.getDuedate() >= 0.f) {
-						int x = SynmvJob.xOffset + (int)(job.getDuedate() * SynmvJob.factor);
-						int y = SynmvJob.yOffset - SynmvJob.HEIGHT/2;
-						int l = job.getMachineCount() * SynmvJob.HEIGHT + SynmvJob.HEIGHT;
-						g2d.drawLine(x, y, x, y+l);
-					}
-					g2d.setColor(old);
-				}
-			}
-		};
-		
-		jobcontainer.setLayout(null);
+		jobcontainer = new SynmvCanvas();
+		evaluation = createEvaluation();
 		jobcontainer.addMouseWheelListener(new MouseWheelListener() {	
 			@Override
 			public void mouseWheelMoved(MouseWheelEvent arg0) {
 				if(arg0.isControlDown()) {
 					int rot = arg0.getWheelRotation();
 					SynmvJob.factor *= Math.pow(1.1, -rot);
-					SynmvJob.runCallback();
+					SynmvJob.requestCallback();
 				}
 			}
 		});
@@ -835,17 +725,30 @@ public class SynmvFrame extends JFrame {
 		
 		scroll.setViewportView(jobcontainer);
 		this.add(scroll);
+		advisorPanel.setVisible(false);
+		this.add(advisorPanel, BorderLayout.EAST);
 
 		this.add(menubar, BorderLayout.NORTH);
 		menubar.add(fileMenu);
 		fileMenu.add(loadFile);
 		fileMenu.add(storeFile);
+		fileMenu.add(storeBinaryFile);
+		fileMenu.add(importSubMenu);
+		importSubMenu.add(importTaillard);
 		menubar.add(editMenu);
 		editMenu.add(undoItem);
 		editMenu.add(redoItem);
+		editMenu.add(undoSeveral);
+		editMenu.add(redoSeveral);
 		editMenu.add(zoomIn);
 		editMenu.add(zoomOut);
 		editMenu.add(resetZoom);
+		menubar.add(optimizeMenu);
+		optimizeMenu.add(nehItem);
+		optimizeMenu.add(iteratedGreedyItem);
+		optimizeMenu.add(branchAndBoundItem);
+		optimizeMenu.addSeparator();
+		optimizeMenu.add(showBestMoves);
 		menubar.add(optionsMenu);
 		optionsMenu.add(variantsSubMenu);
 		variantsSubMenu.add(synchronous);
@@ -863,6 +766,8 @@ public class SynmvFrame extends JFrame {
 		highlightSubMenu.add(highlightSumUj);
 		optionsMenu.add(useWeights);
 		optionsMenu.add(continuousShift);
+		optionsMenu.add(insertionHeatmap);
+		optionsMenu.add(historyMemory);
 		
 		ButtonGroup variantsGroup = new ButtonGroup();
 		variantsGroup.add(synchronous);
@@ -878,7 +783,7 @@ public class SynmvFrame extends JFrame {
 			public void actionPerformed(ActionEvent arg) {
 				int ret = fileChooser.showOpenDialog(SynmvFrame.this);
 				if(ret == JFileChooser.APPROVE_OPTION) {
-					SynmvJob[] tmp = null;
+					SynmvSchedule tmp = null;
 					try {
 						tmp = readJobsFromFile(fileChooser.getSelectedFile().getAbsolutePath());
 					} catch (FileNotFoundException e) {
@@ -887,39 +792,15 @@ public class SynmvFrame extends JFrame {
 						JOptionPane.showMessageDialog(SynmvFrame.this, e.getMessage(), "invalid file format", JOptionPane.ERROR_MESSAGE);
 					}
 					
-					if(tmp == null) {
-						return;
-					}
-					if(jobs != null) {
-						for(SynmvJob job : jobs) {
-							if(job != null) {
-								job.removeFromParent();
-							}
-						}
-						
-						if(splitTimesCheckBoxes != null) {
-							for(JCheckBox box : splitTimesCheckBoxes) {
-								if(box != null) {
-									jobcontainer.remove(box);
-								}
-							}
-						}
-					}
-					jobs = tmp;
-					
-					for(int i = 0; i < jobs.length; i++) {
-						jobs[i].addToParent();
+					if(tmp != null) {
+						showSchedule(tmp);
 					}
-
-					initSplitTimesCheckBoxes(tmp[0].getMachineCount()-1);
-					
-					SynmvJob.runCallback();
 				}
 			}
 		});
 		loadFile.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_O, KeyEvent.CTRL_DOWN_MASK));
 		
-		storeFile.addActionListener(new ActionListener() {		
+		ActionListener storeListener = new ActionListener() {		
 			@Override
 			public void actionPerformed(ActionEvent e) {
 				if(jobs == null || jobs.length == 0) {
@@ -929,23 +810,67 @@ public class SynmvFrame extends JFrame {
 				int ret = fileChooser.showSaveDialog(SynmvFrame.this);
 				if(ret == JFileChooser.APPROVE_OPTION) {
 					try {
-						storeJobsToFile(fileChooser.getSelectedFile().getAbsolutePath());
+						storeJobsToFile(fileChooser.getSelectedFile().getAbsolutePath(), e.getSource() == storeBinaryFile);
 					} catch (IOException e1) {
 						JOptionPane.showMessageDialog(SynmvFrame.this, e1.getMessage(), "cannot write to file", JOptionPane.ERROR_MESSAGE);
 					}
 				}
 			}
-		});
+		};
+		storeFile.addActionListener(storeListener);
+		storeBinaryFile.addActionListener(storeListener);
 		storeFile.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_S, KeyEvent.CTRL_DOWN_MASK));
 		
+		importTaillard.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg) {
+				fileChooser.setMultiSelectionEnabled(true);
+				int ret = fileChooser.showOpenDialog(SynmvFrame.this);
+				fileChooser.setMultiSelectionEnabled(false);
+				if(ret != JFileChooser.APPROVE_OPTION) {
+					return;
+				}
+				
+				File[] files = fileChooser.getSelectedFiles();
+				Arrays.sort(files);
+				ArrayList<SynmvInstance> instances = new ArrayList<SynmvInstance>();
+				ArrayList<String> names = new ArrayList<String>();
+				for(File file : files) {
+					SynmvInstance[] read = null;
+					try {
+						SynmvMetrics.Probe probe = SynmvMetrics.begin(SynmvMetrics.LOAD);
+						read = SynmvInstance.readTaillard(file.getAbsolutePath());
+						if(read != null) {
+							probe.end(read[0].getJobCount(), read[0].getMachineCount(), file.length());
+						}
+					} catch (FileNotFoundException e) {
+						JOptionPane.showMessageDialog(SynmvFrame.this, e.getMessage(), "file not found", JOptionPane.ERROR_MESSAGE);
+					} catch (InvalidFileFormatException e) {
+						JOptionPane.showMessageDialog(SynmvFrame.this, e.getMessage(), "invalid file format", JOptionPane.ERROR_MESSAGE);
+					}
+					if(read == null) {
+						continue; //the instances of the other files are still offered
+					}
+					for(int k = 0; k < read.length; k++) {
+						instances.add(read[k]);
+						names.add(file.getName() + " #" + (k+1));
+					}
+				}
+				if(instances.isEmpty()) {
+					return;
+				}
+				
+				SynmvInstance instance = chooseInstance(instances, names);
+				if(instance != null) {
+					showSchedule(createSchedule(instance));
+				}
+			}
+		});
+		
 		undoItem.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent arg0) {
-				if(!SynmvJob.actionList.isEmpty()){
-					SynmvJobAction a = SynmvJob.actionList.removeFirst();
-					a.undo();
-					SynmvJob.undoneActionList.addFirst(a);
-				}
+				moveInHistory(true, 1);
 			}
 		});
 		undoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, KeyEvent.CTRL_DOWN_MASK));
@@ -953,15 +878,25 @@ public class SynmvFrame extends JFrame {
 		redoItem.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent arg0) {
-				if(!SynmvJob.undoneActionList.isEmpty()) {
-					SynmvJobAction a = SynmvJob.undoneActionList.removeFirst();
-					a.run();
-					SynmvJob.actionList.addFirst(a);
-				}
+				moveInHistory(false, 1);
 			}
 		});
 		redoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, KeyEvent.CTRL_DOWN_MASK));
 		
+		undoSeveral.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				moveInHistory(true, chooseSteps("undo", SynmvJob.history.getUndoCount()));
+			}
+		});
+		
+		redoSeveral.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				moveInHistory(false, chooseSteps("redo", SynmvJob.history.getRedoCount()));
+			}
+		});
+		
 		zoomIn.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent arg0) {
@@ -989,6 +924,230 @@ public class SynmvFrame extends JFrame {
 		});
 		resetZoom.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_NUMPAD0, KeyEvent.CTRL_DOWN_MASK));
 		
+		iteratedGreedyItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				if(jobs.length == 0) {
+					return;
+				}
+				
+				final int objective = chooseObjective("Iterated Greedy");
+				if(objective == 0) {
+					return;
+				}
+				Object o = JOptionPane.showInputDialog(SynmvFrame.this, "time budget in seconds: ", "Iterated Greedy", 
+						JOptionPane.QUESTION_MESSAGE, null, null, "10");
+				if(o == null) {
+					return;
+				}
+				final long millis;
+				try {
+					millis = (long)(Float.parseFloat(o.toString()) * 1000);
+				} catch(NumberFormatException e) {
+					return;
+				}
+				
+				final SynmvSchedule scheduled = schedule;
+				final long version = schedule.getVersion();
+				final int[] initial = schedule.getOrder().clone();
+				float[] weights = useWeights.isSelected() ? schedule.getWeights().clone() : null;
+				final SynmvIteratedGreedy solver = new SynmvIteratedGreedy(schedule.copyTimes(), 
+						schedule.getDuedates().clone(), weights, SynmvJob.variant, objective);
+				final long start = System.currentTimeMillis();
+				
+				final JDialog dialog = new JDialog(SynmvFrame.this, "Iterated Greedy", false);
+				final JLabel progress = new JLabel("searching...");
+				JButton cancel = new JButton("cancel");
+				dialog.add(progress, BorderLayout.CENTER);
+				dialog.add(cancel, BorderLayout.SOUTH);
+				cancel.addActionListener(new ActionListener() {
+					@Override
+					public void actionPerformed(ActionEvent e) {
+						solver.cancel();
+					}
+				});
+				
+				final Runnable showProgress = new Runnable() {
+					@Override
+					public void run() {
+						long elapsed = System.currentTimeMillis() - start;
+						float best = solver.getIncumbent();
+						progress.setText((elapsed / 1000) + " of " + (millis / 1000) + " seconds    best: " 
+								+ (Float.isInfinite(best) ? "-" : "" + best));
+					}
+				};
+				final Timer timer = new Timer(500, new ActionListener() {
+					@Override
+					public void actionPerformed(ActionEvent e) {
+						showProgress.run();
+					}
+				});
+				dialog.setSize(400, 100);
+				dialog.setLocationRelativeTo(SynmvFrame.this);
+				dialog.setVisible(true);
+				timer.start();
+				iteratedGreedyItem.setEnabled(false);
+				
+				new SwingWorker<int[], Void>() {
+					@Override
+					protected int[] doInBackground() {
+						return solver.solve(initial, millis, System.nanoTime());
+					}
+					
+					@Override
+					protected void done() {
+						iteratedGreedyItem.setEnabled(true);
+						timer.stop();
+						dialog.dispose();
+						
+						int[] order;
+						try {
+							order = get();
+						} catch (InterruptedException e) {
+							return;
+						} catch (ExecutionException e) {
+							JOptionPane.showMessageDialog(SynmvFrame.this, e.getCause().toString(), "iterated greedy failed", JOptionPane.ERROR_MESSAGE);
+							return;
+						}
+						applyOrder(scheduled, version, order);
+					}
+				}.execute();
+			}
+		});
+		
+		branchAndBoundItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				if(jobs.length == 0) {
+					return;
+				}
+				if(jobs.length > SynmvBranchAndBound.MAX_JOBS) {
+					JOptionPane.showMessageDialog(SynmvFrame.this, "Branch and bound is limited to " + SynmvBranchAndBound.MAX_JOBS + " jobs.", 
+							"too many jobs", JOptionPane.ERROR_MESSAGE);
+					return;
+				}
+				
+				final SynmvSchedule scheduled = schedule;
+				final long version = schedule.getVersion();
+				final int[] initial = schedule.getOrder().clone();
+				final SynmvBranchAndBound solver = new SynmvBranchAndBound(schedule.copyTimes(), SynmvJob.variant);
+				final long start = System.currentTimeMillis();
+				
+				final JDialog dialog = new JDialog(SynmvFrame.this, "Branch and Bound", false);
+				final JLabel progress = new JLabel("searching...");
+				final JButton cancel = new JButton("cancel");
+				dialog.add(progress, BorderLayout.CENTER);
+				dialog.add(cancel, BorderLayout.SOUTH);
+				cancel.addActionListener(new ActionListener() {
+					@Override
+					public void actionPerformed(ActionEvent e) {
+						if(solver.isOptimal() || cancel.getText().equals("close")) {
+							dialog.dispose();
+						}
+						else {
+							solver.cancel();
+						}
+					}
+				});
+				
+				final Runnable showProgress = new Runnable() {
+					@Override
+					public void run() {
+						long millis = Math.max(1, System.currentTimeMillis() - start);
+						long nodes = solver.getNodes();
+						float best = solver.getIncumbent();
+						float bound = solver.getLowerBound();
+						float gap = best == 0 ? 0 : 100 * (best - bound) / best;
+						progress.setText("<html>nodes: " + nodes + " (" + (nodes * 1000 / millis) + " per second)<br>" 
+								+ "Cmax: " + best + "    lower bound: " + bound + "    gap: " + gap + " %</html>");
+						dialog.pack();
+					}
+				};
+				final Timer timer = new Timer(500, new ActionListener() {
+					@Override
+					public void actionPerformed(ActionEvent e) {
+						showProgress.run();
+					}
+				});
+				dialog.setSize(400, 100);
+				dialog.setLocationRelativeTo(SynmvFrame.this);
+				dialog.setVisible(true);
+				timer.start();
+				branchAndBoundItem.setEnabled(false);
+				
+				new SwingWorker<int[], Void>() {
+					@Override
+					protected int[] doInBackground() {
+						return solver.solve(initial);
+					}
+					
+					@Override
+					protected void done() {
+						branchAndBoundItem.setEnabled(true);
+						timer.stop();
+						
+						int[] order;
+						try {
+							order = get();
+						} catch (InterruptedException e) {
+							return;
+						} catch (ExecutionException e) {
+							dialog.dispose();
+							JOptionPane.showMessageDialog(SynmvFrame.this, e.getCause().toString(), "branch and bound failed", JOptionPane.ERROR_MESSAGE);
+							return;
+						}
+						
+						showProgress.run();
+						progress.setText(progress.getText().replace("<html>", 
+								solver.isOptimal() ? "<html>optimal<br>" : "<html>cancelled<br>"));
+						cancel.setText("close");
+						dialog.pack();
+						applyOrder(scheduled, version, order);
+					}
+				}.execute();
+			}
+		});
+		
+		nehItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				if(jobs.length == 0) {
+					return;
+				}
+				
+				final SynmvSchedule scheduled = schedule;
+				final long version = schedule.getVersion();
+				final float[][] times = schedule.copyTimes();
+				final SynmvJob.Variant variant = SynmvJob.variant;
+				nehItem.setEnabled(false);
+				setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+				
+				new SwingWorker<int[], Void>() {
+					@Override
+					protected int[] doInBackground() {
+						return SynmvNEH.solve(times, variant);
+					}
+					
+					@Override
+					protected void done() {
+						nehItem.setEnabled(true);
+						setCursor(Cursor.getDefaultCursor());
+						
+						int[] order;
+						try {
+							order = get();
+						} catch (InterruptedException e) {
+							return;
+						} catch (ExecutionException e) {
+							JOptionPane.showMessageDialog(SynmvFrame.this, e.getCause().toString(), "NEH failed", JOptionPane.ERROR_MESSAGE);
+							return;
+						}
+						applyOrder(scheduled, version, order);
+					}
+				}.execute();
+			}
+		});
+		
 		synchronous.addChangeListener(new ChangeListener() {
 			@Override
 			public void stateChanged(ChangeEvent arg0) {
@@ -1047,6 +1206,15 @@ public class SynmvFrame extends JFrame {
 		
 		useWeights.addChangeListener(callbackRunner);
 		
+		showBestMoves.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				advisorPanel.setVisible(showBestMoves.isSelected());
+				SynmvFrame.this.validate();
+				advisorPanel.update(schedule, useWeights.isSelected(), true);
+			}
+		});
+		
 		continuousShift.addChangeListener(new ChangeListener() {	
 			@Override
 			public void stateChanged(ChangeEvent arg0) {
@@ -1054,6 +1222,32 @@ public class SynmvFrame extends JFrame {
 			}
 		});
 
+		insertionHeatmap.addChangeListener(new ChangeListener() {	
+			@Override
+			public void stateChanged(ChangeEvent arg0) {
+				jobcontainer.setHeatmap(insertionHeatmap.getState());
+			}
+		});
+		
+		historyMemory.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				long mb = SynmvJob.history.getMemoryCap() >> 20;
+				String input = JOptionPane.showInputDialog(SynmvFrame.this, "memory cap of the undo history in MB "
+						+ "(" + (SynmvJob.history.getMemoryUsage() >> 10) + " KB are used)", "" + mb);
+				if(input == null) {
+					return;
+				}
+				try {
+					mb = Long.parseLong(input.trim());
+				} catch (NumberFormatException e) {
+					JOptionPane.showMessageDialog(SynmvFrame.this, input + " is no number", "invalid input", JOptionPane.ERROR_MESSAGE);
+					return;
+				}
+				SynmvJob.history.setMemoryCap(Math.max(0, mb) << 20);
+			}
+		});
+
 		this.pack();
 		SynmvJob.runCallback();
 	}	
@@ -0,0 +1,555 @@
+
+/**
+ * This class stores the history of the actions on a schedule, so that they can be
+ * undone and redone. The actions are not kept as objects but compacted into primitive
+ * ring buffers: a shift or a swap is stored as its two positions, and every few steps
+ * the whole order of the schedule is stored as a snapshot.
+ * <p>
+ * Undoing or redoing a single shift or swap applies it directly. Jumping several steps
+ * restores the nearest snapshot and applies the steps from there to a copy of the order,
+ * which costs O(n) plus at most one snapshot interval of steps, followed by one callback.
+ * The memory of the history is the capacity of its buffers. Before a buffer would grow
+ * beyond the cap, the oldest steps are dropped up to the second oldest snapshot instead,
+ * and the buffers are shrunk when the cap is lowered.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvHistory {
+
+	/**
+	 * The memory cap in bytes the history starts with.
+	 */
+	public static final long DEFAULT_MEMORY_CAP = 32L << 20;
+
+	/**
+	 * The minimal number of steps between two snapshots. For larger schedules
+	 * the interval grows, so that the snapshots need about 16 ints per step.
+	 */
+	private static final int MIN_SNAPSHOT_INTERVAL = 64;
+
+	/**
+	 * The bytes one step needs in the ring buffers.
+	 */
+	private static final int STEP_BYTES = 12;
+
+	/**
+	 * The minimal length of the step buffers.
+	 */
+	private static final int MIN_STEPS = 16;
+
+	/**
+	 * The kind of a step that moves the job at its first position to its second one.
+	 */
+	private static final int SHIFT = 0;
+
+	/**
+	 * The kind of a step that swaps the jobs at its two positions.
+	 */
+	private static final int SWAP = 1;
+
+	/**
+	 * The kind of a step that gives the schedule a new order, which is stored as a snapshot of the state after it.
+	 */
+	private static final int ORDER = 2;
+
+	/**
+	 * The bytes the buffers of the history may allocate.
+	 */
+	private long memoryCap = DEFAULT_MEMORY_CAP;
+
+	/**
+	 * The schedule the history belongs to or null.
+	 */
+	private SynmvSchedule schedule = null;
+
+	/**
+	 * The number of jobs of the schedule.
+	 */
+	private int n = 0;
+
+	/**
+	 * The number of steps after which a snapshot is taken.
+	 */
+	private int interval = MIN_SNAPSHOT_INTERVAL;
+
+	/**
+	 * The ring buffer of the kinds of the steps. Step s leads from state s-1 to state s and
+	 * is stored at index s & (length-1). The length is a power of 2.
+	 */
+	private int[] kinds = new int[MIN_STEPS];
+
+	/**
+	 * The ring buffer of the first positions of the steps, indexed like kinds.
+	 */
+	private int[] firsts = new int[MIN_STEPS];
+
+	/**
+	 * The ring buffer of the second positions of the steps, indexed like kinds.
+	 */
+	private int[] seconds = new int[MIN_STEPS];
+
+	/**
+	 * The oldest state, which always has a snapshot.
+	 */
+	private int base = 0;
+
+	/**
+	 * The state of the schedule.
+	 */
+	private int current = 0;
+
+	/**
+	 * The newest state. The steps after the current state up to it can be redone.
+	 */
+	private int top = 0;
+
+	/**
+	 * The ring buffer of snapshots. Each slot holds the order of n jobs.
+	 */
+	private int[] snapshots = new int[0];
+
+	/**
+	 * The state of the snapshot in each slot.
+	 */
+	private int[] snapshotStates = new int[0];
+
+	/**
+	 * The slot of the oldest snapshot. The slots after it are ordered by their states.
+	 */
+	private int snapshotHead = 0;
+
+	/**
+	 * The number of stored snapshots.
+	 */
+	private int snapshotCount = 0;
+
+	/**
+	 * The action added last. It is kept until the next action is added,
+	 * so that it can still be extended.
+	 */
+	private SynmvJobAction last = null;
+
+	/**
+	 * The state the action added last has led to.
+	 */
+	private int lastState = -1;
+
+	/**
+	 * Deletes the whole history and lets it belong to a schedule. The current order
+	 * of the schedule is the oldest state.
+	 *
+	 * @param schedule
+	 * 			the schedule or null
+	 */
+	public void setSchedule(SynmvSchedule schedule) {
+		this.schedule = schedule;
+		n = schedule == null ? 0 : schedule.size();
+		interval = Math.max(MIN_SNAPSHOT_INTERVAL, n / 16);
+		base = 0;
+		current = 0;
+		top = 0;
+		kinds = new int[MIN_STEPS];
+		firsts = new int[MIN_STEPS];
+		seconds = new int[MIN_STEPS];
+		snapshots = new int[0];
+		snapshotStates = new int[0];
+		snapshotHead = 0;
+		snapshotCount = 0;
+		last = null;
+		lastState = -1;
+		if(schedule != null) {
+			addSnapshot(0);
+		}
+	}
+
+	/**
+	 * Sets the memory cap and drops the oldest steps, if it is exceeded.
+	 *
+	 * @param bytes
+	 * 			the number of bytes the history shall need at most
+	 */
+	public void setMemoryCap(long bytes) {
+		memoryCap = bytes;
+		compact();
+	}
+
+	/**
+	 *
+	 * @return the memory cap in bytes
+	 */
+	public long getMemoryCap() {
+		return memoryCap;
+	}
+
+	/**
+	 *
+	 * @return the bytes the buffers of the steps and snapshots have allocated
+	 */
+	public long getMemoryUsage() {
+		return memoryUsage(kinds.length, snapshotStates.length);
+	}
+
+	/**
+	 *
+	 * @return the bytes buffers of the given lengths need
+	 */
+	private long memoryUsage(int steps, int slots) {
+		return (long) steps * STEP_BYTES + (long) slots * (4L * n + 4);
+	}
+
+	/**
+	 * Adds an action that has just been run. The steps that could be redone are deleted.
+	 *
+	 * @param action
+	 * 			the action
+	 */
+	public void add(SynmvJobAction action) {
+		if(schedule == null) {
+			return;
+		}
+		action.record(this);
+		last = action;
+		lastState = current;
+	}
+
+	/**
+	 *
+	 * @return the action added last, if it has led to the current state and nothing has been added since, or null
+	 */
+	public SynmvJobAction getLast() {
+		return lastState == current && lastState == top && lastState > base ? last : null;
+	}
+
+	/**
+	 * Replaces the step of the action added last, after the action has been extended.
+	 *
+	 * @param action
+	 * 			the action that getLast() returns
+	 */
+	public void replaceLast(SynmvJobAction action) {
+		if(action == null || getLast() != action) {
+			throw new IllegalStateException("only the action added last can be replaced");
+		}
+		if(snapshotCount > 0 && snapshotState(snapshotCount-1) == top) {
+			snapshotCount--;
+		}
+		top--;
+		current--;
+		add(action);
+	}
+
+	/**
+	 *
+	 * @return true, if there is a step that can be undone
+	 */
+	public boolean canUndo() {
+		return current > base;
+	}
+
+	/**
+	 *
+	 * @return true, if there is a step that can be redone
+	 */
+	public boolean canRedo() {
+		return current < top;
+	}
+
+	/**
+	 *
+	 * @return the number of steps that can be undone
+	 */
+	public int getUndoCount() {
+		return current - base;
+	}
+
+	/**
+	 *
+	 * @return the number of steps that can be redone
+	 */
+	public int getRedoCount() {
+		return top - current;
+	}
+
+	/**
+	 * Undoes steps. The callback is run once.
+	 *
+	 * @param steps
+	 * 			the number of steps, at most all that are stored are undone
+	 */
+	public void undo(int steps) {
+		goTo(Math.max(base, current - steps));
+	}
+
+	/**
+	 * Redoes undone steps. The callback is run once.
+	 *
+	 * @param steps
+	 * 			the number of steps, at most all that have been undone are redone
+	 */
+	public void redo(int steps) {
+		goTo(Math.min(top, current + steps));
+	}
+
+	/**
+	 * Deletes the steps that could be redone.
+	 */
+	public void clearRedo() {
+		while(snapshotCount > 1 && snapshotState(snapshotCount-1) > current) {
+			snapshotCount--;
+		}
+		top = current;
+	}
+
+	/**
+	 * Records that the job at a position has been moved to another one.
+	 */
+	void addShift(int from, int to) {
+		addStep(SHIFT, from, to);
+	}
+
+	/**
+	 * Records that the jobs at two positions have been swapped.
+	 */
+	void addSwap(int p1, int p2) {
+		addStep(SWAP, p1, p2);
+	}
+
+	/**
+	 * Records that the schedule has got a new order.
+	 */
+	void addOrder() {
+		addStep(ORDER, 0, 0);
+	}
+
+	private void addStep(int kind, int first, int second) {
+		clearRedo();
+		if(top - base + 1 >= kinds.length) {
+			//rather drop the oldest steps than grow beyond the cap
+			while(top - base + 1 >= kinds.length && canDrop() && memoryUsage(2 * kinds.length, snapshotStates.length) > memoryCap) {
+				dropOldest();
+			}
+			if(top - base + 1 >= kinds.length) {
+				resizeSteps(2 * kinds.length);
+			}
+		}
+		top = ++current;
+		int index = top & (kinds.length-1);
+		kinds[index] = kind;
+		firsts[index] = first;
+		seconds[index] = second;
+		if(kind == ORDER || top - snapshotState(snapshotCount-1) >= interval) {
+			addSnapshot(top);
+		}
+		compact();
+	}
+
+	/**
+	 * Changes the length of the step buffers, which must be a power of 2 that can hold all steps.
+	 */
+	private void resizeSteps(int length) {
+		int[] newKinds = new int[length];
+		int[] newFirsts = new int[length];
+		int[] newSeconds = new int[length];
+		for(int s = base+1; s <= top; s++) {
+			newKinds[s & (length-1)] = kinds[s & (kinds.length-1)];
+			newFirsts[s & (length-1)] = firsts[s & (kinds.length-1)];
+			newSeconds[s & (length-1)] = seconds[s & (kinds.length-1)];
+		}
+		kinds = newKinds;
+		firsts = newFirsts;
+		seconds = newSeconds;
+	}
+
+	/**
+	 * Stores the current order of the schedule as the snapshot of a state.
+	 */
+	private void addSnapshot(int state) {
+		if(snapshotCount == snapshotStates.length) {
+			//rather drop the oldest steps than grow beyond the cap
+			while(snapshotCount == snapshotStates.length && canDrop()
+					&& memoryUsage(kinds.length, 2 * snapshotStates.length) > memoryCap) {
+				dropOldest();
+			}
+			if(snapshotCount == snapshotStates.length) {
+				resizeSnapshots(Math.max(2, 2 * snapshotStates.length));
+			}
+		}
+		int slots = snapshotStates.length;
+		int slot = (snapshotHead + snapshotCount) % slots;
+		System.arraycopy(schedule.getOrder(), 0, snapshots, slot * n, n);
+		snapshotStates[slot] = state;
+		snapshotCount++;
+	}
+
+	/**
+	 * Changes the number of slots of the snapshot buffer, which must hold all snapshots.
+	 * The oldest snapshot is moved to the first slot.
+	 */
+	private void resizeSnapshots(int slots) {
+		int[] newSnapshots = new int[slots * n];
+		int[] newStates = new int[slots];
+		for(int k = 0; k < snapshotCount; k++) {
+			int slot = (snapshotHead + k) % snapshotStates.length;
+			System.arraycopy(snapshots, slot * n, newSnapshots, k * n, n);
+			newStates[k] = snapshotStates[slot];
+		}
+		snapshots = newSnapshots;
+		snapshotStates = newStates;
+		snapshotHead = 0;
+	}
+
+	/**
+	 *
+	 * @return the state of the kth oldest snapshot
+	 */
+	private int snapshotState(int k) {
+		return snapshotStates[(snapshotHead + k) % snapshotStates.length];
+	}
+
+	/**
+	 *
+	 * @return the index of the newest snapshot whose state is not after a state
+	 */
+	private int findSnapshot(int state) {
+		int lo = 0;
+		int hi = snapshotCount - 1;
+		while(lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if(snapshotState(mid) <= state) {
+				lo = mid;
+			}
+			else {
+				hi = mid - 1;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 *
+	 * @return true, if the oldest steps can be dropped without dropping the current state
+	 */
+	private boolean canDrop() {
+		return snapshotCount > 1 && snapshotState(1) <= current;
+	}
+
+	/**
+	 * Drops the oldest steps up to the second oldest snapshot.
+	 */
+	private void dropOldest() {
+		base = snapshotState(1);
+		snapshotHead = (snapshotHead + 1) % snapshotStates.length;
+		snapshotCount--;
+	}
+
+	/**
+	 *
+	 * @return the length the step buffers can be shrunk to
+	 */
+	private int shrunkSteps() {
+		int length = MIN_STEPS;
+		while(top - base + 1 >= length) {
+			length *= 2;
+		}
+		return length;
+	}
+
+	/**
+	 * Drops the oldest steps as long as the memory cap would be exceeded by shrunk buffers
+	 * and shrinks the buffers, if they exceed it. The current state and the ones after it are kept.
+	 */
+	private void compact() {
+		while(canDrop() && memoryUsage(shrunkSteps(), Math.max(2, snapshotCount)) > memoryCap) {
+			dropOldest();
+		}
+		if(getMemoryUsage() > memoryCap) {
+			if(shrunkSteps() < kinds.length) {
+				resizeSteps(shrunkSteps());
+			}
+			if(Math.max(2, snapshotCount) < snapshotStates.length) {
+				resizeSnapshots(Math.max(2, snapshotCount));
+			}
+		}
+	}
+
+	/**
+	 * Changes the schedule to a stored state and runs the callback once.
+	 */
+	private void goTo(int state) {
+		if(state == current) {
+			return;
+		}
+
+		int index = (state > current ? state : current) & (kinds.length-1);
+		if(Math.abs(state - current) == 1 && kinds[index] != ORDER) {
+			//a single shift or swap is applied directly
+			int from = state > current ? firsts[index] : seconds[index];
+			int to = state > current ? seconds[index] : firsts[index];
+			if(kinds[index] == SHIFT) {
+				schedule.move(from, to);
+			}
+			else {
+				schedule.swap(from, to);
+			}
+			current = state;
+			if(from != to) {
+				SynmvJob.markChanged(Math.min(from, to));
+				SynmvJob.runCallback();
+			}
+			return;
+		}
+
+		//start at the nearest snapshot or at the current state, if it is nearer
+		int k = findSnapshot(state);
+		int s = snapshotState(k);
+		int[] order = new int[n];
+		if(current < state && current > s) {
+			System.arraycopy(schedule.getOrder(), 0, order, 0, n);
+			s = current;
+		}
+		else {
+			copySnapshot(k, order);
+		}
+		for(int t = s+1; t <= state; t++) {
+			int i = t & (kinds.length-1);
+			if(kinds[i] == SHIFT) {
+				move(order, firsts[i], seconds[i]);
+			}
+			else if(kinds[i] == SWAP) {
+				int tmp = order[firsts[i]];
+				order[firsts[i]] = order[seconds[i]];
+				order[seconds[i]] = tmp;
+			}
+			else {
+				copySnapshot(findSnapshot(t), order);
+			}
+		}
+
+		current = state;
+		int first = schedule.setOrder(order);
+		if(first < n) {
+			SynmvJob.markChanged(first);
+			SynmvJob.runCallback();
+		}
+	}
+
+	private void copySnapshot(int k, int[] order) {
+		int slot = (snapshotHead + k) % snapshotStates.length;
+		System.arraycopy(snapshots, slot * n, order, 0, n);
+	}
+
+	/**
+	 * Moves an element of an array like SynmvSchedule.move() moves a job.
+	 */
+	private static void move(int[] order, int from, int to) {
+		int job = order[from];
+		if(from < to) {
+			System.arraycopy(order, from+1, order, from, to-from);
+		}
+		else {
+			System.arraycopy(order, to, order, to+1, from-to);
+		}
+		order[to] = job;
+	}
+}
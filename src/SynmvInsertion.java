@@ -0,0 +1,416 @@
+import java.util.Arrays;
+
+/**
+ * This class calculates the makespan of a sequence of jobs after inserting
+ * another job at any position. After the heads and tails of the sequence have
+ * been calculated once, every insertion position is evaluated in O(m) instead
+ * of evaluating the whole new sequence.
+ * <p>
+ * The heads describe the sequence up to a position, the tails the sequence
+ * from a position onward, and a job inserted at position k is combined with
+ * the heads of position k-1 and the tails of position k:
+ * <ul>
+ * <li>asynchronous: Taillard's acceleration with the completion times as heads
+ * and the longest paths to the end as tails</li>
+ * <li>blocking: the same with the departure times, because every path through
+ * the schedule passes one edge from the inserted job to its follower</li>
+ * <li>no-wait: the delays of the inserted job to its neighbors</li>
+ * <li>synchronous: only the m cycles the inserted job takes part in change.
+ * They consist of the operations of the preceding jobs (heads), the inserted
+ * job and the following jobs (tails) on the corresponding diagonals.</li>
+ * </ul>
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvInsertion {
+
+	/**
+	 * The process times. times[j][i] is the time job j needs on machine i.
+	 */
+	private final float[][] times;
+
+	/**
+	 * The variant the makespans are calculated for.
+	 */
+	private final SynmvJob.Variant variant;
+
+	/**
+	 * The number of machines.
+	 */
+	private final int m;
+
+	/**
+	 * The current sequence. sequence[p] is the index of the job at position p.
+	 */
+	private int[] sequence = new int[0];
+
+	/**
+	 * The length of the current sequence.
+	 */
+	private int length = 0;
+
+	/**
+	 * The makespan of the current sequence.
+	 */
+	private float makespan = 0;
+
+	/**
+	 * The heads of the sequence, rows of m+1 values per position.
+	 */
+	private float[] heads = new float[0];
+
+	/**
+	 * The tails of the sequence, rows of m+1 values per position.
+	 */
+	private float[] tails = new float[0];
+
+	/**
+	 * The start times of the synchronous cycles of the sequence.
+	 */
+	private float[] diagonals = new float[0];
+
+	/**
+	 * Working array for the synchronous cycles and diagonal maxima.
+	 */
+	private float[] work = new float[0];
+
+	/**
+	 * Working array for the row of the inserted job.
+	 */
+	private final float[] row;
+
+	/**
+	 * Creates a new SynmvInsertion. The times array is not copied.
+	 *
+	 * @param times
+	 * 			the process times, times[j][i] is the time job j needs on machine i
+	 * @param variant
+	 * 			the variant the makespans are calculated for
+	 */
+	public SynmvInsertion(float[][] times, SynmvJob.Variant variant) {
+		this.times = times;
+		this.variant = variant;
+		this.m = times.length == 0 ? 0 : times[0].length;
+		this.row = new float[m + 1];
+	}
+
+	/**
+	 * Sets the sequence the jobs are inserted into and calculates its
+	 * heads and tails. This takes O(length * m).
+	 *
+	 * @param sequence
+	 * 			the sequence, sequence[p] is the index of the job at position p.
+	 * 			It is not copied and must not be changed until the next call.
+	 * @param length
+	 * 			the number of positions of sequence that are used
+	 */
+	public void setSequence(int[] sequence, int length) {
+		this.sequence = sequence;
+		this.length = length;
+
+		int size = (length + 1) * (m + 1);
+		if(heads.length < size) {
+			heads = new float[Math.max(size, 2 * heads.length)];
+			tails = new float[heads.length];
+			diagonals = new float[heads.length + 1];
+			work = new float[heads.length];
+		}
+
+		switch(variant) {
+		case synchronous:
+			calculateSynchronous();
+			break;
+		case asynchronous:
+			calculateAsynchronous();
+			break;
+		case noWait:
+			calculateNoWait();
+			break;
+		case blocking:
+			calculateBlocking();
+			break;
+		default:
+			throw new RuntimeException("unknown variant, this cannot happen...");
+		}
+	}
+
+	/**
+	 *
+	 * @return the process times, which are not copied
+	 */
+	public float[][] getTimes() {
+		return times;
+	}
+
+	/**
+	 *
+	 * @return the variant the makespans are calculated for
+	 */
+	public SynmvJob.Variant getVariant() {
+		return variant;
+	}
+
+	/**
+	 *
+	 * @return the makespan of the current sequence
+	 */
+	public float getMakespan() {
+		return makespan;
+	}
+
+	/**
+	 * Calculates the makespan of the current sequence after inserting a job. This takes O(m).
+	 *
+	 * @param job
+	 * 			the index of the inserted job, which must not be part of the sequence
+	 * @param position
+	 * 			the position the job is inserted at, from 0 to length
+	 * @return the makespan of the new sequence
+	 */
+	public float evaluate(int job, int position) {
+		if(position < 0 || position > length) {
+			throw new IllegalArgumentException("'position' must be in [0,length]");
+		}
+
+		switch(variant) {
+		case synchronous:
+			return evaluateSynchronous(times[job], position);
+		case asynchronous:
+			return evaluateAsynchronous(times[job], position);
+		case noWait:
+			return evaluateNoWait(times[job], position);
+		case blocking:
+			return evaluateBlocking(times[job], position);
+		default:
+			throw new RuntimeException("unknown variant, this cannot happen...");
+		}
+	}
+
+	/**
+	 * Finds the position a job should be inserted at to minimize the makespan.
+	 * This takes O(length * m).
+	 *
+	 * @param job
+	 * 			the index of the inserted job, which must not be part of the sequence
+	 * @return the first position with the minimal makespan
+	 */
+	public int getBestPosition(int job) {
+		int best = 0;
+		float bestMakespan = Float.POSITIVE_INFINITY;
+		for(int k = 0; k <= length; k++) {
+			float c = evaluate(job, k);
+			if(c < bestMakespan) {
+				bestMakespan = c;
+				best = k;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Asynchronous heads are the completion times heads[p][i] of the job at p
+	 * on machine i, tails the length of the longest path from the start of the
+	 * job at p on machine i to the end.
+	 */
+	private void calculateAsynchronous() {
+		int w = m + 1;
+		for(int p = 0; p < length; p++) {
+			float[] t = times[sequence[p]];
+			for(int i = 0; i < m; i++) {
+				float up = p == 0 ? 0 : heads[(p-1)*w + i];
+				float left = i == 0 ? 0 : heads[p*w + i-1];
+				heads[p*w + i] = Math.max(up, left) + t[i];
+			}
+		}
+		for(int i = 0; i < m; i++) {
+			tails[length*w + i] = 0;
+		}
+		for(int p = length-1; p >= 0; p--) {
+			float[] t = times[sequence[p]];
+			for(int i = m-1; i >= 0; i--) {
+				float down = tails[(p+1)*w + i];
+				float right = i == m-1 ? 0 : tails[p*w + i+1];
+				tails[p*w + i] = Math.max(down, right) + t[i];
+			}
+		}
+		makespan = length == 0 ? 0 : heads[(length-1)*w + m-1];
+	}
+
+	private float evaluateAsynchronous(float[] t, int k) {
+		int w = m + 1;
+		float c = 0;
+		float f = 0;
+		for(int i = 0; i < m; i++) {
+			float up = k == 0 ? 0 : heads[(k-1)*w + i];
+			f = Math.max(f, up) + t[i];
+			c = Math.max(c, f + tails[k*w + i]);
+		}
+		return c;
+	}
+
+	/**
+	 * Blocking heads are the departure times of the job at p, where
+	 * heads[p][0] is its start on the first machine and heads[p][i+1] the time
+	 * it leaves machine i. tails[p][i] is the length of the longest path from
+	 * that event to the end.
+	 */
+	private void calculateBlocking() {
+		int w = m + 1;
+		for(int p = 0; p < length; p++) {
+			departures(times[sequence[p]], p, heads, p*w);
+		}
+
+		for(int p = length-1; p >= 0; p--) {
+			int r = p*w;
+			for(int i = m; i >= 0; i--) {
+				//events are i = 0 (start) and i = machine + 1 (departure from machine)
+				float c = p == length-1 && i == m ? 0 : Float.NEGATIVE_INFINITY;
+				if(i < m) {
+					c = Math.max(c, tails[r + i+1] + times[sequence[p]][i]);
+				}
+				if(p < length-1 && i > 0) {
+					c = Math.max(c, tails[r + w + i-1]);
+				}
+				tails[r + i] = c;
+			}
+		}
+		makespan = length == 0 ? 0 : heads[(length-1)*w + m];
+	}
+
+	/**
+	 * Calculates the departure times of a job that follows the job at position p-1.
+	 *
+	 * @param t
+	 * 			the times of the job
+	 * @param p
+	 * 			its position
+	 * @param target
+	 * 			the array the m+1 departure times are stored in
+	 * @param offset
+	 * 			the index of the first one in target
+	 */
+	private void departures(float[] t, int p, float[] target, int offset) {
+		int w = m + 1;
+		int pred = (p-1)*w;
+		target[offset] = p == 0 ? 0 : heads[pred + 1];
+		for(int i = 0; i < m; i++) {
+			float d = target[offset + i] + t[i];
+			if(p > 0 && i < m-1) {
+				d = Math.max(d, heads[pred + i+2]);
+			}
+			target[offset + i+1] = d;
+		}
+	}
+
+	private float evaluateBlocking(float[] t, int k) {
+		departures(t, k, row, 0);
+		if(k == length) {
+			return row[m];
+		}
+
+		int w = m + 1;
+		float c = 0;
+		for(int i = 1; i <= m; i++) {
+			c = Math.max(c, row[i] + tails[k*w + i-1]);
+		}
+		return c;
+	}
+
+	/**
+	 * No-wait heads are the start times, tails[p][0] the time from the start
+	 * of the job at p to the end.
+	 */
+	private void calculateNoWait() {
+		int w = m + 1;
+		for(int p = 0; p < length; p++) {
+			heads[p*w] = p == 0 ? 0 : heads[(p-1)*w] + SynmvEvaluator.noWaitDelay(times[sequence[p-1]], times[sequence[p]]);
+		}
+		for(int p = length-1; p >= 0; p--) {
+			float[] t = times[sequence[p]];
+			if(p == length-1) {
+				float total = 0;
+				for(float time : t) {
+					total += time;
+				}
+				tails[p*w] = total;
+			}
+			else {
+				tails[p*w] = SynmvEvaluator.noWaitDelay(t, times[sequence[p+1]]) + tails[(p+1)*w];
+			}
+		}
+		makespan = length == 0 ? 0 : tails[0];
+	}
+
+	private float evaluateNoWait(float[] t, int k) {
+		int w = m + 1;
+		float c = k == 0 ? 0 : heads[(k-1)*w] + SynmvEvaluator.noWaitDelay(times[sequence[k-1]], t);
+		if(k == length) {
+			for(float time : t) {
+				c += time;
+			}
+			return c;
+		}
+		return c + SynmvEvaluator.noWaitDelay(t, times[sequence[k]]) + tails[k*w];
+	}
+
+	/**
+	 * Synchronous heads[k][j] are the longest operations of the jobs before k
+	 * on diagonal k+j, tails[k][j] the longest ones of the jobs from k onward
+	 * on diagonal k+j-1. The diagonals array holds the start times of the cycles.
+	 */
+	private void calculateSynchronous() {
+		int w = m + 1;
+		int count = length + m - 1;
+
+		//start times of the cycles
+		if(length > 0) {
+			SynmvEvaluator.calculateCycles(times, sequence, length, 0, work);
+		}
+		diagonals[0] = 0;
+		for(int d = 0; d < count; d++) {
+			diagonals[d+1] = diagonals[d] + (length > 0 ? work[d] : 0);
+		}
+		makespan = count > 0 ? diagonals[count] : 0;
+
+		//heads, the maxima of the diagonals are collected in the work array
+		float[] max = work;
+		Arrays.fill(max, 0, length + m, 0);
+		for(int k = 0; k <= length; k++) {
+			for(int j = 0; j < m; j++) {
+				heads[k*w + j] = max[k+j];
+			}
+			if(k < length) {
+				float[] t = times[sequence[k]];
+				for(int i = 0; i < m; i++) {
+					max[k+i] = Math.max(max[k+i], t[i]);
+				}
+			}
+		}
+
+		//tails
+		Arrays.fill(max, 0, length + m, 0);
+		for(int k = length; k >= 0; k--) {
+			if(k < length) {
+				float[] t = times[sequence[k]];
+				for(int i = 0; i < m; i++) {
+					max[k+i] = Math.max(max[k+i], t[i]);
+				}
+			}
+			tails[k*w] = 0;
+			for(int j = 1; j < m; j++) {
+				tails[k*w + j] = max[k+j-1];
+			}
+		}
+	}
+
+	private float evaluateSynchronous(float[] t, int k) {
+		int w = m + 1;
+		int count = length + m - 1;
+		float c = diagonals[k] + diagonals[count] - diagonals[Math.min(count, k+m-1)];
+		for(int j = 0; j < m; j++) {
+			c += Math.max(t[j], Math.max(heads[k*w + j], tails[k*w + j]));
+		}
+		return c;
+	}
+}
@@ -0,0 +1,1221 @@
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class holds an instance as it is stored in a file: the process times,
+ * due dates and weights of the jobs and optionally a schedule. It reads the
+ * file without creating any SynmvJobs, so it can be used without a display.
+ * Files are stored either as text or in a compact binary format.
+ * Benchmark files of Taillard can be imported, too.
+ * 
+ * @author sebrockm
+ *
+ */
+public class SynmvInstance {
+	
+	/**
+	 * Indicator string that is followed by a schedule.
+	 */
+	public static final String SCHEDULE_INDICATOR = "#schedule";
+	
+	/**
+	 * Indicator string that is followed by due dates.
+	 */
+	public static final String DUEDATE_INDICATOR = "#duedates";
+	
+	/**
+	 * Indicator string that is followed by weights.
+	 */
+	public static final String WEIGHT_INDICATOR = "#weights";
+	
+	/**
+	 * The first bytes of a binary file. A text file cannot start with them.
+	 */
+	private static final byte[] BINARY_MAGIC = {'S', 'Y', 'N', 'B'};
+	
+	/**
+	 * The version of the binary format.
+	 */
+	private static final int BINARY_VERSION = 1;
+	
+	/**
+	 * The size of the binary header in bytes: magic, version, m, n and flags.
+	 */
+	private static final int BINARY_HEADER = 20;
+	
+	/**
+	 * Flag of the binary header that indicates that due dates follow the process times.
+	 */
+	private static final int BINARY_DUEDATES = 1;
+	
+	/**
+	 * Flag of the binary header that indicates that weights follow the process times.
+	 */
+	private static final int BINARY_WEIGHTS = 2;
+	
+	/**
+	 * Flag of the binary header that indicates that a schedule follows the process times.
+	 */
+	private static final int BINARY_SCHEDULE = 4;
+	
+	/**
+	 * The number of machines.
+	 */
+	private final int machineCount;
+	
+	/**
+	 * The process times, times[j][i] is the time job j needs on machine i.
+	 */
+	private final float[][] times;
+	
+	/**
+	 * The due dates, duedates[j] is the due date of job j, negative if it has none.
+	 */
+	private final float[] duedates;
+	
+	/**
+	 * The weights, weights[j] is the weight of job j.
+	 */
+	private final float[] weights;
+	
+	/**
+	 * The schedule, order[p] is the index of the job at position p, or null for the default one.
+	 */
+	private final int[] order;
+	
+	/**
+	 * true, if the due dates have been given.
+	 */
+	private final boolean hasDuedates;
+	
+	/**
+	 * true, if the weights have been given.
+	 */
+	private final boolean hasWeights;
+	
+	/**
+	 * The best known upper bound of the makespan, negative if it is unknown.
+	 */
+	private float upperBound = -1;
+	
+	/**
+	 * The best known lower bound of the makespan, negative if it is unknown.
+	 */
+	private float lowerBound = -1;
+	
+	/**
+	 * Creates a new SynmvInstance. The arrays are not copied.
+	 * 
+	 * @param machineCount
+	 * 			the number of machines
+	 * @param times
+	 * 			the process times, times[j][i] is the time job j needs on machine i
+	 * @param duedates
+	 * 			the due dates, duedates[j] is the due date of job j, negative if it has none
+	 * @param weights
+	 * 			the weights, weights[j] is the weight of job j
+	 * @param order
+	 * 			the schedule, order[p] is the index of the job at position p, or null for the default one
+	 * @param hasDuedates
+	 * 			true, if the due dates have been given
+	 * @param hasWeights
+	 * 			true, if the weights have been given
+	 */
+	public SynmvInstance(int machineCount, float[][] times, float[] duedates, float[] weights, int[] order, 
+			boolean hasDuedates, boolean hasWeights) {
+		this.machineCount = machineCount;
+		this.times = times;
+		this.duedates = duedates;
+		this.weights = weights;
+		this.order = order;
+		this.hasDuedates = hasDuedates;
+		this.hasWeights = hasWeights;
+	}
+	
+	/**
+	 * 
+	 * @return the number of machines
+	 */
+	public int getMachineCount() {
+		return machineCount;
+	}
+	
+	/**
+	 * 
+	 * @return the number of jobs
+	 */
+	public int getJobCount() {
+		return times.length;
+	}
+	
+	/**
+	 * 
+	 * @return the process times, times[j][i] is the time job j needs on machine i
+	 */
+	public float[][] getTimes() {
+		return times;
+	}
+	
+	/**
+	 * 
+	 * @return the due dates, duedates[j] is the due date of job j, negative if it has none
+	 */
+	public float[] getDuedates() {
+		return duedates;
+	}
+	
+	/**
+	 * 
+	 * @return the weights, weights[j] is the weight of job j
+	 */
+	public float[] getWeights() {
+		return weights;
+	}
+	
+	/**
+	 * 
+	 * @return the schedule, order[p] is the index of the job at position p, or null if the file contains none
+	 */
+	public int[] getOrder() {
+		return order;
+	}
+	
+	/**
+	 * 
+	 * @return the schedule, or the default one 0, 1, ..., n-1 if the file contains none
+	 */
+	public int[] getOrderOrDefault() {
+		if(order != null) {
+			return order;
+		}
+		int[] ret = new int[times.length];
+		for(int j = 0; j < ret.length; j++) {
+			ret[j] = j;
+		}
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @return true, if the file contains due dates
+	 */
+	public boolean hasDuedates() {
+		return hasDuedates;
+	}
+	
+	/**
+	 * 
+	 * @return true, if the file contains weights
+	 */
+	public boolean hasWeights() {
+		return hasWeights;
+	}
+	
+	/**
+	 * 
+	 * @return the best known upper bound of the makespan, negative if it is unknown
+	 */
+	public float getUpperBound() {
+		return upperBound;
+	}
+	
+	/**
+	 * 
+	 * @return the best known lower bound of the makespan, negative if it is unknown
+	 */
+	public float getLowerBound() {
+		return lowerBound;
+	}
+	
+	/**
+	 * This class iterates over the lines of a mapped file and over the tokens
+	 * of the current line without creating Strings. Lines end with \n, \r or
+	 * \r\n like the ones of BufferedReader.readLine(), tokens are separated by
+	 * the default delimiters of StringTokenizer. The bytes are copied chunk by
+	 * chunk into one array, which is much faster to access than the buffer.
+	 */
+	private static class Lines {
+		
+		/**
+		 * The number of bytes that are copied at once.
+		 */
+		private static final int CHUNK = 1 << 16;
+		
+		private final ByteBuffer buf;
+		
+		/**
+		 * The copied bytes, only the ones from the current line on are kept.
+		 */
+		private byte[] data = new byte[CHUNK];
+		
+		/**
+		 * The number of valid bytes in data.
+		 */
+		private int filled = 0;
+		
+		/**
+		 * The index of the next line's first byte.
+		 */
+		private int next = 0;
+		
+		/**
+		 * The bounds of the current line before and after trimming it.
+		 */
+		private int rawStart = 0;
+		private int start = 0;
+		private int end = 0;
+		
+		/**
+		 * The bounds of the current token.
+		 */
+		private int tokenStart = 0;
+		private int tokenEnd = 0;
+		
+		public Lines(ByteBuffer buf) {
+			this.buf = buf;
+		}
+		
+		/**
+		 * Moves to the next line.
+		 * 
+		 * @return false, if there is no next line
+		 */
+		public boolean nextLine() {
+			if(next >= filled && !buf.hasRemaining()) {
+				return false;
+			}
+			int p = next;
+			while(true) {
+				while(p < filled && data[p] != '\n' && data[p] != '\r') {
+					p++;
+				}
+				if(p < filled || !buf.hasRemaining()) {
+					break;
+				}
+				p -= refill();
+			}
+			if(p == filled - 1 && data[p] == '\r' && buf.hasRemaining()) {
+				p -= refill();
+			}
+			rawStart = next;
+			end = p;
+			if(p+1 < filled && data[p] == '\r' && data[p+1] == '\n') {
+				p++;
+			}
+			next = p + 1;
+			
+			//trim like String.trim()
+			start = rawStart;
+			while(start < end && (data[start] & 0xff) <= ' ') {
+				start++;
+			}
+			while(end > start && (data[end-1] & 0xff) <= ' ') {
+				end--;
+			}
+			tokenEnd = start;
+			return true;
+		}
+		
+		/**
+		 * Moves the bytes from the next line on to the front of data
+		 * and copies as many bytes from the buffer as fit behind them.
+		 * 
+		 * @return the number of positions the bytes have moved
+		 */
+		private int refill() {
+			int shift = next;
+			int keep = filled - shift;
+			byte[] target = keep > data.length / 2 ? new byte[2 * data.length] : data;
+			System.arraycopy(data, shift, target, 0, keep);
+			data = target;
+			int length = Math.min(data.length - keep, buf.remaining());
+			buf.get(data, keep, length);
+			filled = keep + length;
+			next = 0;
+			return shift;
+		}
+		
+		/**
+		 * Removes the leading '#' characters of the untrimmed line and trims it again.
+		 */
+		public void stripHashes() {
+			start = rawStart;
+			while(start < end && data[start] == '#') {
+				start++;
+			}
+			while(start < end && (data[start] & 0xff) <= ' ') {
+				start++;
+			}
+			tokenEnd = start;
+		}
+		
+		public boolean isEmpty() {
+			return start == end;
+		}
+		
+		public boolean isComment() {
+			return start < end && data[start] == '#';
+		}
+		
+		public boolean startsWithDigit() {
+			return start < end && data[start] >= '0' && data[start] <= '9';
+		}
+		
+		public boolean startsWith(String prefix) {
+			if(end - start < prefix.length()) {
+				return false;
+			}
+			for(int c = 0; c < prefix.length(); c++) {
+				if(data[start + c] != prefix.charAt(c)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		private static boolean isDelimiter(byte b) {
+			return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+		}
+		
+		/**
+		 * 
+		 * @return the number of tokens of the current line
+		 */
+		public int countTokens() {
+			int count = 0;
+			boolean inToken = false;
+			for(int p = start; p < end; p++) {
+				boolean delimiter = isDelimiter(data[p]);
+				if(!delimiter && !inToken) {
+					count++;
+				}
+				inToken = !delimiter;
+			}
+			return count;
+		}
+		
+		/**
+		 * Moves to the next token of the current line, which must exist.
+		 */
+		public void nextToken() {
+			tokenStart = tokenEnd;
+			while(isDelimiter(data[tokenStart])) {
+				tokenStart++;
+			}
+			tokenEnd = tokenStart;
+			while(tokenEnd < end && !isDelimiter(data[tokenEnd])) {
+				tokenEnd++;
+			}
+		}
+		
+		/**
+		 * Parses the next token like Integer.parseInt().
+		 * 
+		 * @throws NumberFormatException
+		 * 			if it is no int
+		 */
+		public int nextInt() {
+			nextToken();
+			int p = tokenStart;
+			boolean negative = data[p] == '-';
+			if(negative) {
+				p++;
+			}
+			int digits = tokenEnd - p;
+			if(digits > 0 && digits <= 9) {
+				int value = 0;
+				for(; p < tokenEnd; p++) {
+					int d = data[p] - '0';
+					if(d < 0 || d > 9) {
+						break;
+					}
+					value = 10 * value + d;
+				}
+				if(p == tokenEnd) {
+					return negative ? -value : value;
+				}
+			}
+			//anything else is parsed by the JDK, which also delivers its messages
+			return Integer.parseInt(token());
+		}
+		
+		/**
+		 * Parses the next token like Float.parseFloat(). Decimals with few digits
+		 * are parsed directly from the bytes. Their mantissas and powers of 10 are
+		 * exact floats, so one division rounds them like Float.parseFloat() does.
+		 * 
+		 * @throws NumberFormatException
+		 * 			if it is no float
+		 */
+		public float nextFloat() {
+			nextToken();
+			float value = parseFloat();
+			return value == value ? value : Float.parseFloat(token());
+		}
+		
+		/**
+		 * Parses the current line, if it consists of as many decimals with few
+		 * digits as the target array is long. This takes a single pass over the line.
+		 * 
+		 * @param target
+		 * 			the array the numbers are stored in
+		 * @return false, if the line has to be parsed by countTokens() and nextFloat(),
+		 * 			which deliver the right error messages. The target array may have been changed then.
+		 */
+		public boolean nextFloats(float[] target) {
+			for(int j = 0; j < target.length; j++) {
+				if(tokenEnd == end) {
+					tokenEnd = start;
+					return false;
+				}
+				nextToken();
+				float value = parseFloat();
+				if(value != value) {
+					tokenEnd = start;
+					return false;
+				}
+				target[j] = value;
+			}
+			if(tokenEnd != end) {
+				tokenEnd = start;
+				return false;
+			}
+			return true;
+		}
+		
+		/**
+		 * Parses the current token, if it is a decimal with few digits.
+		 * 
+		 * @return its value or NaN, if it has to be parsed by Float.parseFloat()
+		 */
+		private float parseFloat() {
+			int p = tokenStart;
+			boolean negative = data[p] == '-';
+			if(negative) {
+				p++;
+			}
+			int mantissa = 0;
+			int digits = 0;
+			int decimals = -1;
+			for(; p < tokenEnd; p++) {
+				byte b = data[p];
+				if(b == '.' && decimals < 0) {
+					decimals = 0;
+					continue;
+				}
+				int d = b - '0';
+				if(d < 0 || d > 9 || mantissa >= MAX_EXACT / 10) {
+					break;
+				}
+				mantissa = 10 * mantissa + d;
+				digits++;
+				if(decimals >= 0) {
+					decimals++;
+				}
+			}
+			if(p == tokenEnd && digits > 0 && decimals < POWERS_OF_10.length) {
+				float value = decimals <= 0 ? mantissa : mantissa / POWERS_OF_10[decimals];
+				return negative ? -value : value;
+			}
+			return Float.NaN;
+		}
+		
+		/**
+		 * 
+		 * @return the current token as String
+		 */
+		public String token() {
+			return decode(tokenStart, tokenEnd);
+		}
+		
+		/**
+		 * 
+		 * @return the current, trimmed line as String
+		 */
+		public String line() {
+			return decode(start, end);
+		}
+		
+		private String decode(int from, int to) {
+			return new String(data, from, to - from, Charset.defaultCharset());
+		}
+	}
+	
+	/**
+	 * Floats are exact up to this value.
+	 */
+	private static final int MAX_EXACT = 1 << 24;
+	
+	/**
+	 * The powers of 10 that are exact floats.
+	 */
+	private static final float[] POWERS_OF_10 = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+	
+	/**
+	 * Reads a schedule from the current line and delivers error messages (InvalidFileFormatException)
+	 * 
+	 * @param lines
+	 * 			the lines whose current one contains the schedule
+	 * @param n
+	 * 			the expected length of the schedule
+	 * @param filename
+	 * 			the name of the file the line is taken from
+	 * @param lineNo
+	 * 			the line number of the line in file
+	 * @return the schedule, schedule[p] is the index of the job at position p
+	 * @throws InvalidFileFormatException
+	 * 			if the schedule is not valid. 
+	 */
+	private static int[] readSchedule(Lines lines, int n, String filename, int lineNo) throws InvalidFileFormatException {
+		lines.stripHashes();
+		int count = lines.countTokens();
+		if(count != n) {
+			throw new InvalidFileFormatException("in file " + filename + " in line " + 
+					lineNo + " the schedule contains " + count + " jobs, but " +
+					"must contain " + n + " jobs");
+		}
+		
+		int[] schedule = new int[n];
+		boolean[] contained = new boolean[n];
+		for(int p = 0; p < n; p++) {
+			int job;
+			try {
+				job = lines.nextInt();
+			}
+			catch(NumberFormatException e) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " + 
+						lineNo + " the schedule contains an invalid number: " + e.getMessage());
+			}
+			if(job < 1 || job > n) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " +
+						lineNo + " a job id is not between 1 and " + n);
+			}
+			if(contained[job-1]) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " + 
+						lineNo + " the schedule contains " + job + " at least twice");
+			}
+			contained[job-1] = true;
+			schedule[p] = job - 1;
+		}
+		return schedule;
+	}
+	
+	/**
+	 * Reads due dates or weights, which are lines of a job id and a number,
+	 * and delivers error messages (InvalidFileFormatException).
+	 * 
+	 * @param lines
+	 * 			the lines whose current one contains the first job id and number
+	 * @param values
+	 * 			the array the numbers are stored in, values[id-1] is the number of the job with id
+	 * @param name
+	 * 			the name of the numbers in error messages
+	 * @param filename
+	 * 			the name of the file the lines are taken from
+	 * @param lineNo
+	 * 			the line number of the line before the current one
+	 * @return the line number of the last line read
+	 * @throws InvalidFileFormatException
+	 * 			if the file ends too early or a line is not valid
+	 */
+	private static int readValues(Lines lines, float[] values, String name, String filename, int lineNo) throws InvalidFileFormatException {
+		int n = values.length;
+		int i = 0;
+		do {
+			lineNo++;
+			if(lines.isEmpty() || lines.isComment()) {
+				continue;
+			}
+			
+			int count = lines.countTokens();
+			if(count != 2) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " +
+						lineNo + " there are " + count + " instead of 2 tokens");
+			}
+			
+			int id;
+			try {
+				id = lines.nextInt();
+			} catch (NumberFormatException e) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
+			}
+			if(id < 1 || id > n) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " +
+						lineNo + " the job id is not between 1 and " + n);
+			}
+			
+			try {
+				values[id-1] = lines.nextFloat();
+			} catch (NumberFormatException e) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
+			}
+			i++;
+		} while(i < n && lines.nextLine());
+		if(i < n) {
+			throw new InvalidFileFormatException("in file " + filename + " there are only " + i + " " + name + " instead of " + n);
+		}
+		return lineNo;
+	}
+	
+	/**
+	 * Reads an instance from a file. The file is mapped into memory and
+	 * parsed directly into primitive arrays. Binary files are detected by
+	 * their first bytes, all other files are read as text.
+	 * 
+	 * @param filename
+	 * 			name of the file to be read
+	 * @return the read instance or null, if an IO error occurs
+	 * @throws FileNotFoundException
+	 * 			if the given file was not found
+	 * @throws InvalidFileFormatException
+	 * 			if the given file has an invalid format
+	 */
+	public static SynmvInstance read(String filename) throws FileNotFoundException, InvalidFileFormatException {
+		try {
+			return read(map(filename), filename);
+		}
+		catch(FileNotFoundException e) {
+			throw e;
+		}
+		catch(IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
+	/**
+	 * Maps a file into memory. The mapping stays valid after the file has been closed.
+	 * 
+	 * @param filename
+	 * 			name of the file to be mapped
+	 * @return the buffer containing the whole file
+	 * @throws FileNotFoundException
+	 * 			if the given file was not found
+	 * @throws InvalidFileFormatException
+	 * 			if the given file is too large
+	 * @throws IOException
+	 * 			if an IO error occurs
+	 */
+	private static ByteBuffer map(String filename) throws FileNotFoundException, InvalidFileFormatException, IOException {
+		RandomAccessFile file = new RandomAccessFile(filename, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			if(channel.size() > Integer.MAX_VALUE) {
+				throw new InvalidFileFormatException("the file " + filename + " is larger than 2 GB");
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		finally {
+			file.close();
+		}
+	}
+	
+	/**
+	 * Reads all instances of a benchmark file in the format of Taillard. Every instance
+	 * consists of a text line, a line with the number of jobs, the number of machines,
+	 * the seed, the upper and the lower bound, another text line and the process times.
+	 * The times are given machine by machine, so every row belongs to a machine and every
+	 * column to a job. They are stored directly as times[j][i] without another text format.
+	 * 
+	 * @param filename
+	 * 			name of the file to be read
+	 * @return the read instances, which have no due dates, weights or schedules,
+	 * 			or null if an IO error occurs
+	 * @throws FileNotFoundException
+	 * 			if the given file was not found
+	 * @throws InvalidFileFormatException
+	 * 			if the given file has an invalid format
+	 */
+	public static SynmvInstance[] readTaillard(String filename) throws FileNotFoundException, InvalidFileFormatException {
+		Lines lines;
+		try {
+			lines = new Lines(map(filename));
+		}
+		catch(FileNotFoundException e) {
+			throw e;
+		}
+		catch(IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+		
+		ArrayList<SynmvInstance> instances = new ArrayList<SynmvInstance>();
+		int lineNo = 0;
+		while(lines.nextLine()) {
+			lineNo++;
+			//skip empty lines and the text lines before the numbers
+			if(!lines.startsWithDigit()) {
+				continue;
+			}
+			
+			int count = lines.countTokens();
+			if(count < 2 || count > 5) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + 
+						" there are " + count + " numbers instead of the number of jobs, the number of machines, " +
+						"the seed and the bounds");
+			}
+			int n;
+			int m;
+			float upperBound = -1;
+			float lowerBound = -1;
+			try {
+				n = lines.nextInt();
+				m = lines.nextInt();
+				if(count > 2) {
+					lines.nextToken(); //the seed is not needed
+				}
+				if(count > 3) {
+					upperBound = lines.nextFloat();
+				}
+				if(count > 4) {
+					lowerBound = lines.nextFloat();
+				}
+			} catch (NumberFormatException e) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
+			}
+			if(n < 1 || m < 1) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + 
+						" there must be at least one job and one machine");
+			}
+			
+			float[][] times = new float[n][m];
+			for(int i = 0; i < m; i++) {
+				//a row may be wrapped into several lines
+				int j = 0;
+				while(j < n) {
+					if(!lines.nextLine()) {
+						throw new InvalidFileFormatException("file " + filename + " ends before the process times of " +
+								"instance " + (instances.size()+1) + " are complete");
+					}
+					lineNo++;
+					if(lines.isEmpty() || (i == 0 && j == 0 && !lines.startsWithDigit())) {
+						continue;
+					}
+					
+					count = lines.countTokens();
+					if(j + count > n) {
+						throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + 
+								" there are " + (j + count) + " numbers instead of " + n);
+					}
+					for(int k = 0; k < count; k++, j++) {
+						try {
+							times[j][i] = lines.nextFloat();
+						} catch (NumberFormatException e) {
+							throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
+						}
+					}
+				}
+			}
+			
+			float[] duedates = new float[n];
+			float[] weights = new float[n];
+			Arrays.fill(duedates, -1.f);
+			Arrays.fill(weights, 1.f);
+			SynmvInstance instance = new SynmvInstance(m, times, duedates, weights, null, false, false);
+			instance.upperBound = upperBound;
+			instance.lowerBound = lowerBound;
+			instances.add(instance);
+		}
+		
+		if(instances.isEmpty()) {
+			throw new InvalidFileFormatException("the file " + filename + " contains no instance");
+		}
+		return instances.toArray(new SynmvInstance[instances.size()]);
+	}
+	
+	/**
+	 * Reads an instance from a buffer.
+	 * 
+	 * @param buf
+	 * 			the buffer containing the instance from index 0 to its limit
+	 * @param filename
+	 * 			name of the file the buffer belongs to, it is used in error messages
+	 * @return the read instance
+	 * @throws InvalidFileFormatException
+	 * 			if the buffer has an invalid format
+	 */
+	private static SynmvInstance read(ByteBuffer buf, String filename) throws InvalidFileFormatException {
+		if(isBinary(buf)) {
+			return readBinary(buf, filename);
+		}
+		
+		Lines lines = new Lines(buf);
+		boolean hasDuedates = false;
+		boolean hasWeights = false;
+		
+		//skip empty lines and comments
+		int lineNo = 0;
+		do {
+			lineNo++;
+			if(!lines.nextLine()) {
+				throw new InvalidFileFormatException("the file " + filename + " is empty");
+			}
+		} while(lines.isEmpty() || lines.isComment());
+		
+		//number of machines and jobs
+		if(lines.countTokens() != 2) {
+			throw new InvalidFileFormatException("first line of " + filename + " is invalid: " + lines.line());
+		}
+		
+		//read number of machines
+		int m;
+		try {
+			m = lines.nextInt();
+		} catch (NumberFormatException e) {
+			throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
+		}
+		
+		//read number of jobs
+		int n = 0;
+		try {
+			n = lines.nextInt();
+		} catch (NumberFormatException e) {
+			throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
+		}
+		float[][] times = new float[n][];
+		float[] duedates = new float[n];
+		float[] weights = new float[n];
+		Arrays.fill(duedates, -1.f);
+		Arrays.fill(weights, 1.f);
+		
+		int[] order = null; // null means default schedule
+		
+		//read process times
+		int i = 0;
+		while(i < n && lines.nextLine()) {
+			lineNo++;
+			
+			//look for schedule
+			if(i == 0 && lines.startsWith(SCHEDULE_INDICATOR)) {
+				lineNo++;
+				if(!lines.nextLine()) {
+					break;
+				}
+				order = readSchedule(lines, n, filename, lineNo);
+				continue;
+			}
+			
+			if(lines.isEmpty() || lines.isComment())
+				continue;
+			
+			float[] jobTimes = new float[m];
+			if(lines.nextFloats(jobTimes)) {
+				times[i] = jobTimes;
+				i++;
+				continue;
+			}
+			
+			int count = lines.countTokens();
+			if(count != m) {
+				throw new InvalidFileFormatException("in file " + filename + " in line " + 
+						lineNo + " there are " + count + " numbers instead of " + m);
+			}
+			for(int j = 0; j < m; j++) {
+				try {
+					jobTimes[j] = lines.nextFloat();
+				} catch (NumberFormatException e) {
+					throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + ": " + e.getMessage());
+				}
+			}
+			times[i] = jobTimes;
+			i++;
+		}
+		if(i < n) {
+			throw new InvalidFileFormatException(n + 
+					" jobs are required but " + filename + " contains only " + i);
+		}
+		
+		// look for additional information
+		while(lines.nextLine()) {
+			lineNo++;
+			
+			//look for schedule
+			if(lines.startsWith(SCHEDULE_INDICATOR)) {
+				if(order != null) {
+					throw new InvalidFileFormatException("in file " + filename + " in line " +
+							lineNo + " there is a second schedule indicator");
+				}
+				lineNo++;
+				if(!lines.nextLine()) {
+					throw new InvalidFileFormatException("file " + filename + " ends with schedule indicator");
+				}
+				order = readSchedule(lines, n, filename, lineNo);
+			}
+			//look for due dates
+			else if(lines.startsWith(DUEDATE_INDICATOR) || //either there is a due date indicator
+					(!hasDuedates && !hasWeights && //or neither due dates nor weights have been read yet
+					!lines.isEmpty() && !lines.isComment() && lines.countTokens() == 2)) {
+				
+				if(lines.startsWith(DUEDATE_INDICATOR)) {
+					if(!lines.nextLine()) {
+						throw new InvalidFileFormatException("file " + filename + " ends with due date indicator");
+					}
+				}
+				lineNo = readValues(lines, duedates, "due dates", filename, lineNo);
+				hasDuedates = true;
+			}
+			else if(lines.startsWith(WEIGHT_INDICATOR) || //either there is a weight indicator
+					(hasDuedates && !hasWeights && //or due dates have been read already and weights have not
+							!lines.isEmpty() && !lines.isComment() && lines.countTokens() == 2)) {
+				
+				if(lines.startsWith(WEIGHT_INDICATOR)) {
+					if(!lines.nextLine()) {
+						throw new InvalidFileFormatException("file " + filename + " ends with weight indicator");
+					}
+				}
+				lineNo = readValues(lines, weights, "weights", filename, lineNo);
+				hasWeights = true;
+			}
+			//empty or comment line
+			else if(lines.isEmpty() || lines.isComment()) {
+				continue;
+			}
+			else {
+				throw new InvalidFileFormatException("in file " + filename + " in line " + lineNo + 
+						" there is unknown information: " + lines.line());
+			}
+		}
+		
+		return new SynmvInstance(m, times, duedates, weights, order, hasDuedates, hasWeights);
+	}
+	
+	/**
+	 * Indicates whether a buffer starts with the magic bytes of the binary format.
+	 */
+	private static boolean isBinary(ByteBuffer buf) {
+		if(buf.limit() < BINARY_MAGIC.length) {
+			return false;
+		}
+		for(int b = 0; b < BINARY_MAGIC.length; b++) {
+			if(buf.get(b) != BINARY_MAGIC[b]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Reads an instance in the binary format. It consists of little-endian values:
+	 * <ul>
+	 * <li>the header: the magic bytes SYNB and the ints version, m, n and flags</li>
+	 * <li>the n * m process times as floats, job after job</li>
+	 * <li>the n due dates as floats, if flags contains 1</li>
+	 * <li>the n weights as floats, if flags contains 2</li>
+	 * <li>the schedule as n ints, the job indices starting with 0, if flags contains 4</li>
+	 * </ul>
+	 * The arrays are copied in bulk without parsing any value.
+	 * 
+	 * @param buf
+	 * 			the buffer containing the instance from index 0 to its limit
+	 * @param filename
+	 * 			name of the file the buffer belongs to, it is used in error messages
+	 * @return the read instance
+	 * @throws InvalidFileFormatException
+	 * 			if the buffer has an invalid format
+	 */
+	private static SynmvInstance readBinary(ByteBuffer buf, String filename) throws InvalidFileFormatException {
+		buf.order(ByteOrder.LITTLE_ENDIAN);
+		if(buf.limit() < BINARY_HEADER) {
+			throw new InvalidFileFormatException("the binary file " + filename + " is too short for its header");
+		}
+		int version = buf.getInt(4);
+		if(version != BINARY_VERSION) {
+			throw new InvalidFileFormatException("the binary file " + filename + " has the unknown version " + version);
+		}
+		int m = buf.getInt(8);
+		int n = buf.getInt(12);
+		int flags = buf.getInt(16);
+		if(m < 0 || n < 0) {
+			throw new InvalidFileFormatException("the binary file " + filename + " has " + m + " machines and " + n + " jobs");
+		}
+		
+		long arrays = (long)n * m;
+		for(int flag : new int[]{BINARY_DUEDATES, BINARY_WEIGHTS, BINARY_SCHEDULE}) {
+			if((flags & flag) != 0) {
+				arrays += n;
+			}
+		}
+		long size = BINARY_HEADER + 4 * arrays;
+		if(buf.limit() != size) {
+			throw new InvalidFileFormatException("the binary file " + filename + " has " + buf.limit() + 
+					" bytes, but its header requires " + size);
+		}
+		
+		buf.position(BINARY_HEADER);
+		FloatBuffer floats = buf.asFloatBuffer();
+		float[][] times = new float[n][m];
+		for(float[] jobTimes : times) {
+			floats.get(jobTimes);
+		}
+		
+		float[] duedates = new float[n];
+		if((flags & BINARY_DUEDATES) != 0) {
+			floats.get(duedates);
+		}
+		else {
+			Arrays.fill(duedates, -1.f);
+		}
+		
+		float[] weights = new float[n];
+		if((flags & BINARY_WEIGHTS) != 0) {
+			floats.get(weights);
+		}
+		else {
+			Arrays.fill(weights, 1.f);
+		}
+		
+		int[] order = null;
+		if((flags & BINARY_SCHEDULE) != 0) {
+			buf.position(BINARY_HEADER + 4 * floats.position());
+			order = new int[n];
+			buf.asIntBuffer().get(order);
+			boolean[] contained = new boolean[n];
+			for(int j : order) {
+				if(j < 0 || j >= n || contained[j]) {
+					throw new InvalidFileFormatException("the schedule of the binary file " + filename + 
+							" is no permutation of the jobs");
+				}
+				contained[j] = true;
+			}
+		}
+		
+		return new SynmvInstance(m, times, duedates, weights, order, 
+				(flags & BINARY_DUEDATES) != 0, (flags & BINARY_WEIGHTS) != 0);
+	}
+	
+	/**
+	 * Stores this instance in a file that can be read again by read().
+	 * 
+	 * @param filename
+	 * 			name of the file the instance shall be stored in
+	 * @param binary
+	 * 			true for the binary format, false for the text format
+	 * @throws IOException
+	 * 			if an IO error occurs
+	 */
+	public void write(String filename, boolean binary) throws IOException {
+		if(binary) {
+			writeBinary(filename);
+		}
+		else {
+			writeText(filename);
+		}
+	}
+	
+	private void writeText(String filename) throws IOException {
+		BufferedWriter writer = new BufferedWriter(new FileWriter(filename));
+		
+		//write m n
+		writer.write(machineCount + " " + times.length);
+		writer.newLine();
+		
+		//write process times
+		for(float[] jobTimes : times) {
+			for(float time : jobTimes) {
+				writer.write(time + " ");
+			}
+			writer.newLine();
+		}
+		
+		//write due dates
+		if(hasDuedates) {
+			writer.newLine();
+			writer.write(DUEDATE_INDICATOR);
+			writer.newLine();
+			for(int j = 0; j < times.length; j++) {
+				writer.write((j+1) + " " + duedates[j]);
+				writer.newLine();
+			}
+		}
+		
+		//write weights
+		if(hasWeights) {
+			writer.newLine();
+			writer.write(WEIGHT_INDICATOR);
+			writer.newLine();
+			for(int j = 0; j < times.length; j++) {
+				writer.write((j+1) + " " + weights[j]);
+				writer.newLine();
+			}
+		}
+		
+		
+		//write schedule
+		writer.newLine();
+		writer.write(SCHEDULE_INDICATOR);
+		writer.newLine();
+		writer.write("# ");
+		for(int j : getOrderOrDefault()) {
+			writer.write((j+1) + " ");
+		}
+		
+		writer.close();
+	}
+	
+	private void writeBinary(String filename) throws IOException {
+		FileChannel channel = new FileOutputStream(filename).getChannel();
+		try {
+			ByteBuffer buf = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			buf.put(BINARY_MAGIC);
+			buf.putInt(BINARY_VERSION);
+			buf.putInt(machineCount);
+			buf.putInt(times.length);
+			buf.putInt((hasDuedates ? BINARY_DUEDATES : 0) | (hasWeights ? BINARY_WEIGHTS : 0) | BINARY_SCHEDULE);
+			
+			for(float[] jobTimes : times) {
+				for(float time : jobTimes) {
+					flushIfFull(channel, buf);
+					buf.putFloat(time);
+				}
+			}
+			if(hasDuedates) {
+				for(float duedate : duedates) {
+					flushIfFull(channel, buf);
+					buf.putFloat(duedate);
+				}
+			}
+			if(hasWeights) {
+				for(float weight : weights) {
+					flushIfFull(channel, buf);
+					buf.putFloat(weight);
+				}
+			}
+			for(int j : getOrderOrDefault()) {
+				flushIfFull(channel, buf);
+				buf.putInt(j);
+			}
+			
+			buf.flip();
+			while(buf.hasRemaining()) {
+				channel.write(buf);
+			}
+		}
+		finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Writes a buffer to a channel and clears it, if it has no room for another value.
+	 */
+	private static void flushIfFull(FileChannel channel, ByteBuffer buf) throws IOException {
+		if(buf.remaining() < 4) {
+			buf.flip();
+			while(buf.hasRemaining()) {
+				channel.write(buf);
+			}
+			buf.clear();
+		}
+	}
+}
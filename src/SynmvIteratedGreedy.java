@@ -0,0 +1,420 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class implements the iterated greedy algorithm of Ruiz and Stuetzle.
+ * A schedule is improved by repeatedly removing some random jobs, inserting
+ * them again one after another at their best positions and applying an
+ * insertion local search. Worse schedules are accepted with a probability
+ * that depends on a constant temperature.
+ * <p>
+ * Several independent chains with different seeds run on a ForkJoinPool,
+ * one per core, until the time budget is used up. The best schedule of all
+ * chains is the result. Every variant and objective is supported, for the
+ * makespan the insertions are evaluated by a SynmvInsertion in O(m).
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvIteratedGreedy {
+
+	/**
+	 * The number of jobs that are removed in every iteration.
+	 */
+	private static final int DESTRUCTION = 4;
+
+	/**
+	 * The factor of the temperature, which is TEMPERATURE times the mean process time
+	 * divided by 10, as proposed by Ruiz and Stuetzle.
+	 */
+	private static final float TEMPERATURE = 0.4f;
+
+	/**
+	 * The process times, times[j][i] is the time job j needs on machine i.
+	 */
+	private final float[][] times;
+
+	/**
+	 * The due dates, duedates[j] is the due date of job j.
+	 */
+	private final float[] duedates;
+
+	/**
+	 * The weights, weights[j] is the weight of job j, or null if all weights are 1.
+	 */
+	private final float[] weights;
+
+	/**
+	 * The variant the schedules are evaluated for.
+	 */
+	private final SynmvJob.Variant variant;
+
+	/**
+	 * The flag of the objective to be minimized.
+	 */
+	private final int objective;
+
+	/**
+	 * The no-wait delays shared by all chains or null.
+	 */
+	private final SynmvNoWaitDelays delays;
+
+	/**
+	 * The temperature of the acceptance criterion.
+	 */
+	private final float temperature;
+
+	/**
+	 * The time in milliseconds (System.currentTimeMillis()) the chains stop at.
+	 */
+	private volatile long deadline;
+
+	/**
+	 * true, when the search has been cancelled.
+	 */
+	private volatile boolean cancelled = false;
+
+	/**
+	 * The value of the best schedule found by the last call of solve().
+	 */
+	private float resultValue;
+
+	/**
+	 * The value of the best schedule any chain of the running search has found so far.
+	 */
+	private volatile float incumbent = Float.POSITIVE_INFINITY;
+
+	/**
+	 * One chain of the iterated greedy algorithm. It stores the best schedule
+	 * it has found and its value.
+	 */
+	@SuppressWarnings("serial")
+	private class Chain extends RecursiveAction {
+		/**
+		 * The random numbers of this chain.
+		 */
+		private final Random random;
+
+		/**
+		 * The schedule that is destructed, reconstructed and improved.
+		 */
+		private final int[] sequence;
+
+		/**
+		 * The schedule that has been accepted last.
+		 */
+		private final int[] current;
+
+		/**
+		 * The best schedule this chain has found.
+		 */
+		private final int[] best;
+
+		/**
+		 * The jobs removed by the destruction.
+		 */
+		private final int[] removed = new int[DESTRUCTION];
+
+		/**
+		 * The evaluator of sequence.
+		 */
+		private final SynmvEvaluator evaluator;
+
+		/**
+		 * The objectives of sequence.
+		 */
+		private final SynmvObjectives objectives = new SynmvObjectives();
+
+		/**
+		 * The insertion that finds the best positions for the makespan or null for the other objectives.
+		 */
+		private final SynmvInsertion insertion;
+
+		/**
+		 * The number of jobs currently in sequence.
+		 */
+		private int length;
+
+		/**
+		 * The first position of sequence that has changed since its last evaluation.
+		 */
+		private int changedFrom = 0;
+
+		/**
+		 * The value of best.
+		 */
+		private float bestValue;
+
+		public Chain(int[] initial, long seed) {
+			this.random = new Random(seed);
+			this.sequence = initial.clone();
+			this.current = initial.clone();
+			this.best = initial.clone();
+			this.length = initial.length;
+			this.evaluator = new SynmvEvaluator(times, sequence);
+			this.evaluator.setNoWaitDelays(delays);
+			this.insertion = objective == SynmvObjectives.CMAX ? new SynmvInsertion(times, variant) : null;
+		}
+
+		@Override
+		protected void compute() {
+			int n = sequence.length;
+			float value = value();
+			bestValue = value;
+			offer(value);
+			if(n < 2) {
+				return;
+			}
+
+			while(!isStopped()) {
+				//destruction
+				int d = Math.min(DESTRUCTION, n-1);
+				for(int r = 0; r < d; r++) {
+					removed[r] = remove(random.nextInt(length));
+				}
+
+				//reconstruction
+				for(int r = 0; r < d; r++) {
+					insertBest(removed[r]);
+				}
+
+				float candidate = localSearch(value());
+				if(candidate < value || random.nextFloat() < Math.exp(-(candidate - value) / temperature)) {
+					value = candidate;
+					System.arraycopy(sequence, 0, current, 0, n);
+					if(value < bestValue) {
+						bestValue = value;
+						System.arraycopy(sequence, 0, best, 0, n);
+						offer(value);
+					}
+				}
+				else {
+					System.arraycopy(current, 0, sequence, 0, n);
+					changedFrom = 0;
+				}
+			}
+		}
+
+		/**
+		 * Moves every job to its best position in random order,
+		 * until no job can be improved any more.
+		 *
+		 * @param value
+		 * 			the value of the current sequence
+		 * @return the value of the improved sequence
+		 */
+		private float localSearch(float value) {
+			int n = sequence.length;
+			int[] order = sequence.clone();
+			boolean improved = true;
+			while(improved && !isStopped()) {
+				improved = false;
+				for(int r = n-1; r > 0; r--) {
+					int s = random.nextInt(r+1);
+					int tmp = order[r];
+					order[r] = order[s];
+					order[s] = tmp;
+				}
+
+				for(int job : order) {
+					if(isStopped()) {
+						break;
+					}
+					int p = 0;
+					while(sequence[p] != job) {
+						p++;
+					}
+					remove(p);
+					float v = insertBest(job);
+					if(v < value) {
+						value = v;
+						improved = true;
+					}
+				}
+			}
+			return value;
+		}
+
+		/**
+		 * Evaluates the jobs currently in sequence.
+		 *
+		 * @return the value of the objective
+		 */
+		private float value() {
+			if(evaluator.getLength() != length) {
+				evaluator.setLength(length);
+			}
+			evaluator.evaluate(variant, changedFrom);
+			changedFrom = Integer.MAX_VALUE;
+			objectives.calculate(evaluator, duedates, weights, objective);
+			return objectives.get(objective);
+		}
+
+		private int remove(int position) {
+			int job = sequence[position];
+			System.arraycopy(sequence, position+1, sequence, position, length-position-1);
+			length--;
+			changedFrom = Math.min(changedFrom, position);
+			return job;
+		}
+
+		private void insert(int job, int position) {
+			System.arraycopy(sequence, position, sequence, position+1, length-position);
+			sequence[position] = job;
+			length++;
+			changedFrom = Math.min(changedFrom, position);
+		}
+
+		/**
+		 * Inserts a job at the position with the best value. Ties are broken
+		 * by the first position.
+		 *
+		 * @param job
+		 * 			the index of the job
+		 * @return the value of the sequence after the insertion
+		 */
+		private float insertBest(int job) {
+			if(insertion != null) {
+				insertion.setSequence(sequence, length);
+				int k = insertion.getBestPosition(job);
+				float c = insertion.evaluate(job, k);
+				insert(job, k);
+				return c;
+			}
+
+			//move the job from the end to the front and evaluate every position on the way
+			insert(job, length);
+			float bestInsertion = value();
+			int bestPosition = length-1;
+			for(int k = length-2; k >= 0; k--) {
+				sequence[k+1] = sequence[k];
+				sequence[k] = job;
+				changedFrom = Math.min(changedFrom, k);
+				float v = value();
+				if(v <= bestInsertion) {
+					bestInsertion = v;
+					bestPosition = k;
+				}
+			}
+			System.arraycopy(sequence, 1, sequence, 0, bestPosition);
+			sequence[bestPosition] = job;
+			changedFrom = 0;
+			return bestInsertion;
+		}
+	}
+
+	/**
+	 * Creates a new SynmvIteratedGreedy. The arrays are not copied,
+	 * so they must not be changed while solve() runs.
+	 *
+	 * @param times
+	 * 			the process times, times[j][i] is the time job j needs on machine i
+	 * @param duedates
+	 * 			the due dates, duedates[j] is the due date of job j
+	 * @param weights
+	 * 			the weights, weights[j] is the weight of job j, or null if all weights are 1
+	 * @param variant
+	 * 			the variant the schedules are evaluated for
+	 * @param objective
+	 * 			the flag of the objective to be minimized, e.g. SynmvObjectives.CMAX
+	 */
+	public SynmvIteratedGreedy(float[][] times, float[] duedates, float[] weights, SynmvJob.Variant variant, int objective) {
+		this.times = times;
+		this.duedates = duedates;
+		this.weights = weights;
+		this.variant = variant;
+		this.objective = objective;
+		this.delays = variant == SynmvJob.Variant.noWait && SynmvNoWaitDelays.fits(times.length)
+				? new SynmvNoWaitDelays(times) : null;
+
+		float total = 0;
+		int count = 0;
+		for(float[] t : times) {
+			for(float time : t) {
+				total += time;
+				count++;
+			}
+		}
+		this.temperature = count == 0 ? 1 : Math.max(Float.MIN_VALUE, TEMPERATURE * total / count / 10);
+	}
+
+	/**
+	 * Improves a schedule until the time budget is used up or the search is cancelled.
+	 *
+	 * @param initial
+	 * 			the schedule every chain starts with
+	 * @param millis
+	 * 			the time budget in milliseconds
+	 * @param seed
+	 * 			the seed of the first chain, the others get the following ones
+	 * @return the best schedule found
+	 */
+	public int[] solve(int[] initial, long millis, long seed) {
+		deadline = System.currentTimeMillis() + millis;
+		incumbent = Float.POSITIVE_INFINITY;
+
+		ForkJoinPool pool = new ForkJoinPool();
+		final Chain[] chains = new Chain[pool.getParallelism()];
+		for(int c = 0; c < chains.length; c++) {
+			chains[c] = new Chain(initial, seed + c);
+		}
+		try {
+			pool.invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+				@Override
+				protected void compute() {
+					invokeAll(chains);
+				}
+			});
+		}
+		finally {
+			pool.shutdown();
+		}
+
+		Chain best = chains[0];
+		for(Chain chain : chains) {
+			if(chain.bestValue < best.bestValue) {
+				best = chain;
+			}
+		}
+		resultValue = best.bestValue;
+		return best.best;
+	}
+
+	/**
+	 *
+	 * @return the value of the best schedule found by the last call of solve()
+	 */
+	public float getBestValue() {
+		return resultValue;
+	}
+
+	/**
+	 *
+	 * @return the value of the best schedule the running search has found so far
+	 */
+	public float getIncumbent() {
+		return incumbent;
+	}
+
+	/**
+	 * Lets the value of a chain's new best schedule become the incumbent, if it is better.
+	 */
+	private synchronized void offer(float value) {
+		if(value < incumbent) {
+			incumbent = value;
+		}
+	}
+
+	/**
+	 * Stops a running search. solve() returns the best schedule found so far.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	private boolean isStopped() {
+		return cancelled || System.currentTimeMillis() >= deadline;
+	}
+}
@@ -1,15 +1,8 @@
 import java.awt.Color;
-import java.awt.Cursor;
-import java.awt.FontMetrics;
 import java.awt.GridLayout;
-import java.awt.Point;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.event.MouseEvent;
-import java.awt.event.MouseListener;
-import java.awt.event.MouseMotionListener;
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.BitSet;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -17,17 +10,14 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
-import javax.swing.SwingConstants;
-import javax.swing.border.LineBorder;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
-import javax.swing.text.BadLocationException;
+import javax.swing.Timer;
 
 
 /**
  * This class represents one job.
- * It contains the java.swing components that are used to display the job 
+ * It contains the info box that is used to display the job's details
  * as well as the internal logic that is used to calculate e.g. the positions.
+ * The job itself is painted by the SynmvCanvas.
  * 
  * @author sebrockm
  *
@@ -47,14 +37,9 @@ public class SynmvJob {
 	}
 
 	/**
-	 * Deque that stores all done actions to be able to undo them.
+	 * The history of all done actions to be able to undo and redo them.
 	 */
-	public static final Deque<SynmvJobAction> actionList = new LinkedList<SynmvJobAction>();
-	
-	/**
-	 * Deque that stores all undone actions to be able to redo them.
-	 */
-	public static final Deque<SynmvJobAction> undoneActionList = new LinkedList<SynmvJobAction>();
+	public static final SynmvHistory history = new SynmvHistory();
 	
 	/**
 	 * References the chosen instance or null if none is chosen.
@@ -127,6 +112,38 @@ public class SynmvJob {
 	 */
 	public static Runnable callback;
 	
+	/**
+	 * The first position in the schedule that has changed since the
+	 * callback has calculated the offsets the last time.
+	 */
+	private static int firstChangedPosition = 0;
+	
+	/**
+	 * The number of currently open transactions.
+	 */
+	private static int transactionDepth = 0;
+	
+	/**
+	 * true, when the callback has been requested within the current transaction.
+	 */
+	private static boolean callbackPending = false;
+	
+	/**
+	 * The time in milliseconds requested callbacks are collected for.
+	 */
+	private static final int FRAME_MILLIS = 16;
+	
+	/**
+	 * Timer that runs the callback requested by requestCallback() or null, if
+	 * there has not been any request yet.
+	 */
+	private static Timer frameTimer = null;
+	
+	/**
+	 * The indices (id-1) of the jobs whose times have changed since the last callback.
+	 */
+	private static final BitSet changedTimes = new BitSet();
+	
 	
 	/**
 	 * The job's id.
@@ -155,132 +172,207 @@ public class SynmvJob {
 	private final JPanel parent;
 	
 	/**
-	 * An array of JLabels each graphically representing one process time.
-	 */
-	private final JLabel[] slots;
-	
-	/**
-	 * JTextFields that are placed on the slots to enter a new process time.
+	 * The color the job is painted with.
 	 */
-	private final JTextField[] textFields;
-	
-	/**
-	 * A JLabel showing the number (position) in the current schedule.
-	 * It is displayed right above the first slot.
-	 */
-	private final JLabel number = new JLabel();
+	private Color color = Color.GRAY;
 	
 	/**
 	 * An info box that appears on double click on a job.
+	 * It and its components are created when it is shown for the first time,
+	 * so they are null until then.
 	 */
-	private final JFrame infobox = new JFrame("info");
-	
-	/**
-	 * A JLabel displaying the job's id in the info box.
-	 */
-	private final JLabel idLabel = new JLabel();
+	private JFrame infobox = null;
 	
 	/**
 	 * A JTextField used to display the job's current position in the info box.
 	 * It can be used to enter a new position the job shall shift to or swap with.
 	 */
-	private final JTextField cycleField = new JTextField();
+	private JTextField cycleField;
 	
 	/**
 	 * JTextFields that display the job's process times in the info box.
 	 * They also allow the user to change those times by entering new ones.
 	 */
-	private final JTextField[] infoTimeFields;
+	private JTextField[] infoTimeFields;
 	
 	/**
 	 * A JLabel in the info box that displays the current start time of the job.
 	 */
-	private final JLabel startTimeLabel = new JLabel();
+	private JLabel startTimeLabel;
 	
 	/**
 	 * A JLabel in the info box that displays the current time the job will be done.
 	 */
-	private final JLabel endTimeLabel = new JLabel();
+	private JLabel endTimeLabel;
 	
 	/**
 	 * A JTextField in the info box that displays the due date of the job or
 	 * '-' if it does not have one. It can be used to enter a new due date.
 	 */
-	private final JTextField duedateField = new JTextField();
+	private JTextField duedateField;
 	
 	/**
 	 * A JTextField in the info box that displays the weight of the job or
 	 * '1' if it does not have one. It can be used to enter a new weight.
 	 */
-	private final JTextField weightField = new JTextField();
+	private JTextField weightField;
 	
 	/**
-	 * A reference to the job's predecessor in the current schedule or null if
-	 * this job is the first one.
+	 * The schedule this job belongs to or null, if it has not been scheduled yet.
 	 */
-	private SynmvJob pred;
+	private SynmvSchedule schedule = null;
 	
 	/**
-	 * A reference to the job's follower in the current schedule or null if
-	 * this job is the last one.
+	 * save already calculated offsets
 	 */
-	private SynmvJob next;
+	private final float[] offsets;
 	
 	/**
-	 * true, when the job is being moved and the mouse button is still pressed.
+	 * The epochs the offsets have been calculated in. offsets[i] is valid, if
+	 * offsetEpochs[i] equals the current epoch, or the previous one and the offset
+	 * does not depend on the jobs from keptBefore onward.
 	 */
-	private boolean mouseHold = false;
+	private final int[] offsetEpochs;
 	
 	/**
-	 * true, when one job is being resized by mouse motion right now.
+	 * The lengths of the synchronous cycles of the current schedule.
+	 * The operations of the jobs at position p on machine i with p + i = d
+	 * take part in cycle d.
 	 */
-	private static boolean beingResized = false;
+	private static float[] cycles = new float[0];
 	
 	/**
-	 * save already calculated offsets
+	 * The schedule the cycles belong to.
+	 */
+	private static SynmvSchedule cyclesSchedule = null;
+	
+	/**
+	 * The first cycle that has to be calculated again, because the schedule
+	 * has changed since.
+	 */
+	private static int firstChangedCycle = 0;
+	
+	/**
+	 * The current schedule epoch. It starts with 1, so that the initial
+	 * offsetEpochs of 0 mark all offsets as not calculated yet.
+	 */
+	private static int epoch = 1;
+	
+	/**
+	 * The first position whose offsets of the previous epoch are not valid any more,
+	 * because the schedule has changed there since.
+	 */
+	private static int keptBefore = 0;
+	
+	/**
+	 * true, if offsets have been stored in the current epoch.
 	 */
-	private Float[] offsets;
+	private static boolean storedInEpoch = false;
 
 	/**
-	 * Deletes old offsets so that they have to be calculated again.
+	 * Deletes the old offsets of all jobs at once by starting a new epoch.
 	 */
-	public void deleteOldOffsets() {
+	public static void deleteAllOldOffsets() {
+		deleteOldOffsets(0);
+	}
+	
+	/**
+	 * Deletes the old offsets of the jobs from a position onward by starting a new epoch,
+	 * in which the offsets of the previous epoch before that position stay valid.
+	 * If no offsets have been stored in the current epoch, it is continued instead,
+	 * so that the offsets of the previous one stay valid before the smaller position.
+	 * 
+	 * @param position
+	 * 			the first position whose offsets are deleted
+	 */
+	private static void deleteOldOffsets(int position) {
+		if(storedInEpoch) {
+			epoch++;
+			keptBefore = Math.max(0, position);
+			storedInEpoch = false;
+		}
+		else {
+			keptBefore = Math.max(0, Math.min(keptBefore, position));
+		}
+	}
+	
+	/**
+	 * 
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @return true, if the stored offset on a machine is valid
+	 */
+	private boolean hasOffset(int machine) {
+		if(offsetEpochs[machine] == epoch) {
+			return true;
+		}
+		if(offsetEpochs[machine] != epoch-1) {
+			return false;
+		}
+		//a synchronous offset is the sum of the cycles before, and the jobs at keptBefore and later take part in cycle keptBefore
+		int last = variant == Variant.synchronous ? getPosition() + machine : getPosition();
+		return last < keptBefore;
+	}
+	
+	/**
+	 * Stores an offset that is valid in the current epoch.
+	 * 
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @param offset
+	 * 			the offset of this job on that machine
+	 * @return the offset
+	 */
+	private float storeOffset(int machine, float offset) {
+		offsets[machine] = offset;
+		offsetEpochs[machine] = epoch;
+		storedInEpoch = true;
+		return offset;
+	}
+	
+	/**
+	 * Stores the offsets a SynmvEvaluator has calculated for this job,
+	 * so that they do not have to be calculated again.
+	 * 
+	 * @param evaluator
+	 * 			the evaluator that has evaluated the current schedule
+	 * @param position
+	 * 			this job's position in the current schedule starting with 0
+	 */
+	public void setOffsets(SynmvEvaluator evaluator, int position) {
 		for(int i = 0; i < offsets.length; i++) {
-			offsets[i] = null;
+			storeOffset(i, evaluator.getOffset(position, i));
 		}
 	}
 	
 	/**
 	 * Calculates the the time this job will be on a machine in the current
 	 * schedule depending on the predecessors' and followers' times on their
-	 * machines.
+	 * machines. That is the length of the synchronous cycle the job takes part
+	 * in on that machine. The cycle lengths are calculated once for the whole
+	 * schedule and shared by all jobs until it changes.
 	 * 
 	 * @param machine
 	 *            the machine number starting with 0
 	 * @return the cycle time of this job on a machine in the current schedule
 	 */
 	private float maxLen(int machine) {
-		//search first relevant
-		SynmvJob tmp = this;
-		int futurePos;
-		for(futurePos = 0; futurePos < machine; futurePos++) {
-			if(tmp.next == null) {
-				break;
-			}
-			tmp = tmp.next;
+		if(schedule == null) {
+			return Math.max(0, times[machine]);
 		}
-	
-		//find max
-		float len = 0;
-		for(int i = machine-futurePos; i < times.length; i++) {
-			len = Math.max(len, tmp.getTime(i));
-			if(tmp.pred == null) {
-				break;
-			}
-			tmp = tmp.pred;
+		
+		int count = schedule.size() + times.length - 1;
+		if(schedule != cyclesSchedule || cycles.length != count) {
+			cyclesSchedule = schedule;
+			cycles = new float[count];
+			firstChangedCycle = 0;
+		}
+		if(firstChangedCycle < count) {
+			SynmvEvaluator.calculateCycles(schedule.getTimes(), schedule.getOrder(), firstChangedCycle, cycles);
+			firstChangedCycle = Integer.MAX_VALUE;
 		}
 		
-		return len;
+		return cycles[getPosition() + machine];
 	}
 	
 	/**
@@ -298,55 +390,103 @@ public class SynmvJob {
 			throw new IllegalArgumentException("'machine' must be in [0,getMachineCount()[");
 		}
 		
-		if(offsets[machine] != null) { //offset has already been calculated
+		if(hasOffset(machine)) { //offset has already been calculated
 			return offsets[machine];
 		}
 		
+		//find the first job whose offsets have to be calculated
+		SynmvJob first = this;
+		while(first.getPred() != null && !first.getPred().hasOffsets()) {
+			first = first.getPred();
+		}
+		
+		//calculate them in schedule order, so that the predecessors' offsets are always known
+		for(SynmvJob tmp = first; tmp != this; tmp = tmp.getNext()) {
+			tmp.calculateOffsets();
+		}
+		calculateOffsets();
+		
+		return offsets[machine];
+	}
+	
+	/**
+	 * 
+	 * @return true, if all offsets of this job are valid
+	 */
+	private boolean hasOffsets() {
+		for(int i = 0; i < offsetEpochs.length; i++) {
+			if(!hasOffset(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Calculates and stores the offsets of this job on all machines.
+	 * The predecessor's offsets must have been calculated already.
+	 */
+	private void calculateOffsets() {
+		for(int i = 0; i < offsets.length; i++) {
+			storeOffset(i, calculateOffset(i));
+		}
+	}
+	
+	/**
+	 * Calculates the offset of this job on a machine from the predecessor's
+	 * offsets and this job's offsets on the previous machines.
+	 * 
+	 * @param machine
+	 * 			the machine number starting with 0
+	 * @return the offset of this job on a machine
+	 */
+	private float calculateOffset(int machine) {
+		SynmvJob pred = getPred();
 		switch(SynmvJob.variant) {
 		case synchronous:
 			if(pred == null) {
 				if(machine == 0) {
-					return offsets[machine] = 0.f;
+					return 0.f;
 				}
-				return offsets[machine] = getOffset(machine-1) + maxLen(machine-1);
+				return getOffset(machine-1) + maxLen(machine-1);
 			}
-			return offsets[machine] = pred.getOffset(machine) + pred.maxLen(machine);
+			return pred.getOffset(machine) + pred.maxLen(machine);
 			
 		case asynchronous:
 			if(pred == null && machine == 0) {
-				return offsets[machine] = 0.f;
+				return 0.f;
 			}
 			if(pred == null) {
-				return offsets[machine] = getOffset(machine-1) + getTime(machine-1);
+				return getOffset(machine-1) + getTime(machine-1);
 			}
 			if(machine == 0) {
-				return offsets[machine] = pred.getOffset(machine) + pred.getTime(machine);
+				return pred.getOffset(machine) + pred.getTime(machine);
 			}
-			return offsets[machine] = Math.max(getOffset(machine-1) + getTime(machine-1), pred.getOffset(machine) + pred.getTime(machine));
+			return Math.max(getOffset(machine-1) + getTime(machine-1), pred.getOffset(machine) + pred.getTime(machine));
 			
 		case noWait:
 			if(machine == 0) {
-				return offsets[machine] = getNoWaitOffset();
+				return getNoWaitOffset();
 			}
-			return offsets[machine] = getOffset(machine-1) + getTime(machine-1);
+			return getOffset(machine-1) + getTime(machine-1);
 			
 		case blocking:
 			if(pred == null) {
 				if(machine == 0) {
-					return offsets[machine] = 0.f;
+					return 0.f;
 				}
-				return offsets[machine] = getOffset(machine-1) + getTime(machine-1);
+				return getOffset(machine-1) + getTime(machine-1);
 			}
 			if(machine == getMachineCount() - 1) {
 				if(machine == 0) {
-					return offsets[machine] = pred.getOffset(0) + pred.getTime(0);
+					return pred.getOffset(0) + pred.getTime(0);
 				}
-				return offsets[machine] = Math.max(pred.getOffset(machine) + pred.getTime(machine), getOffset(machine-1) + getTime(machine-1));
+				return Math.max(pred.getOffset(machine) + pred.getTime(machine), getOffset(machine-1) + getTime(machine-1));
 			}
 			if(machine == 0) {
-				return offsets[machine] = pred.getOffset(1);
+				return pred.getOffset(1);
 			}
-			return offsets[machine] = Math.max(pred.getOffset(machine+1), getOffset(machine-1) + getTime(machine-1));
+			return Math.max(pred.getOffset(machine+1), getOffset(machine-1) + getTime(machine-1));
 
 		default:
 			throw new RuntimeException("unknown variant, this cannot happen...");
@@ -358,20 +498,12 @@ public class SynmvJob {
 	 * @return no-wait offset
 	 */
 	private float getNoWaitOffset() {
+		SynmvJob pred = getPred();
 		if(pred == null) {
 			return 0;
 		}
 		
-		float predSum = pred.getTime(0);
-		float thisSum = 0;
-		float offset = predSum;
-		for(int i = 1; i < getMachineCount(); i++) {
-			predSum += pred.getTime(i);
-			thisSum += getTime(i-1);
-			offset = Math.max(offset, predSum - thisSum);
-		}
-		
-		return offset + pred.getNoWaitOffset();
+		return SynmvEvaluator.noWaitDelay(pred.times, times) + pred.getOffset(0);
 	}
 	
 	/**
@@ -379,40 +511,27 @@ public class SynmvJob {
 	 * @return the number of machines the job will be processed on
 	 */
 	public int getMachineCount() {
-		return slots.length;
+		return times.length;
 	}
 	
 	/**
-	 * This method sets the locations, sizes and texts (if any) 
-	 * of all visible components of this job.
-	 * It also actualizes the info box, if it is visible, and it resizes
-	 * the parent container if necessary.
+	 * This method actualizes the info box, if it is visible.
+	 * It is called every time the schedule has been evaluated again.
 	 */
-	public void setLocations() {
-		for(int i = 0; i < slots.length; i++) {
-			slots[i].setSize(Math.max(10, (int)Math.ceil(factor * getTime(i))), HEIGHT);	
-			slots[i].setLocation(xOffset+(int)(factor * getOffset(i)), yOffset+i*HEIGHT);
-			
-			int y = (slots[i].getSize().height - textFields[i].getSize().height) / 2;
-			int x = (slots[i].getWidth() - textFields[i].getWidth()) / 2;
-			textFields[i].setLocation(x, y);
-		}
-			
-		number.setSize(slots[0].getSize());
-		Point loc = slots[0].getLocation();
-		loc.y -= number.getSize().height;
-		number.setLocation(loc);
-		number.setText("" + (countPredecessors()+1));
-	
-		if(infobox.isVisible()) {
+	public void updateInfobox() {
+		if(infobox != null && infobox.isVisible()) {
 			showInfobox();
 		}
-		
-		//size of parent depends on last job
-		if(next == null) {
-			parent.setSize(slots[slots.length-1].getSize().width + slots[slots.length-1].getLocation().x, 
-					slots.length * HEIGHT + yOffset);
-			parent.setPreferredSize(parent.getSize());
+	}
+	
+	/**
+	 * Disposes the info box, if it has been created. This releases its
+	 * resources when the job is not displayed any more.
+	 */
+	public void disposeInfobox() {
+		if(infobox != null) {
+			infobox.dispose();
+			infobox = null;
 		}
 	}
 
@@ -427,6 +546,30 @@ public class SynmvJob {
 		return times[machine];
 	}
 	
+	/**
+	 * Returns the array of process times itself, not a copy.
+	 * Changes made to the times by the user are visible through it.
+	 * 
+	 * @return the process times, times[0] belongs to machine 1 etc.
+	 */
+	float[] getTimes() {
+		return times;
+	}
+	
+	/**
+	 * Sets the process time of this job on a machine and marks it as changed.
+	 * The callback is not invoked.
+	 * 
+	 * @param machine
+	 * 			machine index beginning with 0
+	 * @param time
+	 * 			the new process time
+	 */
+	public void setTime(int machine, float time) {
+		times[machine] = time;
+		markTimesChanged();
+	}
+	
 	/**
 	 * Creates a new SynmvJob without due date.
 	 * 
@@ -442,278 +585,24 @@ public class SynmvJob {
 	}
 	
 	/**
-	 * Initializes the JTextFields on the slots. Sets initial texts and 
-	 * adds ActionListeners and DocumentListeners.
-	 */
-	private void initTextFields() {
-		for(int i = 0; i < textFields.length; i++) {
-			textFields[i].setVisible(false);
-			textFields[i].setHorizontalAlignment(SwingConstants.CENTER);
-			textFields[i].setFont(slots[i].getFont());
-			
-			final int ii = i;
-			textFields[i].addActionListener(new ActionListener() {	
-				@Override
-				public void actionPerformed(ActionEvent arg0) {
-					float t;
-					try {
-						t = Float.parseFloat(textFields[ii].getText());
-					} catch (NumberFormatException e) {
-						t = SynmvJob.this.times[ii];
-					}
-					
-					SynmvJob.this.times[ii] = t;
-					SynmvJob.this.slots[ii].setText("" + t);
-					runCallback();
-				}
-			});
-				
-			final FontMetrics metric = textFields[i].getFontMetrics(textFields[i].getFont());
-			textFields[i].setSize(metric.stringWidth("" + times[i]) + 5, HEIGHT/3);
-			textFields[i].getDocument().addDocumentListener(new DocumentListener() {	
-				private void update(DocumentEvent e) {
-					int width;
-					try {
-						int oldw = metric.stringWidth(slots[ii].getText());
-						int neww = metric.stringWidth(textFields[ii].getDocument().getText(0, textFields[ii].getDocument().getLength()));
-						width = Math.max(oldw, neww);
-					} catch (BadLocationException e1) {
-						width = slots[ii].getWidth();
-					}
-					width += 5;
-					textFields[ii].setSize(width, textFields[ii].getHeight());
-					textFields[ii].setLocation((slots[ii].getWidth()-width)/2, textFields[ii].getY());
-				}			
-				@Override
-				public void removeUpdate(DocumentEvent e) {
-					update(e);
-				}			
-				@Override
-				public void insertUpdate(DocumentEvent e) {
-					update(e);
-				}			
-				@Override
-				public void changedUpdate(DocumentEvent e) {
-					update(e);
-				}
-			});
-		}
-	}
-	
-	/**
-	 * Initializes the slots. Sets initial texts and colors and adds the
-	 * textFields and MouseListeners.
-	 */
-	private void initSlots() {
-		setDefaultColor();
-		for(int i = 0; i < slots.length; i++) {
-			slots[i].setText(textFields[i].getText());
-			slots[i].setVisible(true);
-			slots[i].setOpaque(true);
-			slots[i].setBorder(new LineBorder(Color.DARK_GRAY));
-			slots[i].setHorizontalAlignment(SwingConstants.CENTER);
-				
-			slots[i].add(textFields[i]);
-			
-			final int ii = i;
-			slots[i].addMouseMotionListener(new MouseMotionListener() {
-				private int grabbedSide = 0;
-				@Override
-				public void mouseMoved(MouseEvent e) {
-					if(splitTimes == null || splitTimes.length != slots.length - 1) {
-						return;
-					}
-					
-					if(ii > 0 && e.getPoint().x == 0) { //cursor on left bound
-						if(!splitTimes[ii-1]) {
-							return;
-						}
-						slots[ii].setCursor(Cursor.getPredefinedCursor(Cursor.E_RESIZE_CURSOR));
-						grabbedSide = -1;
-					}
-					else if(ii < slots.length-1 && e.getPoint().x == slots[ii].getWidth()-1) { //right bound
-						if(!splitTimes[ii]) {
-							return;
-						}
-						slots[ii].setCursor(Cursor.getPredefinedCursor(Cursor.W_RESIZE_CURSOR));
-						grabbedSide = 1;
-					}
-					else {
-						slots[ii].setCursor(Cursor.getDefaultCursor());
-						grabbedSide = 0;
-					}
-					beingResized = grabbedSide != 0;
-					for(JLabel slot: slots) {
-						slot.setBorder(new LineBorder(Color.RED));
-					}
-				}
-				
-				@Override
-				public void mouseDragged(MouseEvent e) {
-					if(splitTimes == null || splitTimes.length != slots.length - 1) {
-						return;
-					}
-					
-					beingResized = grabbedSide != 0;
-					
-					if(grabbedSide == -1) {
-						if(!splitTimes[ii-1]) {
-							return;
-						}
-						float diff = e.getX() / SynmvJob.factor;
-						diff = Math.min(times[ii], diff);
-						diff = Math.max(-times[ii-1], diff);
-						if(Math.abs(diff) < 1) {
-							return;
-						}
-						
-						times[ii] -= Math.round(diff);
-						times[ii-1] += Math.round(diff);
-						
-						slots[ii].setText("" + times[ii]);
-						textFields[ii].setText("" + times[ii]);
-						slots[ii-1].setText("" + times[ii-1]);
-						textFields[ii-1].setText("" + times[ii-1]);
-						
-						runCallback();
-					}
-					else if(grabbedSide == 1) {
-						if(!splitTimes[ii]) {
-							return;
-						}
-						float diff = (e.getX()-slots[ii].getWidth()+1) / SynmvJob.factor;
-						diff = Math.min(times[ii+1], diff);
-						diff = Math.max(-times[ii], diff);
-						if(Math.abs(diff) < 1) {
-							return;
-						}
-						
-						times[ii+1] -= Math.round(diff);
-						times[ii] += Math.round(diff);
-
-						slots[ii].setText("" + times[ii]);
-						textFields[ii].setText("" + times[ii]);
-						slots[ii+1].setText("" + times[ii+1]);
-						textFields[ii+1].setText("" + times[ii+1]);
-						
-						runCallback();
-					}
-				}
-			});
-			
-			
-			slots[i].addMouseListener(new MouseListener() {
-				public void mouseClicked(MouseEvent e) {
-					if(beingResized) {
-						return;
-					}
-					
-					if(e.getButton() == MouseEvent.BUTTON3 && chosen != null) {
-						SynmvJobSwapAction action = new SynmvJobSwapAction(chosen, SynmvJob.this);
-						action.run();
-						actionList.addFirst(action);
-						undoneActionList.clear();
-					}
-					
-					if(e.getButton() == MouseEvent.BUTTON1 && e.getClickCount() == 2) {
-						showInfobox();
-					}
-				}
-	
-				@Override
-				public void mouseEntered(MouseEvent e) {
-					if(beingResized) {
-						return;
-					}
-					
-					mouseOver = SynmvJob.this;
-					for(JLabel slot: slots) {
-						slot.setBorder(new LineBorder(Color.RED));
-					}
-					
-					if(SynmvJob.continuousShift) {
-						if(chosen != null && chosen.mouseHold && chosen != SynmvJob.this) {
-							SynmvJobShiftAction action = new SynmvJobShiftAction(chosen, SynmvJob.this);
-							action.run();
-							actionList.addFirst(action);
-							undoneActionList.clear();
-						}
-					}
-				}
-	
-				@Override
-				public void mouseExited(MouseEvent e) {
-					for(JLabel slot: slots) {
-						slot.setBorder(new LineBorder(Color.DARK_GRAY));
-					}
-					
-					if(beingResized) {
-						return;
-					}
-					
-					if(mouseOver == SynmvJob.this) {
-						mouseOver = null;
-					}
-				}
-	
-				@Override
-				public void mousePressed(MouseEvent e) {
-					if(beingResized) {
-						return;
-					}
-					
-					if(e.getButton() == MouseEvent.BUTTON1) {
-						mouseHold = true;
-						if(chosen != null) {
-							chosen.highlight(Color.GRAY);
-							for(JTextField field : chosen.textFields) {
-								field.setVisible(false);
-							}
-						}
-						chosen = SynmvJob.this;
-						chosen.highlight(Color.RED);				
-						for(JTextField field : textFields) {
-							field.setVisible(true);
-						}
-					}
-				}
-	
-				@Override
-				public void mouseReleased(MouseEvent e) {
-					if(beingResized) {
-						return;
-					}
-					
-					if(!SynmvJob.continuousShift) {
-						if(chosen != null && chosen.mouseHold && mouseOver != null) {
-							SynmvJobShiftAction action = new SynmvJobShiftAction(chosen, mouseOver);
-							action.run();
-							actionList.addFirst(action);
-							undoneActionList.clear();
-						}
-					}
-					chosen.mouseHold = false;
-					mouseHold = false;
-					runCallback();
-				}
-			});
-		}
-	}
-	
-	/**
-	 * Initializes the info box and all of its components.
+	 * Creates the info box and all of its components.
 	 * Sets the box's layout and adds ActionListeners to the
-	 * components.
+	 * components. This is done when the info box is shown for the first time.
 	 */
 	private void initInfobox() {
-		infobox.setVisible(false);
+		infobox = new JFrame("info");
+		cycleField = new JTextField();
+		infoTimeFields = new JTextField[times.length];
+		startTimeLabel = new JLabel();
+		endTimeLabel = new JLabel();
+		duedateField = new JTextField();
+		weightField = new JTextField();
 		
 		int rows = 6 + times.length;
 		infobox.setLayout(new GridLayout(rows, 2));
 		
 		infobox.add(new JLabel("id "));
-		idLabel.setText("" + id);
-		infobox.add(idLabel);
+		infobox.add(new JLabel("" + id));
 		
 		infobox.add(new JLabel("cycle "));
 		JPanel container = new JPanel();
@@ -745,8 +634,7 @@ public class SynmvJob {
 				SynmvJob shiftTo = getNthNext(dir);
 				SynmvJobShiftAction action = new SynmvJobShiftAction(SynmvJob.this, shiftTo);
 				action.run();
-				actionList.addFirst(action);
-				undoneActionList.clear();
+				history.add(action);
 			}
 		});
 		
@@ -766,15 +654,11 @@ public class SynmvJob {
 					return;
 				}
 				
-				SynmvJob tmp = getFirstPredecessor();
-				for(int i = 1; i < pos; i++) {
-					tmp = tmp.getNext();
-				}
+				SynmvJob tmp = schedule.getJob(pos-1);
 				
 				SynmvJobSwapAction action = new SynmvJobSwapAction(SynmvJob.this, tmp);
 				action.run();
-				actionList.addFirst(action);
-				undoneActionList.clear();
+				history.add(action);
 			}
 		});
 				
@@ -794,9 +678,7 @@ public class SynmvJob {
 						return;
 					}
 					
-					times[ii] = t;
-					slots[ii].setText("" + t);
-					textFields[ii].setText(slots[ii].getText());
+					setTime(ii, t);
 					runCallback();
 				}
 			});
@@ -854,7 +736,7 @@ public class SynmvJob {
 					}
 				}
 				
-				duedate = t;
+				setDuedate(t);
 				SynmvJob.hasDuedates = true;
 				runCallback();
 			}
@@ -873,7 +755,7 @@ public class SynmvJob {
 					return;
 				}
 				
-				weight = t;
+				setWeight(t);
 				if(t != 1) {
 					SynmvJob.hasWeights = true;
 				}
@@ -885,9 +767,12 @@ public class SynmvJob {
 	
 	/**
 	 * Shows the info box, if it has been invisible, and actualizes its JLabels,
-	 * JTextFields and layout.
+	 * JTextFields and layout. The info box is created, if it does not exist yet.
 	 */
-	private void showInfobox() {
+	public void showInfobox() {
+		if(infobox == null) {
+			initInfobox();
+		}
 		infobox.setVisible(true);
 		
 		cycleField.setText("" + (countPredecessors()+1));
@@ -922,23 +807,11 @@ public class SynmvJob {
 		this.times = times;
 		this.duedate = duedate;
 		this.weight = weight;
-		this.number.setVisible(true);
-		this.number.setHorizontalAlignment(SwingConstants.CENTER);
 		
-		infoTimeFields = new JTextField[times.length];
-		slots = new JLabel[times.length];
-		textFields = new JTextField[times.length];
-		offsets = new Float[times.length];
-		
-		for(int i = 0; i < textFields.length; i++) {
-			textFields[i] = new JTextField("" + times[i]);
-			slots[i] = new JLabel();
-		}
+		offsets = new float[times.length];
+		offsetEpochs = new int[times.length];
 		
-		initTextFields();
-		initSlots();
-		setLocations();
-		initInfobox();
+		setDefaultColor();
 	}
 	
 	/**
@@ -964,6 +837,9 @@ public class SynmvJob {
 	 */
 	public void setDuedate(float duedate) {
 		this.duedate = duedate;
+		if(schedule != null) {
+			schedule.setDuedate(id-1, duedate);
+		}
 	}
 	
 	/**
@@ -981,17 +857,36 @@ public class SynmvJob {
 	 */
 	public void setWeight(float weight) {
 		this.weight = weight;
+		if(schedule != null) {
+			schedule.setWeight(id-1, weight);
+		}
 	}
 	
 	/**
-	 * Sets a new predecessor and invokes the callback.
+	 * Assigns this job to a schedule. This is done by the schedule itself.
 	 * 
-	 * @param pred
-	 * 			new predecessor
+	 * @param schedule
+	 * 			the schedule this job belongs to
 	 */
-	public void setPred(SynmvJob pred) {
-		this.pred = pred;
-		runCallback();
+	void setSchedule(SynmvSchedule schedule) {
+		this.schedule = schedule;
+	}
+	
+	/**
+	 * 
+	 * @return the schedule this job belongs to or null, if it has not been scheduled yet
+	 */
+	public SynmvSchedule getSchedule() {
+		return schedule;
+	}
+	
+	/**
+	 * Returns the position of this job in the current schedule.
+	 * 
+	 * @return the position starting with 0
+	 */
+	public int getPosition() {
+		return schedule == null ? 0 : schedule.getPosition(this);
 	}
 	
 	/**
@@ -999,7 +894,7 @@ public class SynmvJob {
 	 * @return the job's predecessor or null, if this job is the first one
 	 */
 	public SynmvJob getPred() {
-		return pred;
+		return getNthPred(1);
 	}
 	
 	/**
@@ -1009,25 +904,14 @@ public class SynmvJob {
 	 * @return the nth predecessor or null
 	 */
 	public SynmvJob getNthPred(int n) {
-		SynmvJob tmp = this;
-		for(int i = 0; i < n && tmp != null; i++) {
-			tmp = tmp.pred;
+		if(schedule == null) {
+			return n == 0 ? this : null;
 		}
-		for(int i = 0; i > n && tmp != null; i++) {
-			tmp = tmp.next;
+		int pos = schedule.getPosition(this) - n;
+		if(pos < 0 || pos >= schedule.size()) {
+			return null;
 		}
-		return tmp;
-	}
-	
-	/**
-	 * Sets a new follower and invokes the callback.
-	 * 
-	 * @param next
-	 * 			new follower
-	 */
-	public void setNext(SynmvJob next) {
-		this.next = next;
-		runCallback();
+		return schedule.getJob(pos);
 	}
 	
 	/**
@@ -1035,7 +919,7 @@ public class SynmvJob {
 	 * @return the job's follower or null, if this job is the last one.
 	 */
 	public SynmvJob getNext() {
-		return next;
+		return getNthPred(-1);
 	}
 	
 	/**
@@ -1047,21 +931,6 @@ public class SynmvJob {
 	public SynmvJob getNthNext(int n) {
 		return getNthPred(-n);
 	}
-	
-	/**
-	 * Removes this job from the schedule and links its former predecessor
-	 * and follower together. Runs the callback afterwards.
-	 */
-	public void unlink() {
-		if(pred != null) {
-			pred.next = next;
-		}
-		if(next != null) {
-			next.pred = pred;
-		}
-		next = pred = null;
-		runCallback();
-	}
 
 	/**
 	 * Swaps (exchanges) this job with another and invokes the callback.
@@ -1070,41 +939,16 @@ public class SynmvJob {
 	 * 			the job to be swapped with
 	 */
 	public void swapWith(SynmvJob other) {
-		if(other == next) {
-			swapWithNext();
-		}
-		else if(other == pred) {
-			swapWithPred();
-		}
-		else if(other == this) {
+		if(other == null || other == this) {
 			return;
 		}
-		else if(other != null) {
-			SynmvJob thispred = this.pred;
-			SynmvJob thisnext = this.next;
-			SynmvJob otherpred = other.pred;
-			SynmvJob othernext = other.next;
-			
-			this.pred = otherpred;
-			this.next = othernext;
-			other.pred = thispred;
-			other.next = thisnext;
-			
-			if(thispred != null) {
-				thispred.next = other;
-			}
-			if(thisnext != null) {
-				thisnext.pred = other;
-			}
-			if(otherpred != null) {
-				otherpred.next = this;
-			}
-			if(othernext != null) {
-				othernext.pred = this;
-			}
-			
-			runCallback();
-		}
+		
+		int pos = getPosition();
+		int otherPos = other.getPosition();
+		schedule.swap(pos, otherPos);
+		
+		markChanged(Math.min(pos, otherPos));
+		runCallback();
 	}
 	
 	/**
@@ -1112,24 +956,7 @@ public class SynmvJob {
 	 * method is equivalent to swapWith(getPred()).
 	 */
 	public void swapWithPred() {
-		if(pred != null) {
-			SynmvJob tmpPred = pred;
-			
-			if(tmpPred.pred != null) {
-				tmpPred.pred.next = this;
-			}
-			pred = tmpPred.pred;
-			
-			if(next != null) {
-				next.pred = tmpPred;
-			}
-			tmpPred.next = next;
-			
-			next = tmpPred;
-			tmpPred.pred = this;
-			
-			runCallback();
-		}
+		swapWith(getPred());
 	}
 	
 	/**
@@ -1137,41 +964,17 @@ public class SynmvJob {
 	 * method is equivalent to swapWith(getNext()).
 	 */
 	public void swapWithNext() {
-		if(next != null) {
-			next.swapWithPred();
-		}
-	}
-	
-	/**
-	 * Adds this jobs components to the parent container.
-	 */
-	public void addToParent() {
-		for(JLabel slot : slots) {
-			parent.add(slot);
-		}
-		parent.add(number);
-	}
-	
-	/**
-	 * Removes this jobs components from the parent container.
-	 */
-	public void removeFromParent() {
-		for(JLabel slot : slots) {
-			parent.remove(slot);
-		}
-		parent.remove(number);
+		swapWith(getNext());
 	}
 	
 	/**
-	 * Counts the number of predecessors of this job, which can be used
-	 * to calculate this job's position in the schedule.
+	 * Counts the number of predecessors of this job, which is
+	 * this job's position in the schedule.
 	 * 
 	 * @return the number of predecessors
 	 */
 	public int countPredecessors() {
-		if(pred == null)
-			return 0;
-		return pred.countPredecessors() + 1;
+		return getPosition();
 	}
 	
 	/**
@@ -1180,9 +983,7 @@ public class SynmvJob {
 	 * @return the number of followers
 	 */
 	public int countFollowers() {
-		if(next == null)
-			return 0;
-		return next.countFollowers() + 1;
+		return schedule == null ? 0 : schedule.size() - 1 - getPosition();
 	}
 	
 	/**
@@ -1192,9 +993,7 @@ public class SynmvJob {
 	 * @return the first job in the schedule
 	 */
 	public SynmvJob getFirstPredecessor() {
-		if(pred == null)
-			return this;
-		return pred.getFirstPredecessor();
+		return schedule == null ? this : schedule.getJob(0);
 	}
 	
 	/**
@@ -1204,9 +1003,7 @@ public class SynmvJob {
 	 * @return the last job in the schedule
 	 */
 	public SynmvJob getLastFollower() {
-		if(next == null)
-			return this;
-		return next.getLastFollower();
+		return schedule == null ? this : schedule.getJob(schedule.size()-1);
 	}
 	
 	/**
@@ -1244,42 +1041,44 @@ public class SynmvJob {
 	
 	/**
 	 * Shifts this job to the position of another job. That means this job is
-	 * swapped with its predecessor or follower respectively until it is swapped
-	 * with the other on.
+	 * moved to the other's position and the jobs in between are moved by one
+	 * position towards this job's old position.
 	 * 
 	 * @param other
 	 * 			the job to be shifted to
 	 * @return the number of positions this job has moved, negative means it was shifted to the left
 	 */
 	public int shiftTo(SynmvJob other) {
-		int dir = other.countPredecessors() - this.countPredecessors();
-		if(dir > 0) {
-			for(int i = 0; i < dir; i++) {
-				swapWithNext();
-			}
-		}
-		else if(dir < 0) {
-			for(int i = 0; i > dir; i--) {
-				swapWithPred();
-			}
+		int pos = getPosition();
+		int otherPos = other.getPosition();
+		if(pos != otherPos) {
+			schedule.move(pos, otherPos);
+			markChanged(Math.min(pos, otherPos));
+			runCallback();
 		}
-		return dir;
+		return otherPos - pos;
 	}
 	
 	/**
-	 * Highlights the job's slots with a color.
+	 * Highlights the job with a color. It is visible after the next repaint.
 	 * 
 	 * @param c
 	 * 			color
 	 */
 	public void highlight(Color c) {
-		for(JLabel slot : slots) {
-			slot.setBackground(c);
-		}
+		color = c;
+	}
+	
+	/**
+	 * 
+	 * @return the color the job is painted with
+	 */
+	public Color getColor() {
+		return color;
 	}
 	
 	/**
-	 * Highlights the job's slots with Color.ORANGE.
+	 * Highlights the job with Color.ORANGE.
 	 * A call to this method is equivalent to highlight(Color.ORANGE).
 	 */
 	public void highlight() {
@@ -1287,7 +1086,7 @@ public class SynmvJob {
 	}
 	
 	/**
-	 * Sets the slots' color to the default one, which is Color.GRAY or
+	 * Sets the job's color to the default one, which is Color.GRAY or
 	 * Color.RED, if this is the chosen SynmvJob.
 	 */
 	public void setDefaultColor() {
@@ -1299,12 +1098,7 @@ public class SynmvJob {
 				highlight(Color.GRAY);
 			}
 			else {
-				float maxWeight = 0;
-				SynmvJob tmp = getFirstPredecessor();
-				while(tmp != null) {
-					maxWeight = Math.max(tmp.getWeight(), maxWeight);
-					tmp = tmp.getNext();
-				}
+				float maxWeight = Math.max(0, schedule == null ? weight : schedule.getMaxWeight());
 				float color = (1 - weight / maxWeight) * 0.5f + 0.25f; //normalize to interval [0.25,0.75]
 				highlight(new Color(color, color, color));
 			}
@@ -1312,9 +1106,145 @@ public class SynmvJob {
 	}
 	
 	/**
-	 * Runs the callback, if it is not null.
+	 * Marks the schedule as changed from a position onward. That means the offsets
+	 * of the jobs before that position are still valid and only the others have to
+	 * be calculated again, by the callback or when they are read.
+	 * 
+	 * @param position
+	 * 			the first position that has changed starting with 0
+	 */
+	public static void markChanged(int position) {
+		firstChangedPosition = Math.min(firstChangedPosition, position);
+		firstChangedCycle = Math.min(firstChangedCycle, position);
+		deleteOldOffsets(position);
+	}
+	
+	/**
+	 * Marks this job's times as changed. That means the schedule has changed
+	 * from this job's position onward.
+	 */
+	private void markTimesChanged() {
+		if(schedule != null) {
+			schedule.timesChanged();
+		}
+		markChanged(getPosition());
+		changedTimes.set(id-1);
+	}
+	
+	/**
+	 * Returns the index of a job whose times have been marked as changed since
+	 * the last call of this method and resets its mark.
+	 * 
+	 * @return the job index (id-1) or -1, if no more times have changed
+	 */
+	public static int pollChangedTimes() {
+		int job = changedTimes.nextSetBit(0);
+		if(job >= 0) {
+			changedTimes.clear(job);
+		}
+		return job;
+	}
+	
+	/**
+	 * 
+	 * @return true, if a position has been marked as changed since the last call of pollFirstChangedPosition()
+	 */
+	public static boolean isChangeMarked() {
+		return firstChangedPosition != Integer.MAX_VALUE;
+	}
+	
+	/**
+	 * Returns the first position that has been marked as changed since the last call
+	 * of this method and resets the mark.
+	 * 
+	 * @return the first changed position or Integer.MAX_VALUE, if nothing has changed
+	 */
+	public static int pollFirstChangedPosition() {
+		int position = firstChangedPosition;
+		firstChangedPosition = Integer.MAX_VALUE;
+		return position;
+	}
+	
+	/**
+	 * Opens a transaction. Until the outermost transaction is closed again,
+	 * runCallback() does not run the callback but only remembers that it has
+	 * been requested. Transactions can be nested.
+	 */
+	public static void beginTransaction() {
+		transactionDepth++;
+	}
+	
+	/**
+	 * Closes a transaction. If it was the outermost one and the callback has
+	 * been requested in the meantime, the callback is run once now.
+	 */
+	public static void endTransaction() {
+		if(transactionDepth == 0) {
+			throw new IllegalStateException("there is no open transaction");
+		}
+		transactionDepth--;
+		if(transactionDepth == 0 && callbackPending) {
+			runCallback();
+		}
+	}
+	
+	/**
+	 * Closes a transaction like endTransaction(), but a pending callback
+	 * is not run now but within the next frame by requestCallback().
+	 */
+	public static void endTransactionLater() {
+		if(transactionDepth == 0) {
+			throw new IllegalStateException("there is no open transaction");
+		}
+		transactionDepth--;
+		if(transactionDepth == 0 && callbackPending) {
+			callbackPending = false;
+			requestCallback();
+		}
+	}
+	
+	/**
+	 * Requests the callback to be run within the next frame. All requests made
+	 * until then are served by that single run. This is used while the mouse is
+	 * dragged, where every mouse event would run the callback otherwise.
+	 */
+	public static void requestCallback() {
+		if(frameTimer == null) {
+			frameTimer = new Timer(FRAME_MILLIS, new ActionListener() {
+				@Override
+				public void actionPerformed(ActionEvent e) {
+					runCallback();
+				}
+			});
+			frameTimer.setRepeats(false);
+		}
+		if(!frameTimer.isRunning()) {
+			frameTimer.start();
+		}
+	}
+	
+	/**
+	 * 
+	 * @return true, if the callback has been requested by requestCallback() and has not run yet
+	 */
+	public static boolean isCallbackRequested() {
+		return frameTimer != null && frameTimer.isRunning();
+	}
+	
+	/**
+	 * Runs the callback, if it is not null. Within a transaction,
+	 * the callback is deferred until the transaction is closed.
 	 */
 	public static void runCallback() {
+		if(transactionDepth > 0) {
+			callbackPending = true;
+			return;
+		}
+		
+		callbackPending = false;
+		if(frameTimer != null) {
+			frameTimer.stop(); //a requested callback is served by this run
+		}
 		if(callback != null) {
 			callback.run();
 		}
@@ -3,8 +3,9 @@
  */
 
 /**
- * This abstract class is used to do and undo an action an SynmvJobs, 
- * like swapping or shifting them.
+ * This abstract class is used to do an action on SynmvJobs, 
+ * like swapping or shifting them. The SynmvHistory undoes and redoes
+ * the action by the steps it records.
  * 
  * @author sebrockm
  *
@@ -12,12 +13,12 @@
 public abstract class SynmvJobAction implements Runnable {
 	
 	/**
-	 * Indicates whether the action can be done or undone.
+	 * Indicates whether the action has been done already.
 	 */
 	private boolean done;
 	
 	/**
-	 * Creates an undone SynmvJobAction.
+	 * Creates a SynmvJobAction that has not been done yet.
 	 */
 	public SynmvJobAction() {
 		done = false;
@@ -38,15 +39,10 @@ public abstract class SynmvJobAction implements Runnable {
 	}
 	
 	/**
-	 * Performs the undo of the action, if it has not been undone already.
-	 * Subclasses must override this method and call super.undo() first.
+	 * Records the done action in a history as compact steps.
+	 * 
+	 * @param history
+	 * 			the history the action is added to
 	 */
-	public void undo() {
-		if(done) {
-			done = false;
-		}
-		else {
-			throw new RuntimeException("An undone SynmvJobSwapAction cannot be undone (again).");
-		}
-	}
+	protected abstract void record(SynmvHistory history);
 }
@@ -0,0 +1,58 @@
+
+/**
+ * This class is used to give all SynmvJobs of a schedule a new order,
+ * like the one found by a heuristic.
+ * 
+ * @author sebrockm
+ *
+ */
+public class SynmvJobReorderAction extends SynmvJobAction {
+
+	/**
+	 * The schedule that is reordered.
+	 */
+	private SynmvSchedule schedule;
+
+	/**
+	 * The new order of the job indices, order[p] is the index of the job at position p.
+	 */
+	private int[] order;
+
+	/**
+	 * Creates a new SynmvJobReorderAction that gives a schedule a new order.
+	 * @param schedule
+	 * 			the schedule to be reordered
+	 * @param order
+	 * 			the new order of the job indices, order[p] is the index of the job at position p
+	 */
+	public SynmvJobReorderAction(SynmvSchedule schedule, int[] order) {
+		super();
+		this.schedule = schedule;
+		this.order = order.clone();
+	}
+
+	@Override
+	public void run() {
+		super.run();
+		apply(order);
+	}
+	
+	@Override
+	protected void record(SynmvHistory history) {
+		history.addOrder();
+	}
+	
+	/**
+	 * Gives the schedule an order and invokes the callback once.
+	 * 
+	 * @param newOrder
+	 * 			the new order
+	 */
+	private void apply(int[] newOrder) {
+		int first = schedule.setOrder(newOrder);
+		if(first < newOrder.length) {
+			SynmvJob.markChanged(first);
+			SynmvJob.runCallback();
+		}
+	}
+}
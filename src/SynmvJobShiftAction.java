@@ -1,17 +1,32 @@
 
 /**
- * This class is used to do and undo a shift of a SynmvJob
- * 
+ * This class is used to do a shift of a SynmvJob. It only records
+ * the position the job is shifted from and the one it is shifted to, so doing
+ * it is a single move within the schedule followed by one callback.
+ *
  * @author sebrockm
  *
  */
 public class SynmvJobShiftAction extends SynmvJobAction {
-	private SynmvJob shifted;
-	private SynmvJob target;
-	private int wayback;
 
 	/**
-	 * Creates a new SynmvJobShiftAction that shifts a job to another or undoes this action.
+	 * The schedule the job is shifted in.
+	 */
+	private final SynmvSchedule schedule;
+
+	/**
+	 * The position the job is shifted from.
+	 */
+	private final int from;
+
+	/**
+	 * The position the job is shifted to. It changes while the job is dragged on.
+	 */
+	private int to;
+
+	/**
+	 * Creates a new SynmvJobShiftAction that shifts a job to another.
+	 * The positions of both jobs are recorded now.
 	 * @param shifted
 	 * 			the job to be shifted
 	 * @param target
@@ -19,25 +34,43 @@ public class SynmvJobShiftAction extends SynmvJobAction {
 	 */
 	public SynmvJobShiftAction(SynmvJob shifted, SynmvJob target) {
 		super();
-		this.shifted = shifted;
-		this.target = target;
-		wayback = 0;
+		this.schedule = shifted.getSchedule();
+		this.from = shifted.getPosition();
+		this.to = target.getPosition();
 	}
 
 	@Override
 	public void run() {
 		super.run();
-		wayback = -shifted.shiftTo(target);
+		shift(from, to);
 	}
-	
+
+	/**
+	 * Shifts the job of this done action on to another job, so that undoing it
+	 * undoes both shifts at once. This is used while a job is dragged.
+	 *
+	 * @param target
+	 * 			the job at the new target position
+	 */
+	public void shiftFurther(SynmvJob target) {
+		int further = target.getPosition();
+		shift(to, further);
+		to = further;
+	}
+
 	@Override
-	public void undo() {
-		super.undo();
-		for(int i = 0; i < wayback; i++) {
-			shifted.swapWithNext();
-		}
-		for(int i = 0; i > wayback; i--) {
-			shifted.swapWithPred();
+	protected void record(SynmvHistory history) {
+		history.addShift(from, to);
+	}
+
+	/**
+	 * Moves the job at a position to another one and invokes the callback once.
+	 */
+	private void shift(int p1, int p2) {
+		if(p1 != p2) {
+			schedule.move(p1, p2);
+			SynmvJob.markChanged(Math.min(p1, p2));
+			SynmvJob.runCallback();
 		}
 	}
 }
@@ -3,7 +3,7 @@
  */
 
 /**
- * This class is used to do and undo a swap of two SynmvJobs.
+ * This class is used to do a swap of two SynmvJobs.
  * 
  * @author sebrockm
  *
@@ -13,7 +13,7 @@ public class SynmvJobSwapAction extends SynmvJobAction {
 	private SynmvJob j2;
 
 	/**
-	 * Creates a new SynmvJobSwapAction that swaps or reswaps two jobs.
+	 * Creates a new SynmvJobSwapAction that swaps two jobs.
 	 * 
 	 * @param j1
 	 * 			first SynmvJob to swap
@@ -34,9 +34,8 @@ public class SynmvJobSwapAction extends SynmvJobAction {
 	}
 
 	@Override
-	public void undo() {
-		super.undo();
-		j2.swapWith(j1);
+	protected void record(SynmvHistory history) {
+		history.addSwap(j1.getPosition(), j2.getPosition());
 	}
 
 }
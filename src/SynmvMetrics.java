@@ -0,0 +1,359 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This class collects how often the operations that decide how responsive the
+ * frame is are run and how long they take. It is registered as the MBean
+ * synmv:type=Metrics, so the counters and latencies can be watched with JConsole
+ * or any other JMX client without attaching a profiler. Every measurement is
+ * also emitted as a JFR event of SynmvEvents.
+ * <p>
+ * The durations are counted in a histogram whose buckets grow exponentially with
+ * eight linear sub buckets each, so percentiles are accurate to about 6 % and
+ * recording takes constant time without allocating anything.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvMetrics implements SynmvMetricsMBean {
+
+	/**
+	 * The operation that runs the callback of the frame after a schedule has changed.
+	 */
+	public static final int CALLBACK = 0;
+
+	/**
+	 * The operation that evaluates the offsets of a schedule.
+	 */
+	public static final int EVALUATION = 1;
+
+	/**
+	 * The operation that lays out the jobs on the canvas.
+	 */
+	public static final int RELAYOUT = 2;
+
+	/**
+	 * The operation that highlights the late jobs.
+	 */
+	public static final int RECOLOR = 3;
+
+	/**
+	 * The operation that undoes steps of the history.
+	 */
+	public static final int UNDO = 4;
+
+	/**
+	 * The operation that redoes steps of the history.
+	 */
+	public static final int REDO = 5;
+
+	/**
+	 * The operation that loads an instance or a schedule.
+	 */
+	public static final int LOAD = 6;
+
+	/**
+	 * The operation that saves an instance or a schedule.
+	 */
+	public static final int SAVE = 7;
+
+	/**
+	 * The names of the operations in the management interface.
+	 */
+	private static final String[] NAMES = {"callback", "evaluation", "relayout", "recolor", "undo", "redo", "load", "save"};
+
+	/**
+	 * The number of sub buckets per power of 2 is 1 << SUB_BITS.
+	 */
+	private static final int SUB_BITS = 3;
+
+	/**
+	 * The number of buckets of a histogram, enough for every duration a long can hold.
+	 */
+	private static final int BUCKETS = (64 - SUB_BITS) << SUB_BITS;
+
+	/**
+	 * The only instance, it is registered when the class is loaded.
+	 */
+	private static final SynmvMetrics metrics = register();
+
+	/**
+	 * This class measures one run of an operation.
+	 */
+	public static class Probe {
+		/**
+		 * The measured operation.
+		 */
+		private final int operation;
+
+		/**
+		 * The JFR event of the measurement.
+		 */
+		private final SynmvEvents.Base event;
+
+		/**
+		 * The time the measurement has begun in nanoseconds.
+		 */
+		private final long start;
+
+		private Probe(int operation) {
+			this.operation = operation;
+			this.event = SynmvEvents.create(operation);
+			event.begin();
+			this.start = System.nanoTime();
+		}
+
+		/**
+		 * Ends the measurement of an operation on the current variant, records its duration
+		 * and commits its event. This must be called in the event dispatch thread, which
+		 * is the one that changes the variant.
+		 *
+		 * @param jobs
+		 * 			the number of jobs
+		 * @param machines
+		 * 			the number of machines
+		 * @param size
+		 * 			the size of the operation, see SynmvEvents
+		 */
+		public void end(int jobs, int machines, long size) {
+			end(jobs, machines, size, SynmvJob.variant);
+		}
+
+		/**
+		 * Ends the measurement, records its duration and commits its event.
+		 *
+		 * @param jobs
+		 * 			the number of jobs
+		 * @param machines
+		 * 			the number of machines
+		 * @param size
+		 * 			the size of the operation, see SynmvEvents
+		 * @param variant
+		 * 			the variant the operation has been run for
+		 */
+		public void end(int jobs, int machines, long size, SynmvJob.Variant variant) {
+			metrics.record(operation, System.nanoTime() - start);
+			event.end();
+			if(event.shouldCommit()) {
+				event.jobs = jobs;
+				event.machines = machines;
+				event.variant = variant.name();
+				event.size = size;
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * The histograms of the durations in nanoseconds, one per operation.
+	 */
+	private final AtomicLongArray[] histograms = new AtomicLongArray[NAMES.length];
+
+	/**
+	 * How often each operation has been run.
+	 */
+	private final AtomicLong[] counts = new AtomicLong[NAMES.length];
+
+	/**
+	 * The number of offsets the evaluations have calculated.
+	 */
+	private final AtomicLong offsets = new AtomicLong();
+
+	/**
+	 * The second the callbacks are currently counted for.
+	 */
+	private long second = 0;
+
+	/**
+	 * The number of callbacks within the current second.
+	 */
+	private long callbacksThisSecond = 0;
+
+	/**
+	 * The number of callbacks within the second before the current one.
+	 */
+	private long callbacksLastSecond = 0;
+
+	private SynmvMetrics() {
+		for(int op = 0; op < NAMES.length; op++) {
+			histograms[op] = new AtomicLongArray(BUCKETS);
+			counts[op] = new AtomicLong();
+		}
+	}
+
+	/**
+	 * Creates the instance and registers it at the platform MBean server.
+	 * A failed registration is only reported, the measurements work anyway.
+	 */
+	private static SynmvMetrics register() {
+		SynmvMetrics metrics = new SynmvMetrics();
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName("synmv:type=Metrics"));
+		}
+		catch(JMException e) {
+			e.printStackTrace();
+		}
+		return metrics;
+	}
+
+	/**
+	 * Starts to measure an operation.
+	 *
+	 * @param operation
+	 * 			the operation, e.g. SynmvMetrics.CALLBACK
+	 * @return the probe that ends the measurement
+	 */
+	public static Probe begin(int operation) {
+		return new Probe(operation);
+	}
+
+	/**
+	 * Counts calculated offsets.
+	 *
+	 * @param count
+	 * 			the number of offsets
+	 */
+	public static void countOffsets(long count) {
+		metrics.offsets.addAndGet(count);
+	}
+
+	/**
+	 * Records the duration of an operation.
+	 */
+	private void record(int operation, long nanos) {
+		histograms[operation].incrementAndGet(bucket(Math.max(0, nanos)));
+		counts[operation].incrementAndGet();
+		if(operation == CALLBACK) {
+			countCallback();
+		}
+	}
+
+	private synchronized void countCallback() {
+		long now = System.nanoTime() / 1000000000L;
+		if(now != second) {
+			callbacksLastSecond = now == second + 1 ? callbacksThisSecond : 0;
+			callbacksThisSecond = 0;
+			second = now;
+		}
+		callbacksThisSecond++;
+	}
+
+	/**
+	 *
+	 * @return the index of the bucket a duration is counted in
+	 */
+	private static int bucket(long nanos) {
+		if(nanos < (1 << SUB_BITS)) {
+			return (int) nanos;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int sub = (int) (nanos >>> (exponent - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+		return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+	}
+
+	/**
+	 *
+	 * @return the middle of the durations that are counted in a bucket
+	 */
+	private static double value(int bucket) {
+		if(bucket < (1 << SUB_BITS)) {
+			return bucket;
+		}
+		int shift = (bucket >>> SUB_BITS) - 1;
+		long low = (long) ((1 << SUB_BITS) + (bucket & ((1 << SUB_BITS) - 1))) << shift;
+		return low + ((1L << shift) - 1) / 2.0;
+	}
+
+	/**
+	 *
+	 * @return the index of an operation
+	 */
+	private static int operation(String name) {
+		for(int op = 0; op < NAMES.length; op++) {
+			if(NAMES[op].equals(name)) {
+				return op;
+			}
+		}
+		throw new IllegalArgumentException("unknown operation " + name);
+	}
+
+	private double percentileMillis(int operation, double percentile) {
+		AtomicLongArray histogram = histograms[operation];
+		long[] snapshot = new long[BUCKETS];
+		long total = 0;
+		for(int b = 0; b < BUCKETS; b++) {
+			snapshot[b] = histogram.get(b);
+			total += snapshot[b];
+		}
+		if(total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for(int b = 0; b < BUCKETS; b++) {
+			seen += snapshot[b];
+			if(seen >= rank) {
+				return value(b) / 1e6;
+			}
+		}
+		return value(BUCKETS - 1) / 1e6;
+	}
+
+	@Override
+	public long getCallbackCount() {
+		return counts[CALLBACK].get();
+	}
+
+	@Override
+	public synchronized long getCallbacksPerSecond() {
+		long now = System.nanoTime() / 1000000000L;
+		if(now == second) {
+			return callbacksLastSecond;
+		}
+		return now == second + 1 ? callbacksThisSecond : 0;
+	}
+
+	@Override
+	public double getCallbackP50Millis() {
+		return percentileMillis(CALLBACK, 50);
+	}
+
+	@Override
+	public double getCallbackP99Millis() {
+		return percentileMillis(CALLBACK, 99);
+	}
+
+	@Override
+	public long getOffsetsComputed() {
+		return offsets.get();
+	}
+
+	@Override
+	public long getCount(String operation) {
+		return counts[operation(operation)].get();
+	}
+
+	@Override
+	public double getPercentileMillis(String operation, double percentile) {
+		return percentileMillis(operation(operation), percentile);
+	}
+
+	@Override
+	public void reset() {
+		for(int op = 0; op < NAMES.length; op++) {
+			for(int b = 0; b < BUCKETS; b++) {
+				histograms[op].set(b, 0);
+			}
+			counts[op].set(0);
+		}
+		offsets.set(0);
+		synchronized(this) {
+			callbacksThisSecond = 0;
+			callbacksLastSecond = 0;
+		}
+	}
+}
@@ -0,0 +1,63 @@
+
+/**
+ * The management interface of SynmvMetrics. The operations are named
+ * callback, evaluation, relayout, recolor, undo, redo, load and save.
+ * 
+ * @author sebrockm
+ *
+ */
+public interface SynmvMetricsMBean {
+	
+	/**
+	 * 
+	 * @return the number of callbacks, i.e. recomputes of the displayed schedule
+	 */
+	long getCallbackCount();
+	
+	/**
+	 * 
+	 * @return the number of callbacks within the last complete second
+	 */
+	long getCallbacksPerSecond();
+	
+	/**
+	 * 
+	 * @return the median duration of the callback in milliseconds
+	 */
+	double getCallbackP50Millis();
+	
+	/**
+	 * 
+	 * @return the 99th percentile of the duration of the callback in milliseconds
+	 */
+	double getCallbackP99Millis();
+	
+	/**
+	 * 
+	 * @return the number of offsets the evaluations of the callback have computed
+	 */
+	long getOffsetsComputed();
+	
+	/**
+	 * 
+	 * @param operation
+	 * 			the name of an operation
+	 * @return the number of times the operation has been measured
+	 */
+	long getCount(String operation);
+	
+	/**
+	 * 
+	 * @param operation
+	 * 			the name of an operation
+	 * @param percentile
+	 * 			the percentile between 0 and 100
+	 * @return the duration of the operation in milliseconds that the percentile of its measurements does not exceed
+	 */
+	double getPercentileMillis(String operation, double percentile);
+	
+	/**
+	 * Deletes all measurements.
+	 */
+	void reset();
+}
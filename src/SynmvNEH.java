@@ -0,0 +1,55 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class implements the NEH heuristic of Nawaz, Enscore and Ham, which
+ * minimizes the makespan. The jobs are sorted by decreasing total process time
+ * and inserted one after another at the position that minimizes the makespan
+ * of the jobs inserted so far. A SynmvInsertion evaluates all positions of one
+ * job in O(n * m), so the whole heuristic takes O(n^2 * m) for every variant.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvNEH {
+
+	/**
+	 * Calculates a schedule with the NEH heuristic.
+	 *
+	 * @param times
+	 * 			the process times, times[j][i] is the time job j needs on machine i
+	 * @param variant
+	 * 			the variant the makespan is minimized for
+	 * @return the schedule, schedule[p] is the index of the job at position p
+	 */
+	public static int[] solve(final float[][] times, SynmvJob.Variant variant) {
+		int n = times.length;
+
+		//sort by decreasing total process time, equal ones keep their order
+		final float[] totals = new float[n];
+		Integer[] sorted = new Integer[n];
+		for(int j = 0; j < n; j++) {
+			for(float t : times[j]) {
+				totals[j] += t;
+			}
+			sorted[j] = j;
+		}
+		Arrays.sort(sorted, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return Float.compare(totals[b], totals[a]);
+			}
+		});
+
+		int[] sequence = new int[n];
+		SynmvInsertion insertion = new SynmvInsertion(times, variant);
+		for(int length = 0; length < n; length++) {
+			int job = sorted[length];
+			insertion.setSequence(sequence, length);
+			int k = insertion.getBestPosition(job);
+			System.arraycopy(sequence, k, sequence, k+1, length-k);
+			sequence[k] = job;
+		}
+		return sequence;
+	}
+}
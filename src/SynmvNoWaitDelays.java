@@ -0,0 +1,139 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class stores the no-wait delays of all pairs of jobs.
+ * The delay between two jobs is the minimal time between the start of the
+ * first one and the start of the second one, if the second one directly follows
+ * the first one in the no-wait variant. It only depends on the times of both jobs,
+ * so the start times of a whole schedule are just prefix sums of delays.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvNoWaitDelays {
+
+	/**
+	 * The maximal number of jobs a delay matrix is built for.
+	 * It needs 4 * MAX_JOBS^2 bytes, which is 64 MB.
+	 */
+	public static final int MAX_JOBS = 4096;
+
+	/**
+	 * The number of rows that are calculated by one task.
+	 */
+	private static final int ROWS_PER_TASK = 64;
+
+	/**
+	 * The process times. times[j][i] is the time job j needs on machine i.
+	 */
+	private final float[][] times;
+
+	/**
+	 * The number of jobs.
+	 */
+	private final int n;
+
+	/**
+	 * The delays. delays[a*n + b] is the delay of job b, if it follows job a.
+	 */
+	private final float[] delays;
+
+	/**
+	 * This task calculates a range of rows of the delay matrix.
+	 * It splits itself as long as there are too many rows.
+	 */
+	@SuppressWarnings("serial")
+	private class RowsTask extends RecursiveAction {
+		private final int from;
+		private final int to;
+
+		public RowsTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= ROWS_PER_TASK) {
+				for(int a = from; a < to; a++) {
+					calculateRow(a);
+				}
+			}
+			else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new RowsTask(from, mid), new RowsTask(mid, to));
+			}
+		}
+	}
+
+	/**
+	 * Creates a new SynmvNoWaitDelays and calculates all delays in parallel.
+	 * The times array is not copied, so changes of a job's times have to be
+	 * announced by calling update().
+	 *
+	 * @param times
+	 * 			the process times, times[j][i] is the time job j needs on machine i
+	 */
+	public SynmvNoWaitDelays(float[][] times) {
+		if(!fits(times.length)) {
+			throw new IllegalArgumentException("there must not be more than " + MAX_JOBS + " jobs");
+		}
+		this.times = times;
+		this.n = times.length;
+		this.delays = new float[n * n];
+		ForkJoinPool.commonPool().invoke(new RowsTask(0, n));
+	}
+
+	/**
+	 * Indicates whether a delay matrix can be built for a number of jobs.
+	 *
+	 * @param n
+	 * 			the number of jobs
+	 * @return true, if n is not greater than MAX_JOBS
+	 */
+	public static boolean fits(int n) {
+		return n <= MAX_JOBS;
+	}
+
+	/**
+	 * Returns the no-wait delay of a job following another one.
+	 *
+	 * @param pred
+	 * 			the index of the preceding job
+	 * @param next
+	 * 			the index of the following job
+	 * @return the delay
+	 */
+	public float getDelay(int pred, int next) {
+		return delays[pred * n + next];
+	}
+
+	/**
+	 * Calculates the delays of a job again, because its times have changed.
+	 * That is its row and its column of the matrix.
+	 *
+	 * @param job
+	 * 			the index of the changed job
+	 */
+	public void update(int job) {
+		calculateRow(job);
+		for(int a = 0; a < n; a++) {
+			delays[a * n + job] = SynmvEvaluator.noWaitDelay(times[a], times[job]);
+		}
+	}
+
+	/**
+	 * Calculates the delays of all jobs following a job.
+	 *
+	 * @param a
+	 * 			the index of the preceding job
+	 */
+	private void calculateRow(int a) {
+		float[] pred = times[a];
+		int row = a * n;
+		for(int b = 0; b < n; b++) {
+			delays[row + b] = SynmvEvaluator.noWaitDelay(pred, times[b]);
+		}
+	}
+}
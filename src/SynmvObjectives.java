@@ -0,0 +1,207 @@
+/**
+ * This class calculates the values of the objective functions of an evaluated schedule.
+ * All selected objectives are calculated in one pass over the end times
+ * without creating any objects, so it can be used for every evaluation.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvObjectives {
+
+	/**
+	 * Flag for the makespan Cmax.
+	 */
+	public static final int CMAX = 1;
+
+	/**
+	 * Flag for the (weighted) sum of the completion times.
+	 */
+	public static final int SUM_CJ = 2;
+
+	/**
+	 * Flag for the maximal lateness Lmax.
+	 */
+	public static final int LMAX = 4;
+
+	/**
+	 * Flag for the (weighted) sum of the tardinesses.
+	 */
+	public static final int SUM_TJ = 8;
+
+	/**
+	 * Flag for the (weighted) number of late jobs.
+	 */
+	public static final int SUM_UJ = 16;
+
+	/**
+	 * Flags of all objectives.
+	 */
+	public static final int ALL = CMAX | SUM_CJ | LMAX | SUM_TJ | SUM_UJ;
+
+	/**
+	 * The flags of the objectives calculated by the last call of calculate().
+	 */
+	private int calculated = 0;
+
+	/**
+	 * The makespan, the maximal end time of all jobs.
+	 */
+	private float cmax;
+
+	/**
+	 * The (weighted) sum of the completion times.
+	 */
+	private float sumCj;
+
+	/**
+	 * The maximal lateness of all jobs.
+	 */
+	private float lmax;
+
+	/**
+	 * The (weighted) sum of the tardinesses.
+	 */
+	private float sumTj;
+
+	/**
+	 * The (weighted) number of late jobs.
+	 */
+	private float sumUj;
+
+	/**
+	 * Calculates the selected objectives of the schedule the evaluator has evaluated last.
+	 *
+	 * @param evaluator
+	 * 			the evaluator that has evaluated the schedule
+	 * @param duedates
+	 * 			the due dates, duedates[j] is the due date of job j
+	 * @param weights
+	 * 			the weights, weights[j] is the weight of job j, or null if all weights are 1
+	 * @param objectives
+	 * 			the flags of the objectives to be calculated, e.g. CMAX | LMAX
+	 */
+	public void calculate(SynmvEvaluator evaluator, float[] duedates, float[] weights, int objectives) {
+		boolean needCj = (objectives & SUM_CJ) != 0;
+		boolean needLmax = (objectives & LMAX) != 0;
+		boolean needTj = (objectives & SUM_TJ) != 0;
+		boolean needUj = (objectives & SUM_UJ) != 0;
+		boolean needDuedates = needLmax || needTj || needUj;
+
+		int[] permutation = evaluator.getPermutation();
+		int n = evaluator.getLength();
+
+		float cmax = 0;
+		float sumCj = 0;
+		float lmax = Float.NEGATIVE_INFINITY;
+		float sumTj = 0;
+		float sumUj = 0;
+
+		for(int p = 0; p < n; p++) {
+			float finished = evaluator.getEndTime(p);
+			if(cmax < finished) {
+				cmax = finished;
+			}
+			if(!needCj && !needDuedates) {
+				continue;
+			}
+
+			int j = permutation[p];
+			float weight = weights == null ? 1 : weights[j];
+			if(needCj) {
+				sumCj += weight * finished;
+			}
+			if(needDuedates) {
+				float lateness = finished - duedates[j];
+				if(lmax < lateness) {
+					lmax = lateness;
+				}
+				if(lateness > 0) { //the tardiness of early jobs is 0
+					sumTj += weight * lateness;
+					sumUj += weight;
+				}
+			}
+		}
+
+		this.calculated = objectives;
+		this.cmax = cmax;
+		this.sumCj = sumCj;
+		this.lmax = lmax;
+		this.sumTj = sumTj;
+		this.sumUj = sumUj;
+	}
+
+	/**
+	 * Indicates whether an objective has been calculated by the last call of calculate().
+	 *
+	 * @param objective
+	 * 			the flag of the objective
+	 * @return true, if it has been calculated
+	 */
+	public boolean isCalculated(int objective) {
+		return (calculated & objective) == objective;
+	}
+
+	/**
+	 * Returns the value of one objective.
+	 *
+	 * @param objective
+	 * 			the flag of the objective, e.g. CMAX
+	 * @return its value as calculated by the last call of calculate()
+	 */
+	public float get(int objective) {
+		switch(objective) {
+		case CMAX:
+			return cmax;
+		case SUM_CJ:
+			return sumCj;
+		case LMAX:
+			return lmax;
+		case SUM_TJ:
+			return sumTj;
+		case SUM_UJ:
+			return sumUj;
+		default:
+			throw new IllegalArgumentException("'objective' must be the flag of one objective");
+		}
+	}
+
+	/**
+	 *
+	 * @return the makespan, which is the maximal end time
+	 */
+	public float getCmax() {
+		return cmax;
+	}
+
+	/**
+	 *
+	 * @return the (weighted) sum of the end times
+	 */
+	public float getSumCj() {
+		return sumCj;
+	}
+
+	/**
+	 *
+	 * @return the maximal lateness
+	 */
+	public float getLmax() {
+		return lmax;
+	}
+
+	/**
+	 *
+	 * @return the (weighted) sum of the tardinesses
+	 */
+	public float getSumTj() {
+		return sumTj;
+	}
+
+	/**
+	 *
+	 * @return the (weighted) number of late jobs
+	 */
+	public float getSumUj() {
+		return sumUj;
+	}
+}
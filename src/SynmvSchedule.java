@@ -0,0 +1,350 @@
+/**
+ * This class represents the schedule of SynmvJobs, i.e. the order they are
+ * processed in. It stores the job at every position as well as the position
+ * of every job, so both can be looked up in constant time.
+ *
+ * @author sebrockm
+ *
+ */
+public class SynmvSchedule {
+
+	/**
+	 * The scheduled jobs. jobs[j] is the job with the id j+1.
+	 */
+	private final SynmvJob[] jobs;
+
+	/**
+	 * The process times of the jobs. times[j] is the array of process times
+	 * of the job with index j, so changes of a job's times are visible here.
+	 */
+	private final float[][] times;
+
+	/**
+	 * The order of the jobs. order[p] is the index of the job at position p.
+	 */
+	private final int[] order;
+
+	/**
+	 * The position index. positions[j] is the position of the job with index j.
+	 */
+	private final int[] positions;
+	
+	/**
+	 * The due dates of the jobs. duedates[j] is the due date of the job with index j.
+	 */
+	private final float[] duedates;
+	
+	/**
+	 * The weights of the jobs. weights[j] is the weight of the job with index j.
+	 */
+	private final float[] weights;
+	
+	/**
+	 * The minimal weight of all jobs.
+	 */
+	private float minWeight;
+	
+	/**
+	 * The maximal weight of all jobs.
+	 */
+	private float maxWeight;
+
+	/**
+	 * The number of changes of the order, the times, the due dates and the weights so far.
+	 */
+	private long version = 0;
+
+	/**
+	 * Creates a new SynmvSchedule and assigns it to the jobs.
+	 *
+	 * @param jobs
+	 * 			the jobs to be scheduled, jobs[j] must have the id j+1
+	 * @param order
+	 * 			the initial order of the job indices or null for the order of the jobs array
+	 */
+	public SynmvSchedule(SynmvJob[] jobs, int[] order) {
+		this.jobs = jobs;
+		this.times = new float[jobs.length][];
+		this.order = new int[jobs.length];
+		this.positions = new int[jobs.length];
+		this.duedates = new float[jobs.length];
+		this.weights = new float[jobs.length];
+
+		for(int j = 0; j < jobs.length; j++) {
+			if(jobs[j].getID() != j+1) {
+				throw new IllegalArgumentException("the job at index " + j + " must have the id " + (j+1));
+			}
+			times[j] = jobs[j].getTimes();
+			duedates[j] = jobs[j].getDuedate();
+			weights[j] = jobs[j].getWeight();
+			positions[j] = -1;
+		}
+		for(int p = 0; p < jobs.length; p++) {
+			int j = order == null ? p : order[p];
+			if(j < 0 || j >= jobs.length || positions[j] != -1) {
+				throw new IllegalArgumentException("'order' must be a permutation of the job indices");
+			}
+			this.order[p] = j;
+			positions[j] = p;
+		}
+
+		calculateWeightRange();
+		for(SynmvJob job : jobs) {
+			job.setSchedule(this);
+		}
+		SynmvJob.markChanged(0);
+	}
+
+	/**
+	 *
+	 * @return the number of scheduled jobs
+	 */
+	public int size() {
+		return order.length;
+	}
+
+	/**
+	 * Returns the jobs array itself, not a copy. It must not be changed.
+	 *
+	 * @return the scheduled jobs, jobs[j] is the job with the id j+1
+	 */
+	public SynmvJob[] getJobs() {
+		return jobs;
+	}
+
+	/**
+	 * Returns the times array itself, not a copy. It must not be changed.
+	 *
+	 * @return the process times, times[j][i] is the time the job with index j needs on machine i
+	 */
+	public float[][] getTimes() {
+		return times;
+	}
+
+	/**
+	 * Returns the order array itself, not a copy. It must not be changed,
+	 * but it reflects all changes made to this schedule.
+	 *
+	 * @return the order of the jobs, order[p] is the index of the job at position p
+	 */
+	public int[] getOrder() {
+		return order;
+	}
+
+	/**
+	 * Returns a copy of the process times, e.g. for calculations in another thread.
+	 *
+	 * @return the process times, times[j][i] is the time the job with index j needs on machine i
+	 */
+	public float[][] copyTimes() {
+		float[][] copy = new float[times.length][];
+		for(int j = 0; j < times.length; j++) {
+			copy[j] = times[j].clone();
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns the due dates array itself, not a copy. It must not be changed.
+	 *
+	 * @return the due dates, duedates[j] is the due date of the job with index j
+	 */
+	public float[] getDuedates() {
+		return duedates;
+	}
+
+	/**
+	 * Returns the weights array itself, not a copy. It must not be changed.
+	 *
+	 * @return the weights, weights[j] is the weight of the job with index j
+	 */
+	public float[] getWeights() {
+		return weights;
+	}
+
+	/**
+	 *
+	 * @return the minimal weight of all jobs or 0, if there are no jobs
+	 */
+	public float getMinWeight() {
+		return minWeight;
+	}
+
+	/**
+	 *
+	 * @return the maximal weight of all jobs or 0, if there are no jobs
+	 */
+	public float getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * Sets the due date of a job. This is done by the job itself.
+	 *
+	 * @param job
+	 * 			the index of the job
+	 * @param duedate
+	 * 			the new due date
+	 */
+	void setDuedate(int job, float duedate) {
+		duedates[job] = duedate;
+		version++;
+	}
+
+	/**
+	 * Sets the weight of a job and actualizes the minimal and maximal weight.
+	 * This is done by the job itself. The weights are only scanned again,
+	 * if the old weight has been the minimum or maximum and the new one is not.
+	 *
+	 * @param job
+	 * 			the index of the job
+	 * @param weight
+	 * 			the new weight
+	 */
+	void setWeight(int job, float weight) {
+		float old = weights[job];
+		weights[job] = weight;
+		version++;
+
+		if((old == minWeight && weight > minWeight) || (old == maxWeight && weight < maxWeight)) {
+			calculateWeightRange();
+		}
+		else {
+			minWeight = Math.min(minWeight, weight);
+			maxWeight = Math.max(maxWeight, weight);
+		}
+	}
+
+	/**
+	 * Counts a change of the times of a job. The job changes them through
+	 * its own times array and announces it by this method.
+	 */
+	void timesChanged() {
+		version++;
+	}
+
+	/**
+	 * Returns the version of the schedule. It changes whenever the order,
+	 * the times, the due dates or the weights change, so a result calculated
+	 * in the background can be checked for being outdated.
+	 *
+	 * @return the number of changes so far
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Calculates the minimal and maximal weight of all jobs.
+	 */
+	private void calculateWeightRange() {
+		if(weights.length == 0) {
+			minWeight = 0;
+			maxWeight = 0;
+			return;
+		}
+		minWeight = weights[0];
+		maxWeight = weights[0];
+		for(float w : weights) {
+			minWeight = Math.min(minWeight, w);
+			maxWeight = Math.max(maxWeight, w);
+		}
+	}
+
+	/**
+	 *
+	 * @param position
+	 * 			the position starting with 0
+	 * @return the job at that position
+	 */
+	public SynmvJob getJob(int position) {
+		return jobs[order[position]];
+	}
+
+	/**
+	 *
+	 * @param job
+	 * 			a scheduled job
+	 * @return the job's position starting with 0
+	 */
+	public int getPosition(SynmvJob job) {
+		return positions[job.getID()-1];
+	}
+
+	/**
+	 * Swaps (exchanges) the jobs at two positions.
+	 *
+	 * @param p1
+	 * 			first position
+	 * @param p2
+	 * 			second position
+	 */
+	public void swap(int p1, int p2) {
+		int j1 = order[p1];
+		int j2 = order[p2];
+		order[p1] = j2;
+		order[p2] = j1;
+		positions[j2] = p1;
+		positions[j1] = p2;
+		version++;
+	}
+
+	/**
+	 * Moves the job at a position to another one. The jobs in between
+	 * are moved by one position towards the old position.
+	 * This takes time proportional to the distance of both positions.
+	 *
+	 * @param from
+	 * 			the position of the job to be moved
+	 * @param to
+	 * 			the position the job is moved to
+	 */
+	public void move(int from, int to) {
+		int job = order[from];
+		if(from < to) {
+			System.arraycopy(order, from+1, order, from, to-from);
+		}
+		else {
+			System.arraycopy(order, to, order, to+1, from-to);
+		}
+		order[to] = job;
+
+		for(int p = Math.min(from, to); p <= Math.max(from, to); p++) {
+			positions[order[p]] = p;
+		}
+		version++;
+	}
+
+	/**
+	 * Replaces the whole order of the jobs at once.
+	 *
+	 * @param order
+	 * 			the new order of the job indices, it is copied
+	 * @return the first position whose job has changed or size(), if none has changed
+	 */
+	public int setOrder(int[] order) {
+		if(order.length != this.order.length) {
+			throw new IllegalArgumentException("'order' must be a permutation of the job indices");
+		}
+		boolean[] used = new boolean[order.length];
+		for(int j : order) {
+			if(j < 0 || j >= order.length || used[j]) {
+				throw new IllegalArgumentException("'order' must be a permutation of the job indices");
+			}
+			used[j] = true;
+		}
+
+		int first = order.length;
+		for(int p = 0; p < order.length; p++) {
+			if(this.order[p] != order[p]) {
+				first = Math.min(first, p);
+				this.order[p] = order[p];
+				positions[order[p]] = p;
+			}
+		}
+		if(first < order.length) {
+			version++;
+		}
+		return first;
+	}
+}